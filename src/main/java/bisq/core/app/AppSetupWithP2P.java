@@ -19,6 +19,7 @@ package bisq.core.app;
 
 import bisq.core.filter.FilterManager;
 import bisq.core.payment.AccountAgeWitnessService;
+import bisq.core.setup.PersistedDataHostScheduler;
 import bisq.core.trade.statistics.TradeStatisticsManager;
 
 import bisq.network.crypto.EncryptionService;
@@ -69,14 +70,11 @@ public class AppSetupWithP2P extends AppSetup {
         persistedDataHosts.add(p2PService);
 
         // we apply at startup the reading of persisted data but don't want to get it triggered in the constructor
-        persistedDataHosts.stream().forEach(e -> {
-            try {
-                log.info("call readPersisted at " + e.getClass().getSimpleName());
-                e.readPersisted();
-            } catch (Throwable e1) {
-                log.error("readPersisted error", e1);
-            }
-        });
+        // P2PService and the DAO services added by AppSetupWithP2PAndDAO don't read any state of each other in
+        // readPersisted (see the declared dependencies in CorePersistedDataHost), so they are read in parallel.
+        final PersistedDataHostScheduler scheduler = new PersistedDataHostScheduler();
+        persistedDataHosts.forEach(e -> scheduler.add(e));
+        scheduler.readPersisted();
     }
 
     @Override
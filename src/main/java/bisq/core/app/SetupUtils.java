@@ -94,12 +94,24 @@ public class SetupUtils {
             final String postFix = "_" + baseCurrencyNetwork.getCurrencyCode() + "_"
                     + baseCurrencyNetwork.getNetwork();
             long ts = new Date().getTime();
-            p2PDataStorage.readFromResources(P2PDataStorage.PERSISTABLE_NETWORK_PAYLOAD_MAP_FILE_NAME, postFix);
-            p2PDataStorage.readFromResources(P2PDataStorage.PERSISTED_ENTRY_MAP_FILE_NAME, postFix);
-            log.info("readFromResources took {} ms", (new Date().getTime() - ts));
-            UserThread.execute(() -> result.set(true));
+            try {
+                // P2PDataStorage is not known to be safe for concurrent reads, so we read the files one after
+                // the other.
+                readFromResources(p2PDataStorage, P2PDataStorage.PERSISTABLE_NETWORK_PAYLOAD_MAP_FILE_NAME, postFix);
+                readFromResources(p2PDataStorage, P2PDataStorage.PERSISTED_ENTRY_MAP_FILE_NAME, postFix);
+                log.info("readFromResources took {} ms", (new Date().getTime() - ts));
+            } finally {
+                // We set the result also if reading failed, so that the P2P startup does not hang
+                UserThread.execute(() -> result.set(true));
+            }
         });
         thread.start();
         return result;
     }
+
+    private static void readFromResources(P2PDataStorage p2PDataStorage, String fileName, String postFix) {
+        long ts = new Date().getTime();
+        p2PDataStorage.readFromResources(fileName, postFix);
+        log.info("readFromResources for {} took {} ms", fileName, (new Date().getTime() - ts));
+    }
 }
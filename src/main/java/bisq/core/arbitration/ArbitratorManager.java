@@ -18,6 +18,7 @@
 package bisq.core.arbitration;
 
 import bisq.core.app.AppOptionKeys;
+import bisq.core.crypto.VerifiedSignatureCache;
 import bisq.core.filter.FilterManager;
 import bisq.core.user.Preferences;
 import bisq.core.user.User;
@@ -48,6 +49,8 @@ import javafx.collections.ObservableMap;
 import java.security.PublicKey;
 import java.security.SignatureException;
 
+import java.nio.charset.StandardCharsets;
+
 import java.math.BigInteger;
 
 import java.util.ArrayList;
@@ -155,17 +158,21 @@ public class ArbitratorManager {
                 if (data.getProtectedStoragePayload() instanceof Arbitrator) {
                     updateArbitratorMap();
                     final Arbitrator arbitrator = (Arbitrator) data.getProtectedStoragePayload();
-                    user.removeAcceptedArbitrator(arbitrator);
-                    user.removeAcceptedMediator(getMediator(arbitrator));
+                    user.runBatched(() -> {
+                        user.removeAcceptedArbitrator(arbitrator);
+                        user.removeAcceptedMediator(getMediator(arbitrator));
+                    });
                 }
             }
         });
 
         persistedAcceptedArbitrators = new ArrayList<>(user.getAcceptedArbitrators());
-        user.clearAcceptedArbitrators();
+        user.runBatched(() -> {
+            user.clearAcceptedArbitrators();
 
-        // TODO we mirror arbitrator data for mediator as long we have not impl. it in the UI
-        user.clearAcceptedMediators();
+            // TODO we mirror arbitrator data for mediator as long we have not impl. it in the UI
+            user.clearAcceptedMediators();
+        });
 
         if (user.getRegisteredArbitrator() != null) {
             P2PService p2PService = arbitratorService.getP2PService();
@@ -195,7 +202,6 @@ public class ArbitratorManager {
 
     public void updateArbitratorMap() {
         Map<NodeAddress, Arbitrator> map = arbitratorService.getArbitrators();
-        arbitratorsObservableMap.clear();
         Map<NodeAddress, Arbitrator> filtered = map.values().stream()
                 .filter(e -> {
                     final String pubKeyAsHex = Utils.HEX.encode(e.getRegistrationPubKey());
@@ -220,36 +226,42 @@ public class ArbitratorManager {
                 })
                 .collect(Collectors.toMap(Arbitrator::getNodeAddress, Function.identity()));
 
-        arbitratorsObservableMap.putAll(filtered);
-        arbitratorsObservableMap.values().stream()
+        // We apply only the changes to not trigger the listeners of the observable map for unchanged arbitrators
+        arbitratorsObservableMap.keySet().retainAll(filtered.keySet());
+        filtered.forEach((nodeAddress, arbitrator) -> {
+            if (!arbitrator.equals(arbitratorsObservableMap.get(nodeAddress)))
+                arbitratorsObservableMap.put(nodeAddress, arbitrator);
+        });
+        // We save the user only once after all arbitrators and mediators are added
+        user.runBatched(() -> arbitratorsObservableMap.values().stream()
                 .filter(persistedAcceptedArbitrators::contains)
                 .forEach(a -> {
                     user.addAcceptedArbitrator(a);
                     user.addAcceptedMediator(getMediator(a)
                     );
-                });
+                }));
 
         if (preferences.isAutoSelectArbitrators()) {
-            arbitratorsObservableMap.values().stream()
+            user.runBatched(() -> arbitratorsObservableMap.values().stream()
                     .filter(user::hasMatchingLanguage)
                     .forEach(a -> {
                         user.addAcceptedArbitrator(a);
                         user.addAcceptedMediator(getMediator(a)
                         );
-                    });
+                    }));
         } else {
             // if we don't have any arbitrator we set all matching
             // we use a delay as we might get our matching arbitrator a bit delayed (first we get one we did not selected
             // then we get our selected one - we don't want to activate the first in that case)
             UserThread.runAfter(() -> {
                 if (user.getAcceptedArbitrators().isEmpty()) {
-                    arbitratorsObservableMap.values().stream()
+                    user.runBatched(() -> arbitratorsObservableMap.values().stream()
                             .filter(user::hasMatchingLanguage)
                             .forEach(a -> {
                                 user.addAcceptedArbitrator(a);
                                 user.addAcceptedMediator(getMediator(a)
                                 );
-                            });
+                            }));
                 }
             }, 100, TimeUnit.MILLISECONDS);
         }
@@ -345,14 +357,19 @@ public class ArbitratorManager {
 
     private boolean verifySignature(PublicKey storageSignaturePubKey, byte[] registrationPubKey, String signature) {
         String keyToSignAsHex = Utils.HEX.encode(storageSignaturePubKey.getEncoded());
-        try {
-            ECKey key = ECKey.fromPublicOnly(registrationPubKey);
-            key.verifyMessage(keyToSignAsHex, signature);
-            return true;
-        } catch (SignatureException e) {
-            log.warn("verifySignature failed");
-            return false;
-        }
+        return VerifiedSignatureCache.verify(registrationPubKey,
+                keyToSignAsHex.getBytes(StandardCharsets.UTF_8),
+                signature.getBytes(StandardCharsets.UTF_8),
+                () -> {
+                    try {
+                        ECKey key = ECKey.fromPublicOnly(registrationPubKey);
+                        key.verifyMessage(keyToSignAsHex, signature);
+                        return true;
+                    } catch (SignatureException e) {
+                        log.warn("verifySignature failed");
+                        return false;
+                    }
+                });
     }
 
 
@@ -23,27 +23,51 @@ import io.bisq.generated.protobuffer.PB;
 
 import com.google.protobuf.ByteString;
 
-import lombok.Value;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
-@Value
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The content of an attachment is kept as an immutable ByteString which is shared by all attachments with the same
+ * content. The same file is usually held by several messages (e.g. the arbitrator has a dispute with the buyer and
+ * one with the seller) and we get a new copy for each of them when reading the persisted disputes. As the ByteString
+ * is written as it is we do not copy the bytes each time the dispute list gets persisted.
+ */
+@EqualsAndHashCode
+@ToString
 public final class Attachment implements NetworkPayload {
+    private static final Interner<ByteString> CONTENT_INTERNER = Interners.newWeakInterner();
+
+    @Getter
     private final String fileName;
-    private final byte[] bytes;
+    private final ByteString content;
 
     public Attachment(String fileName, byte[] bytes) {
+        this(fileName, ByteString.copyFrom(bytes));
+    }
+
+    private Attachment(String fileName, ByteString content) {
         this.fileName = fileName;
-        this.bytes = bytes;
+        this.content = CONTENT_INTERNER.intern(content);
     }
 
     @Override
     public PB.Attachment toProtoMessage() {
         return PB.Attachment.newBuilder()
                 .setFileName(fileName)
-                .setBytes(ByteString.copyFrom(bytes))
+                .setBytes(content)
                 .build();
     }
 
     public static Attachment fromProto(PB.Attachment proto) {
-        return new Attachment(proto.getFileName(), proto.getBytes().toByteArray());
+        return new Attachment(proto.getFileName(), proto.getBytes());
+    }
+
+    // We return a copy as the content is shared
+    public byte[] getBytes() {
+        return content.toByteArray();
     }
 }
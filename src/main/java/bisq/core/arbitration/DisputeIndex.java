@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.arbitration;
+
+import bisq.core.trade.Contract;
+
+import bisq.network.p2p.NodeAddress;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Indexes the disputes by trade ID and counts the disputes per buyer and seller node address. The index follows the
+ * changes of the observed dispute list. There are at most a few disputes per trade (one per trader, rarely duplicates)
+ * so looking up the trader ID inside the disputes of a trade is cheap.
+ * Not thread safe, must be used from the same thread as the dispute list (UserThread).
+ */
+class DisputeIndex {
+    private final Map<String, List<Dispute>> disputesByTradeId = new HashMap<>();
+    private final Multiset<NodeAddress> buyerNodeAddresses = HashMultiset.create();
+    private final Multiset<NodeAddress> sellerNodeAddresses = HashMultiset.create();
+
+    DisputeIndex(ObservableList<Dispute> disputes) {
+        disputes.forEach(this::add);
+        disputes.addListener((ListChangeListener<Dispute>) change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::remove);
+                change.getAddedSubList().forEach(this::add);
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    Optional<Dispute> findDispute(String tradeId, int traderId) {
+        return getDisputes(tradeId).stream()
+                .filter(e -> e.getTraderId() == traderId)
+                .findAny();
+    }
+
+    Optional<Dispute> findAnyDispute(String tradeId) {
+        return getDisputes(tradeId).stream().findAny();
+    }
+
+    int getNrOfDisputes(boolean isBuyer, Contract contract) {
+        NodeAddress nodeAddress = isBuyer ? contract.getBuyerNodeAddress() : contract.getSellerNodeAddress();
+        if (nodeAddress == null)
+            return 0;
+
+        return isBuyer ? buyerNodeAddresses.count(nodeAddress) : sellerNodeAddresses.count(nodeAddress);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<Dispute> getDisputes(String tradeId) {
+        return disputesByTradeId.getOrDefault(tradeId, Collections.emptyList());
+    }
+
+    private void add(Dispute dispute) {
+        disputesByTradeId.computeIfAbsent(dispute.getTradeId(), k -> new ArrayList<>(2)).add(dispute);
+        Contract contract = dispute.getContract();
+        if (contract != null) {
+            if (contract.getBuyerNodeAddress() != null)
+                buyerNodeAddresses.add(contract.getBuyerNodeAddress());
+            if (contract.getSellerNodeAddress() != null)
+                sellerNodeAddresses.add(contract.getSellerNodeAddress());
+        }
+    }
+
+    private void remove(Dispute dispute) {
+        List<Dispute> disputes = disputesByTradeId.get(dispute.getTradeId());
+        if (disputes != null && disputes.remove(dispute)) {
+            if (disputes.isEmpty())
+                disputesByTradeId.remove(dispute.getTradeId());
+
+            Contract contract = dispute.getContract();
+            if (contract != null) {
+                if (contract.getBuyerNodeAddress() != null)
+                    buyerNodeAddresses.remove(contract.getBuyerNodeAddress());
+                if (contract.getSellerNodeAddress() != null)
+                    sellerNodeAddresses.remove(contract.getSellerNodeAddress());
+            }
+        }
+    }
+}
@@ -78,8 +78,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -99,6 +97,7 @@ public class DisputeManager implements PersistedDataHost {
     private final KeyRing keyRing;
     private final Storage<DisputeList> disputeStorage;
     private DisputeList disputes;
+    private DisputeIndex disputeIndex;
     private final String disputeInfo;
     private final CopyOnWriteArraySet<DecryptedMessageWithPubKey> decryptedMailboxMessageWithPubKeys = new CopyOnWriteArraySet<>();
     private final CopyOnWriteArraySet<DecryptedMessageWithPubKey> decryptedDirectMessageWithPubKeys = new CopyOnWriteArraySet<>();
@@ -159,6 +158,7 @@ public class DisputeManager implements PersistedDataHost {
         disputes = new DisputeList(disputeStorage);
         disputes.readPersisted();
         disputes.stream().forEach(dispute -> dispute.setStorage(getDisputeStorage()));
+        disputeIndex = new DisputeIndex(disputes.getList());
     }
 
     public void onAllServicesInitialized() {
@@ -815,21 +815,7 @@ public class DisputeManager implements PersistedDataHost {
     }
 
     public String getNrOfDisputes(boolean isBuyer, Contract contract) {
-        return String.valueOf(getDisputesAsObservableList().stream()
-                .filter(e -> {
-                    Contract contract1 = e.getContract();
-                    if (contract1 == null)
-                        return false;
-
-                    if (isBuyer) {
-                        NodeAddress buyerNodeAddress = contract1.getBuyerNodeAddress();
-                        return buyerNodeAddress != null && buyerNodeAddress.equals(contract.getBuyerNodeAddress());
-                    } else {
-                        NodeAddress sellerNodeAddress = contract1.getSellerNodeAddress();
-                        return sellerNodeAddress != null && sellerNodeAddress.equals(contract.getSellerNodeAddress());
-                    }
-                })
-                .collect(Collectors.toSet()).size());
+        return String.valueOf(disputeIndex.getNrOfDisputes(isBuyer, contract));
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -837,15 +823,11 @@ public class DisputeManager implements PersistedDataHost {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private Optional<Dispute> findDispute(String tradeId, int traderId) {
-        return disputes.stream().filter(e -> e.getTradeId().equals(tradeId) && e.getTraderId() == traderId).findAny();
+        return disputeIndex.findDispute(tradeId, traderId);
     }
 
     public Optional<Dispute> findOwnDispute(String tradeId) {
-        return getDisputeStream(tradeId).findAny();
-    }
-
-    private Stream<Dispute> getDisputeStream(String tradeId) {
-        return disputes.stream().filter(e -> e.getTradeId().equals(tradeId));
+        return disputeIndex.findAnyDispute(tradeId);
     }
 
     private void cleanupRetryMap(String uid) {
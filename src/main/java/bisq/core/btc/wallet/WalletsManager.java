@@ -72,6 +72,8 @@ public class WalletsManager {
         if (BisqEnvironment.isBaseCurrencySupportingBsq())
             bsqWalletService.decryptWallet(aesKey);
         tradeWalletService.setAesKey(null);
+        // The password is removed so we do not keep any derived key
+        ScryptUtil.clearCache();
     }
 
     public void encryptWallets(KeyCrypterScrypt keyCrypterScrypt, KeyParameter aesKey) {
@@ -82,6 +84,9 @@ public class WalletsManager {
 
             // we save the key for the trade wallet as we don't require passwords here
             tradeWalletService.setAesKey(aesKey);
+
+            // The wallets got locked with a new password so we do not keep any derived key
+            ScryptUtil.clearCache();
         } catch (Throwable t) {
             log.error(t.toString());
             throw t;
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.crypto;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.crypto.Hash;
+
+import org.bitcoinj.crypto.KeyCrypterScrypt;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.spongycastle.crypto.params.KeyParameter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps derived keys for a short time so that repeated derivations with the same password and scrypt parameters
+ * (e.g. unlocking the wallet several times in one flow) do not pay the scrypt cost again.
+ * Entries are keyed by the hash of the scrypt parameters (incl. salt) and the password. We store our own copy of the
+ * key bytes and hand out new KeyParameter instances, so wiping the cache does not affect keys held by the wallets.
+ * The key bytes of an entry get wiped at its expiry time, also if the cache is not accessed anymore.
+ */
+class DerivedKeyCache {
+    interface WipeScheduler {
+        void schedule(Runnable wipe, long delayMillis);
+    }
+
+    private static final ScheduledExecutorService WIPE_EXECUTOR = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("DerivedKeyCache:wipe-%d")
+                    .setDaemon(true)
+                    .build());
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final WipeScheduler wipeScheduler;
+    private final Map<P2PDataStorage.ByteArray, Entry> entries = new HashMap<>();
+
+    DerivedKeyCache(long ttlMillis) {
+        this(ttlMillis, System::currentTimeMillis,
+                (wipe, delayMillis) -> WIPE_EXECUTOR.schedule(wipe, delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    DerivedKeyCache(long ttlMillis, LongSupplier clock, WipeScheduler wipeScheduler) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.wipeScheduler = wipeScheduler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    synchronized KeyParameter get(KeyCrypterScrypt keyCrypterScrypt, String password) {
+        removeExpired();
+        final Entry entry = entries.get(getKey(keyCrypterScrypt, password));
+        return entry != null ? new KeyParameter(entry.keyBytes) : null;
+    }
+
+    synchronized void put(KeyCrypterScrypt keyCrypterScrypt, String password, KeyParameter aesKey) {
+        removeExpired();
+        final P2PDataStorage.ByteArray key = getKey(keyCrypterScrypt, password);
+        final Entry entry = new Entry(aesKey.getKey().clone(), clock.getAsLong() + ttlMillis);
+        final Entry previous = entries.put(key, entry);
+        if (previous != null)
+            previous.wipe();
+        wipeScheduler.schedule(() -> onExpired(key, entry), ttlMillis);
+    }
+
+    synchronized void clear() {
+        entries.values().forEach(Entry::wipe);
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void onExpired(P2PDataStorage.ByteArray key, Entry entry) {
+        // The entry might have been replaced or removed already
+        if (entries.remove(key, entry))
+            entry.wipe();
+    }
+
+    private void removeExpired() {
+        final long now = clock.getAsLong();
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (now >= entry.expiryTime) {
+                entry.wipe();
+                iterator.remove();
+            }
+        }
+    }
+
+    private static P2PDataStorage.ByteArray getKey(KeyCrypterScrypt keyCrypterScrypt, String password) {
+        final byte[] scryptParameters = keyCrypterScrypt.getScryptParameters().toByteArray();
+        final byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        // We add the length to avoid ambiguity of the concatenated data
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(4 + scryptParameters.length + passwordBytes.length);
+        byteBuffer.putInt(scryptParameters.length).put(scryptParameters).put(passwordBytes);
+        final P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(Hash.getSha256Hash(byteBuffer.array()));
+        Arrays.fill(passwordBytes, (byte) 0);
+        Arrays.fill(byteBuffer.array(), (byte) 0);
+        return key;
+    }
+
+    private static final class Entry {
+        private final byte[] keyBytes;
+        private final long expiryTime;
+
+        private Entry(byte[] keyBytes, long expiryTime) {
+            this.keyBytes = keyBytes;
+            this.expiryTime = expiryTime;
+        }
+
+        private void wipe() {
+            Arrays.fill(keyBytes, (byte) 0);
+        }
+    }
+}
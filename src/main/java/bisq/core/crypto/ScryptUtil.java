@@ -18,15 +18,25 @@
 package bisq.core.crypto;
 
 import bisq.common.UserThread;
-import bisq.common.util.Utilities;
 
 import com.google.protobuf.ByteString;
 
 import org.bitcoinj.crypto.KeyCrypterScrypt;
 import org.bitcoinj.wallet.Protos;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.spongycastle.crypto.params.KeyParameter;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +44,21 @@ import org.slf4j.LoggerFactory;
 public class ScryptUtil {
     private static final Logger log = LoggerFactory.getLogger(ScryptUtil.class);
 
+    // Derived keys are kept only shortly so that repeated unlocks in one flow do not derive the key again
+    private static final long CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    // Scrypt is memory and CPU intensive so we run one derivation at a time on a shared daemon thread instead of
+    // creating a new executor for each call.
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("ScryptUtil:deriveKeyWithScrypt-%d")
+            .setDaemon(true)
+            .build());
+    private static final DerivedKeyCache DERIVED_KEY_CACHE = new DerivedKeyCache(CACHE_TTL_MILLIS);
+
+    private static final AtomicLong numDerivations = new AtomicLong();
+    private static final AtomicLong numCacheHits = new AtomicLong();
+    private static final AtomicLong totalDerivationTime = new AtomicLong();
+
     public interface DeriveKeyResultHandler {
         void handleResult(KeyParameter aesKey);
     }
@@ -48,28 +73,97 @@ public class ScryptUtil {
         return new KeyCrypterScrypt(scryptParameters);
     }
 
-    public static void deriveKeyWithScrypt(KeyCrypterScrypt keyCrypterScrypt, String password, DeriveKeyResultHandler resultHandler) {
-        Utilities.getThreadPoolExecutor("ScryptUtil:deriveKeyWithScrypt-%d", 1, 2, 5L).submit(() -> {
+    // The returned future can be used to cancel the derivation. If cancelled the resultHandler is not called.
+    public static Future<?> deriveKeyWithScrypt(KeyCrypterScrypt keyCrypterScrypt, String password, DeriveKeyResultHandler resultHandler) {
+        KeyParameter cachedAesKey = DERIVED_KEY_CACHE.get(keyCrypterScrypt, password);
+        if (cachedAesKey != null) {
+            numCacheHits.incrementAndGet();
+            log.debug("We use the cached derived key");
+            DeriveKeyTask task = new DeriveKeyTask(() -> cachedAesKey, resultHandler);
+            task.run();
+            return task;
+        }
+
+        DeriveKeyTask task = new DeriveKeyTask(() -> {
+            log.debug("Doing key derivation");
+            long start = System.currentTimeMillis();
+            KeyParameter aesKey = keyCrypterScrypt.deriveKey(password);
+            long duration = System.currentTimeMillis() - start;
+            numDerivations.incrementAndGet();
+            totalDerivationTime.addAndGet(duration);
+            log.debug("Key derivation took {} msec", duration);
+            DERIVED_KEY_CACHE.put(keyCrypterScrypt, password, aesKey);
+            return aesKey;
+        }, resultHandler);
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    // Should be called when the wallet gets locked or the password changes
+    public static void clearCache() {
+        DERIVED_KEY_CACHE.clear();
+    }
+
+    public static long getNumDerivations() {
+        return numDerivations.get();
+    }
+
+    public static long getNumCacheHits() {
+        return numCacheHits.get();
+    }
+
+    public static long getTotalDerivationTime() {
+        return totalDerivationTime.get();
+    }
+
+    private static void handleResult(DeriveKeyResultHandler resultHandler, KeyParameter aesKey) {
+        try {
+            resultHandler.handleResult(aesKey);
+        } catch (Throwable t) {
+            t.printStackTrace();
+            log.error("Executing task failed. " + t.getMessage());
+            throw t;
+        }
+    }
+
+    // The derivation might be completed already when the caller cancels, so the cancelled flag of the task is checked
+    // again on the UserThread right before the resultHandler gets called.
+    private static final class DeriveKeyTask extends FutureTask<KeyParameter> {
+        private final DeriveKeyResultHandler resultHandler;
+        private volatile boolean cancelled;
+
+        private DeriveKeyTask(Callable<KeyParameter> callable, DeriveKeyResultHandler resultHandler) {
+            super(callable);
+            this.resultHandler = resultHandler;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            cancelled = true;
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        protected void done() {
+            if (cancelled) {
+                log.debug("Key derivation got cancelled");
+                return;
+            }
+
             try {
-                log.debug("Doing key derivation");
-                long start = System.currentTimeMillis();
-                KeyParameter aesKey = keyCrypterScrypt.deriveKey(password);
-                long duration = System.currentTimeMillis() - start;
-                log.debug("Key derivation took {} msec", duration);
+                KeyParameter aesKey = get();
                 UserThread.execute(() -> {
-                    try {
-                        resultHandler.handleResult(aesKey);
-                    } catch (Throwable t) {
-                        t.printStackTrace();
-                        log.error("Executing task failed. " + t.getMessage());
-                        throw t;
-                    }
+                    if (cancelled)
+                        log.debug("Key derivation got cancelled");
+                    else
+                        handleResult(resultHandler, aesKey);
                 });
-            } catch (Throwable t) {
-                t.printStackTrace();
-                log.error("Executing task failed. " + t.getMessage());
-                throw t;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+                log.error("Executing task failed. " + e.getCause().getMessage());
             }
-        });
+        }
     }
 }
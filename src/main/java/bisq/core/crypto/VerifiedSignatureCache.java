@@ -0,0 +1,73 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.crypto;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.crypto.Hash;
+
+import java.nio.ByteBuffer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of successful signature verifications shared by the services which verify the same signed data
+ * repeatedly (e.g. arbitrator registrations and the filter at each update of the P2P data).
+ * We only cache the hash of pubKey, message and signature and only successful verifications, so an invalid signature
+ * is always verified again.
+ */
+public class VerifiedSignatureCache {
+    private static final int MAX_ENTRIES = 1000;
+
+    private static final Set<P2PDataStorage.ByteArray> verifiedSignatures = Collections.synchronizedSet(
+            Collections.newSetFromMap(new LinkedHashMap<P2PDataStorage.ByteArray, Boolean>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<P2PDataStorage.ByteArray, Boolean> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            }));
+
+    // The verifier is only called if we have not verified that combination of pubKey, message and signature before
+    public static boolean verify(byte[] pubKey, byte[] message, byte[] signature, Supplier<Boolean> verifier) {
+        final P2PDataStorage.ByteArray key = getKey(pubKey, message, signature);
+        if (verifiedSignatures.contains(key))
+            return true;
+
+        final boolean result = verifier.get();
+        if (result)
+            verifiedSignatures.add(key);
+        return result;
+    }
+
+    public static void clear() {
+        verifiedSignatures.clear();
+    }
+
+    private static P2PDataStorage.ByteArray getKey(byte[] pubKey, byte[] message, byte[] signature) {
+        // We add the lengths to avoid ambiguity of the concatenated data
+        final ByteBuffer byteBuffer = ByteBuffer.allocate(12 + pubKey.length + message.length + signature.length);
+        byteBuffer.putInt(pubKey.length).put(pubKey)
+                .putInt(message.length).put(message)
+                .putInt(signature.length).put(signature);
+        return new P2PDataStorage.ByteArray(Hash.getSha256Hash(byteBuffer.array()));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Collects the state changes applied to the BsqBlockChain while a block gets parsed so that they can be reverted
+ * in reverse order at a re-org. Reverting costs only the number of changes of that block and does not require
+ * to apply a snapshot and to parse all blocks after the snapshot again.
+ * <p>
+ * Changes applied before the block got added (spent and created outputs, added txs) and changes applied later as
+ * consequence of the block (issuance) are collected in the same record.
+ * <p>
+ * Not thread safe. Access is guarded by the write lock of BsqBlockChain.
+ */
+class BlockUndoRecord {
+    @Getter
+    private int height;
+    @Getter
+    private int previousChainHeadHeight;
+    private final List<Runnable> revertActions = new ArrayList<>();
+
+    BlockUndoRecord() {
+    }
+
+    void addRevertAction(Runnable revertAction) {
+        revertActions.add(revertAction);
+    }
+
+    // Called when the block got added to the BsqBlockChain
+    void seal(int height, int previousChainHeadHeight) {
+        this.height = height;
+        this.previousChainHeadHeight = previousChainHeadHeight;
+    }
+
+    void revert() {
+        for (int i = revertActions.size() - 1; i >= 0; i--) {
+            revertActions.get(i).run();
+        }
+        revertActions.clear();
+    }
+
+    int getNumChanges() {
+        return revertActions.size();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import bisq.core.dao.blockchain.vo.SpentInfo;
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.blockchain.vo.TxOutput;
+import bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
+
+import bisq.common.util.Tuple2;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Staging overlay for the state changes of the block which is currently parsed. The parser writes into the batch and
+ * sees the staged changes at its reads, other readers only see the committed state of the BsqBlockChain.
+ * The batch gets committed under one write lock when the block is added.
+ * <p>
+ * Outputs which get spent are only marked as spent at commit, so readers never see a half applied block.
+ * Outputs which are created and spent in the same block never reach the committed state as unspent.
+ * <p>
+ * Methods are synchronized as the batch gets cleared from the UserThread at a re-org or when a snapshot is applied.
+ */
+class BlockWriteBatch {
+    @Nullable
+    @Getter
+    private Tx genesisTx;
+    private final List<Tx> txs = new ArrayList<>();
+    private final Map<TxIdIndexTuple, TxOutput> addedUnspentTxOutputs = new LinkedHashMap<>();
+    private final Map<TxIdIndexTuple, Tuple2<TxOutput, SpentInfo>> spentTxOutputs = new LinkedHashMap<>();
+
+    BlockWriteBatch() {
+    }
+
+    synchronized void setGenesisTx(Tx genesisTx) {
+        this.genesisTx = genesisTx;
+    }
+
+    synchronized void addTx(Tx tx) {
+        txs.add(tx);
+    }
+
+    synchronized void addUnspentTxOutput(TxOutput txOutput) {
+        addedUnspentTxOutputs.put(txOutput.getTxIdIndexTuple(), txOutput);
+    }
+
+    synchronized void spendTxOutput(TxOutput txOutput, SpentInfo spentInfo) {
+        final TxIdIndexTuple key = txOutput.getTxIdIndexTuple();
+        if (addedUnspentTxOutputs.remove(key) != null) {
+            // Created in the same block, so it is not visible to other readers and we can apply it directly
+            txOutput.setUnspent(false);
+            txOutput.setSpentInfo(spentInfo);
+        } else {
+            spentTxOutputs.put(key, new Tuple2<>(txOutput, spentInfo));
+        }
+    }
+
+    synchronized boolean isSpent(TxIdIndexTuple key) {
+        return spentTxOutputs.containsKey(key);
+    }
+
+    @Nullable
+    synchronized TxOutput getAddedUnspentTxOutput(TxIdIndexTuple key) {
+        return addedUnspentTxOutputs.get(key);
+    }
+
+    synchronized List<Tx> getTxs() {
+        return new ArrayList<>(txs);
+    }
+
+    synchronized List<TxOutput> getAddedUnspentTxOutputs() {
+        return new ArrayList<>(addedUnspentTxOutputs.values());
+    }
+
+    synchronized List<Tuple2<TxOutput, SpentInfo>> getSpentTxOutputs() {
+        return new ArrayList<>(spentTxOutputs.values());
+    }
+
+    synchronized int getNumChanges() {
+        return (genesisTx != null ? 1 : 0) + txs.size() + addedUnspentTxOutputs.size() + spentTxOutputs.size();
+    }
+
+    synchronized void clear() {
+        genesisTx = null;
+        txs.clear();
+        addedUnspentTxOutputs.clear();
+        spentTxOutputs.clear();
+    }
+}
@@ -19,10 +19,12 @@ package bisq.core.dao.blockchain;
 
 import bisq.core.dao.DaoOptionKeys;
 import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.blockchain.vo.SpentInfo;
 import bisq.core.dao.blockchain.vo.Tx;
 import bisq.core.dao.blockchain.vo.TxOutput;
 import bisq.core.dao.blockchain.vo.TxOutputType;
 import bisq.core.dao.blockchain.vo.TxType;
+import bisq.core.dao.blockchain.vo.util.StringInterner;
 import bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
 
 import bisq.common.UserThread;
@@ -42,6 +44,8 @@ import javax.inject.Named;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -63,6 +67,14 @@ import static com.google.common.base.Preconditions.checkArgument;
  * We only have one thread which is writing data from the lite node or full node executors.
  * We use ReentrantReadWriteLock in a functional style.
  * <p>
+ * The state changes of the block which is currently parsed are staged in a BlockWriteBatch and committed under one
+ * write lock at addBlock, so readers never see a half applied block.
+ * <p>
+ * Read access to txs and tx outputs goes over an immutable BsqBlockChainState which is published with a volatile
+ * reference at each committed change, so those reads do not need the lock. The txMap and the unspentTxOutputsMap are
+ * persistent maps which share their unchanged nodes with the previous version, so publishing a new state costs only
+ * O(changes) of the block and not a copy of the maps.
+ * <p>
  * We limit the access to BsqBlockChain over interfaces for read (ReadableBsqBlockChain) and
  * write (WritableBsqBlockChain) to have better overview and control about access.
  * <p>
@@ -89,6 +101,10 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     public static final String BTC_GENESIS_TX_ID = "e5c8313c4144d219b5f6b2dacf1d36f2d43a9039bb2fcd1bd57f8352a9c9809a";
     public static final int BTC_GENESIS_BLOCK_HEIGHT = 477865; // 2017-07-28
 
+    // Max. number of blocks we can revert with the undo records at a re-org. For deeper re-orgs we need to apply
+    // the last snapshot.
+    public static final int MAX_UNDO_BLOCKS = 144; // about 1 day
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listener
@@ -111,17 +127,30 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     private final int genesisBlockHeight;
 
     private final LinkedList<BsqBlock> bsqBlocks;
-    private final Map<String, Tx> txMap;
-    private final Map<TxIdIndexTuple, TxOutput> unspentTxOutputsMap;
+    // Only replaced under the write lock
+    private PersistentHashMap<String, Tx> txMap;
+    private PersistentHashMap<TxIdIndexTuple, TxOutput> unspentTxOutputsMap;
 
     private final List<Listener> listeners = new ArrayList<>();
     private final List<IssuanceListener> issuanceListeners = new ArrayList<>();
 
-    private int chainHeadHeight = 0;
+    private volatile int chainHeadHeight = 0;
     @Nullable
     private Tx genesisTx;
 
     transient private final FunctionalReadWriteLock lock;
+    // Undo records of the last MAX_UNDO_BLOCKS blocks. Not persisted, after a restart we only can revert from a snapshot.
+    transient private final LinkedList<BlockUndoRecord> undoRecords = new LinkedList<>();
+    // Collects changes applied after the last undo record got sealed
+    transient private BlockUndoRecord pendingUndoRecord = new BlockUndoRecord();
+    // Staged changes of the block which is currently parsed
+    transient private final BlockWriteBatch writeBatch = new BlockWriteBatch();
+    // Incremented at each committed state change
+    transient private long version;
+    // Incremented at each revert and applied snapshot
+    transient private int reOrgCount;
+    // Published at each committed state change
+    transient private volatile BsqBlockChainState state;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -154,14 +183,15 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
                           int chainHeadHeight,
                           @Nullable Tx genesisTx) {
         this.bsqBlocks = bsqBlocks;
-        this.txMap = txMap;
-        this.unspentTxOutputsMap = unspentTxOutputsMap;
+        this.txMap = PersistentHashMap.copyOf(txMap);
+        this.unspentTxOutputsMap = PersistentHashMap.copyOf(unspentTxOutputsMap);
         this.genesisTxId = genesisTxId;
         this.genesisBlockHeight = genesisBlockHeight;
         this.chainHeadHeight = chainHeadHeight;
         this.genesisTx = genesisTx;
 
         lock = new FunctionalReadWriteLock(true);
+        publishState();
     }
 
     @Override
@@ -190,17 +220,39 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     }
 
     public static PersistableEnvelope fromProto(PB.BsqBlockChain proto) {
-        return new BsqBlockChain(new LinkedList<>(proto.getBsqBlocksList().stream()
+        final LinkedList<BsqBlock> bsqBlocks = new LinkedList<>(proto.getBsqBlocksList().stream()
                 .map(BsqBlock::fromProto)
-                .collect(Collectors.toList())),
-                new HashMap<>(proto.getTxMapMap().entrySet().stream()
-                        .collect(Collectors.toMap(Map.Entry::getKey, v -> Tx.fromProto(v.getValue())))),
-                new HashMap<>(proto.getUnspentTxOutputsMapMap().entrySet().stream()
-                        .collect(Collectors.toMap(k -> new TxIdIndexTuple(k.getKey()), v -> TxOutput.fromProto(v.getValue())))),
+                .collect(Collectors.toList()));
+
+        // At parsing the txs in the txMap and the outputs in the unspentTxOutputsMap are the same objects as the ones
+        // in the blocks. The protobuffer data contains separate copies, so we use the instances from the blocks
+        // if they are equal to avoid that we hold each tx up to 3 times in memory.
+        final Map<String, Tx> txsInBlocks = new HashMap<>();
+        bsqBlocks.forEach(bsqBlock -> bsqBlock.getTxs().forEach(tx -> txsInBlocks.put(tx.getId(), tx)));
+        final Map<String, Tx> txMap = new HashMap<>();
+        proto.getTxMapMap().forEach((txId, txProto) -> txMap.put(StringInterner.intern(txId),
+                getSharedInstance(Tx.fromProto(txProto), txsInBlocks.get(txId))));
+        final Map<TxIdIndexTuple, TxOutput> unspentTxOutputsMap = new HashMap<>();
+        proto.getUnspentTxOutputsMapMap().forEach((key, txOutputProto) -> {
+            final TxOutput txOutput = TxOutput.fromProto(txOutputProto);
+            final Tx tx = txMap.get(txOutput.getTxId());
+            final TxOutput txOutputInBlock = tx != null ? tx.getTxOutput(txOutput.getIndex()).orElse(null) : null;
+            unspentTxOutputsMap.put(new TxIdIndexTuple(key), getSharedInstance(txOutput, txOutputInBlock));
+        });
+
+        return new BsqBlockChain(bsqBlocks,
+                txMap,
+                unspentTxOutputsMap,
                 proto.getGenesisTxId(),
                 proto.getGenesisBlockHeight(),
                 proto.getChainHeadHeight(),
-                proto.hasGenesisTx() ? Tx.fromProto(proto.getGenesisTx()) : null);
+                proto.hasGenesisTx() ?
+                        getSharedInstance(Tx.fromProto(proto.getGenesisTx()), txMap.get(proto.getGenesisTxId())) :
+                        null);
+    }
+
+    private static <T> T getSharedInstance(T candidate, @Nullable T instanceInBlock) {
+        return candidate.equals(instanceInBlock) ? instanceInBlock : candidate;
     }
 
 
@@ -238,14 +290,56 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
             bsqBlocks.clear();
             bsqBlocks.addAll(snapshot.bsqBlocks);
 
-            txMap.clear();
-            txMap.putAll(snapshot.txMap);
-
-            unspentTxOutputsMap.clear();
-            unspentTxOutputsMap.putAll(snapshot.unspentTxOutputsMap);
+            // The maps of the snapshot are immutable, so we can share them
+            txMap = snapshot.txMap;
+            unspentTxOutputsMap = snapshot.unspentTxOutputsMap;
 
             chainHeadHeight = snapshot.chainHeadHeight;
             genesisTx = snapshot.genesisTx;
+
+            undoRecords.clear();
+            pendingUndoRecord = new BlockUndoRecord();
+            writeBatch.clear();
+            reOrgCount++;
+            publishState();
+        });
+    }
+
+    /**
+     * Reverts all blocks above the given height by applying the undo records in reverse order. The staged changes of
+     * a block which was not added (e.g. as it did not connect) are discarded.
+     *
+     * @param height The height of the block which will be the new chain head.
+     * @return false if we don't have the undo records for all blocks above height. In that case nothing gets changed
+     * and the caller need to apply a snapshot.
+     */
+    @Override
+    public boolean revertToHeight(int height) {
+        return lock.write(() -> {
+            if (height < chainHeadHeight &&
+                    (undoRecords.isEmpty() || undoRecords.getFirst().getHeight() > height + 1)) {
+                log.warn("We cannot revert to height {} as our undo records reach only down to height {}",
+                        height, undoRecords.isEmpty() ? chainHeadHeight : undoRecords.getFirst().getHeight());
+                return false;
+            }
+
+            writeBatch.clear();
+            int numChanges = pendingUndoRecord.getNumChanges();
+            pendingUndoRecord.revert();
+
+            int numBlocks = 0;
+            while (!undoRecords.isEmpty() && undoRecords.getLast().getHeight() > height) {
+                final BlockUndoRecord undoRecord = undoRecords.removeLast();
+                numChanges += undoRecord.getNumChanges();
+                undoRecord.revert();
+                bsqBlocks.removeLast();
+                chainHeadHeight = undoRecord.getPreviousChainHeadHeight();
+                numBlocks++;
+            }
+            reOrgCount++;
+            publishState();
+            log.info("Reverted {} blocks with {} changes. New chainHeadHeight={}", numBlocks, numChanges, chainHeadHeight);
+            return true;
         });
     }
 
@@ -257,26 +351,42 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     @Override
     public void addBlock(BsqBlock bsqBlock) {
         lock.write(() -> {
+            commitWriteBatch();
             bsqBlocks.add(bsqBlock);
+            pendingUndoRecord.seal(bsqBlock.getHeight(), chainHeadHeight);
+            undoRecords.add(pendingUndoRecord);
+            if (undoRecords.size() > MAX_UNDO_BLOCKS)
+                undoRecords.removeFirst();
+            pendingUndoRecord = new BlockUndoRecord();
             chainHeadHeight = bsqBlock.getHeight();
+            publishState();
             printNewBlock(bsqBlock);
             listeners.forEach(l -> UserThread.execute(() -> l.onBlockAdded(bsqBlock)));
         });
     }
 
+    @Override
+    public void discardWriteBatch() {
+        if (writeBatch.getNumChanges() > 0)
+            log.info("We discard {} staged changes", writeBatch.getNumChanges());
+        writeBatch.clear();
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Write access: Tx
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Staged until addBlock
     @Override
     public void setGenesisTx(Tx tx) {
-        lock.write(() -> genesisTx = tx);
+        writeBatch.setGenesisTx(tx);
     }
 
+    // Staged until addBlock
     @Override
     public void addTxToMap(Tx tx) {
-        lock.write(() -> txMap.put(tx.getId(), tx));
+        writeBatch.addTx(tx);
     }
 
 
@@ -284,36 +394,74 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     // Write access: TxOutput
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Staged until addBlock
     @Override
     public void addUnspentTxOutput(TxOutput txOutput) {
-        lock.write(() -> {
-            checkArgument(txOutput.isVerified(), "txOutput must be verified at addUnspentTxOutput");
-            unspentTxOutputsMap.put(txOutput.getTxIdIndexTuple(), txOutput);
-        });
+        checkArgument(txOutput.isVerified(), "txOutput must be verified at addUnspentTxOutput");
+        writeBatch.addUnspentTxOutput(txOutput);
+    }
+
+    // Staged until addBlock. The output gets marked as spent at commit.
+    @Override
+    public void spendTxOutput(TxOutput txOutput, SpentInfo spentInfo) {
+        writeBatch.spendTxOutput(txOutput, spentInfo);
     }
 
+    // Used by the parser as it needs to see the staged changes of the block it is parsing
     @Override
-    public void removeUnspentTxOutput(TxOutput txOutput) {
-        lock.write(() -> unspentTxOutputsMap.remove(txOutput.getTxIdIndexTuple()));
+    public Optional<TxOutput> getUnspentAndMatureTxOutputInclStaged(TxIdIndexTuple txIdIndexTuple) {
+        if (writeBatch.isSpent(txIdIndexTuple))
+            return Optional.empty();
+
+        final TxOutput stagedTxOutput = writeBatch.getAddedUnspentTxOutput(txIdIndexTuple);
+        if (stagedTxOutput != null)
+            return Optional.of(stagedTxOutput).filter(this::isTxOutputMature);
+
+        // We don't use the published state here as that would create a new state for each parsed block
+        return getUnspentTxOutput(txIdIndexTuple).filter(this::isTxOutputMature);
     }
 
+    // The issuance is a consequence of the block at blockHeight, so its revert gets added to the undo record of that
+    // block. That block might not be the chain head anymore if the parser has added more blocks in the meantime.
     @Override
-    public void issueBsq(TxOutput txOutput) {
+    public void issueBsq(TxOutput txOutput, int blockHeight) {
         lock.write(() -> {
             // The magic happens, we print money! ;-)
             //TODO handle maturity
 
+            final Tx tx = txMap.get(txOutput.getTxId());
+            checkArgument(tx != null, "tx must be present");
+
             // We should track spent status and output has to be unspent anyway
+            final boolean wasUnspent = txOutput.isUnspent();
+            final boolean wasVerified = txOutput.isVerified();
             txOutput.setUnspent(true);
             txOutput.setVerified(true);
-            addUnspentTxOutput(txOutput);
+            final TxIdIndexTuple key = txOutput.getTxIdIndexTuple();
+            final TxOutput previousTxOutput = unspentTxOutputsMap.get(key);
+            unspentTxOutputsMap = unspentTxOutputsMap.plus(key, txOutput);
 
-            final Optional<Tx> optionalTx = getTx(txOutput.getTxId());
-            checkArgument(optionalTx.isPresent(), "optionalTx must be present");
-            final Tx tx = optionalTx.get();
-            tx.setIssuanceBlockHeight(chainHeadHeight);
+            tx.setIssuanceBlockHeight(blockHeight);
             tx.setIssuanceTx(true);
 
+            final Optional<BlockUndoRecord> undoRecord = getUndoRecord(blockHeight);
+            if (undoRecord.isPresent()) {
+                undoRecord.get().addRevertAction(() -> {
+                    tx.revertIssuance();
+                    unspentTxOutputsMap = putOrRemove(unspentTxOutputsMap, key, previousTxOutput);
+                    txOutput.setVerified(wasVerified);
+                    txOutput.setUnspent(wasUnspent);
+                });
+            } else {
+                // E.g. after a restart or an applied snapshot we don't have the undo record of the block. We drop
+                // the undo records up to that block, so that a revert below it has to apply a snapshot.
+                log.warn("We don't have the undo record for the issuance at block height {}. " +
+                        "A revert below that height will require a snapshot.", blockHeight);
+                while (!undoRecords.isEmpty() && undoRecords.getFirst().getHeight() <= blockHeight)
+                    undoRecords.removeFirst();
+            }
+            publishState();
+
             issuanceListeners.forEach(l -> UserThread.execute(l::onIssuance));
         });
     }
@@ -323,6 +471,11 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     // Read access: BsqBlockChain
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    @Override
+    public BsqBlockChainState getState() {
+        return state;
+    }
+
     @Override
     public BsqBlockChain getClone() {
         return lock.read(() -> getClone(this));
@@ -343,6 +496,19 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
         return lock.read(() -> bsqBlocks);
     }
 
+    @Override
+    public Optional<BsqBlock> getBsqBlock(String blockHash) {
+        return lock.read(() -> {
+            final Iterator<BsqBlock> iterator = bsqBlocks.descendingIterator();
+            while (iterator.hasNext()) {
+                final BsqBlock bsqBlock = iterator.next();
+                if (bsqBlock.getHash().equals(blockHash))
+                    return Optional.of(bsqBlock);
+            }
+            return Optional.<BsqBlock>empty();
+        });
+    }
+
     @Override
     public boolean containsBsqBlock(BsqBlock bsqBlock) {
         return lock.read(() -> bsqBlocks.contains(bsqBlock));
@@ -368,6 +534,16 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
         });
     }
 
+    // We don't clone the whole BsqBlockChain here but only the requested blocks
+    @Override
+    public List<BsqBlock> getClonedBlocksFrom(int fromBlockHeight, int maxBlocks) {
+        return lock.read(() -> bsqBlocks.stream()
+                .filter(block -> block.getHeight() >= fromBlockHeight)
+                .limit(maxBlocks)
+                .map(bsqBlock -> BsqBlock.clone(bsqBlock, true))
+                .collect(Collectors.toList()));
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Read access: Tx
@@ -375,40 +551,38 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
     @Override
     public Optional<Tx> getTx(String txId) {
-        return lock.read(() -> Optional.ofNullable(txMap.get(txId)));
+        return Optional.ofNullable(getState().getTxMap().get(txId));
     }
 
+    // Returns an immutable map
     @Override
     public Map<String, Tx> getTxMap() {
-        return lock.read(() -> txMap);
+        return getState().getTxMap();
     }
 
     @Override
     public Set<Tx> getTransactions() {
-        return lock.read(() -> getTxMap().entrySet().stream()
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet()));
+        return new HashSet<>(getState().getTxMap().values());
     }
 
     @Override
     public Set<Tx> getFeeTransactions() {
-        return lock.read(() -> getTxMap().entrySet().stream()
-                .filter(e -> e.getValue().getBurntFee() > 0)
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toSet()));
+        return getState().getTxMap().values().stream()
+                .filter(tx -> tx.getBurntFee() > 0)
+                .collect(Collectors.toSet());
     }
 
     @Override
     public boolean hasTxBurntFee(String txId) {
-        return lock.read(() -> getTx(txId)
+        return getTx(txId)
                 .map(Tx::getBurntFee)
                 .filter(fee -> fee > 0)
-                .isPresent());
+                .isPresent();
     }
 
     @Override
     public boolean containsTx(String txId) {
-        return lock.read(() -> getTx(txId).isPresent());
+        return getState().getTxMap().containsKey(txId);
     }
 
     @Nullable
@@ -440,59 +614,61 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     // TODO handle BLIND_VOTE_STAKE_OUTPUT more specifically
     @Override
     public boolean isTxOutputSpendable(String txId, int index) {
-        return lock.read(() -> getUnspentAndMatureTxOutput(txId, index)
+        return getUnspentAndMatureTxOutput(txId, index)
                 .filter(txOutput -> txOutput.getTxOutputType() != TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT)
-                .isPresent());
+                .isPresent();
     }
 
+    // All verified and unspent outputs are in the unspentTxOutputsMap
     @Override
     public Set<TxOutput> getUnspentTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream().
-                filter(e -> e.isVerified() && e.isUnspent())
-                .collect(Collectors.toSet()));
+        return getState().getUnspentTxOutputsMap().values().stream()
+                .filter(TxOutput::isVerified)
+                .collect(Collectors.toSet());
     }
 
     public Set<TxOutput> getVerifiedTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream().
+        return getAllTxOutputs().stream().
                 filter(TxOutput::isVerified)
-                .collect(Collectors.toSet()));
+                .collect(Collectors.toSet());
     }
 
     public Set<TxOutput> getBlindVoteStakeTxOutputs() {
-        return lock.read(() -> getUnspentTxOutputs().stream()
+        return getUnspentTxOutputs().stream()
                 .filter(e -> e.getTxOutputType() == TxOutputType.BLIND_VOTE_LOCK_STAKE_OUTPUT)
-                .collect(Collectors.toSet()));
+                .collect(Collectors.toSet());
     }
 
     @Override
     public Set<TxOutput> getLockedInBondsOutputs() {
-        return lock.read(() -> getUnspentTxOutputs().stream()
+        return getUnspentTxOutputs().stream()
                 .filter(e -> e.getTxOutputType() == TxOutputType.BOND_LOCK)
-                .collect(Collectors.toSet()));
+                .collect(Collectors.toSet());
     }
 
     @Override
     public Set<TxOutput> getSpentTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream().filter(e -> e.isVerified() && !e.isUnspent()).collect(Collectors.toSet()));
+        return getAllTxOutputs().stream().filter(e -> e.isVerified() && !e.isUnspent()).collect(Collectors.toSet());
     }
 
 
     @Override
     public Optional<TxOutput> getUnspentAndMatureTxOutput(TxIdIndexTuple txIdIndexTuple) {
-        return lock.read(() -> getUnspentTxOutput(txIdIndexTuple)
-                .filter(this::isTxOutputMature));
+        return Optional.ofNullable(getState().getUnspentTxOutputsMap().get(txIdIndexTuple))
+                .filter(TxOutput::isVerified)
+                .filter(this::isTxOutputMature);
     }
 
     @Override
     public Optional<TxOutput> getUnspentAndMatureTxOutput(String txId, int index) {
-        return lock.read(() -> getUnspentAndMatureTxOutput(new TxIdIndexTuple(txId, index)));
+        return getUnspentAndMatureTxOutput(new TxIdIndexTuple(txId, index));
     }
 
     @Override
     public Set<TxOutput> getVoteRevealTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream()
+        return getAllTxOutputs().stream()
                 .filter(e -> e.getTxOutputType() == TxOutputType.VOTE_REVEAL_OP_RETURN_OUTPUT)
-                .collect(Collectors.toSet()));
+                .collect(Collectors.toSet());
     }
 
     // We don't use getVerifiedTxOutputs as out output is not a valid BSQ output before the issuance.
@@ -500,30 +676,28 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
     //TODO we should add unspent check (need to be set in parser)
     @Override
     public Set<TxOutput> getCompReqIssuanceTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream()
+        return getAllTxOutputs().stream()
                 .filter(e -> e.getTxOutputType() == TxOutputType.ISSUANCE_CANDIDATE_OUTPUT)
-                .collect(Collectors.toSet()));
+                .collect(Collectors.toSet());
     }
 
+    // Reads the live map, only used by the parser
     private Optional<TxOutput> getUnspentTxOutput(TxIdIndexTuple txIdIndexTuple) {
-        return lock.read(() -> unspentTxOutputsMap.entrySet().stream()
-                .filter(e -> e.getKey().equals(txIdIndexTuple))
-                .map(Map.Entry::getValue)
+        return lock.read(() -> Optional.ofNullable(unspentTxOutputsMap.get(txIdIndexTuple))
                 .filter(TxOutput::isVerified) //TODO is it needed?
-                .findAny()
         );
     }
 
     public Set<TxOutput> getAllTxOutputs() {
-        return lock.read(() -> txMap.values().stream()
+        return getState().getTxMap().values().stream()
                 .flatMap(tx -> tx.getOutputs().stream())
-                .collect(Collectors.toSet()));
+                .collect(Collectors.toSet());
     }
 
     //TODO
     // for genesis we don't need it and for issuance we need more implemented first
     private boolean isTxOutputMature(TxOutput spendingTxOutput) {
-        return lock.read(() -> true);
+        return true;
     }
 
 
@@ -533,7 +707,7 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
     @Override
     public Optional<TxType> getTxType(String txId) {
-        return lock.read(() -> getTx(txId).map(Tx::getTxType));
+        return getTx(txId).map(Tx::getTxType);
     }
 
 
@@ -543,12 +717,12 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
 
     @Override
     public Coin getTotalBurntFee() {
-        return lock.read(() -> Coin.valueOf(getTxMap().entrySet().stream().mapToLong(e -> e.getValue().getBurntFee()).sum()));
+        return Coin.valueOf(getTxMap().values().stream().mapToLong(Tx::getBurntFee).sum());
     }
 
     @Override
     public Coin getIssuedAmountAtGenesis() {
-        return lock.read(() -> BsqBlockChain.GENESIS_TOTAL_SUPPLY);
+        return BsqBlockChain.GENESIS_TOTAL_SUPPLY;
     }
 
 
@@ -609,6 +783,68 @@ public class BsqBlockChain implements PersistableEnvelope, WritableBsqBlockChain
         }
     }
 
+    // Applies the staged changes and adds the revert actions to the pendingUndoRecord. Caller holds the write lock.
+    private void commitWriteBatch() {
+        final Tx stagedGenesisTx = writeBatch.getGenesisTx();
+        if (stagedGenesisTx != null) {
+            final Tx previousGenesisTx = genesisTx;
+            genesisTx = stagedGenesisTx;
+            pendingUndoRecord.addRevertAction(() -> genesisTx = previousGenesisTx);
+        }
+
+        writeBatch.getTxs().forEach(tx -> {
+            final Tx previousTx = txMap.get(tx.getId());
+            txMap = txMap.plus(tx.getId(), tx);
+            pendingUndoRecord.addRevertAction(() -> txMap = putOrRemove(txMap, tx.getId(), previousTx));
+        });
+
+        // As only unspent outputs without spentInfo are in the unspentTxOutputsMap we know the state we need to
+        // restore at a revert.
+        writeBatch.getSpentTxOutputs().forEach(tuple -> {
+            final TxOutput txOutput = tuple.first;
+            final TxIdIndexTuple key = txOutput.getTxIdIndexTuple();
+            txOutput.setUnspent(false);
+            txOutput.setSpentInfo(tuple.second);
+            final TxOutput removedTxOutput = unspentTxOutputsMap.get(key);
+            unspentTxOutputsMap = unspentTxOutputsMap.minus(key);
+            pendingUndoRecord.addRevertAction(() -> {
+                txOutput.setUnspent(true);
+                txOutput.revertSpentInfo();
+                unspentTxOutputsMap = putOrRemove(unspentTxOutputsMap, key, removedTxOutput);
+            });
+        });
+
+        writeBatch.getAddedUnspentTxOutputs().forEach(txOutput -> {
+            final TxIdIndexTuple key = txOutput.getTxIdIndexTuple();
+            final TxOutput previousTxOutput = unspentTxOutputsMap.get(key);
+            unspentTxOutputsMap = unspentTxOutputsMap.plus(key, txOutput);
+            pendingUndoRecord.addRevertAction(() -> unspentTxOutputsMap = putOrRemove(unspentTxOutputsMap, key, previousTxOutput));
+        });
+
+        writeBatch.clear();
+    }
+
+    private static <K, V> PersistentHashMap<K, V> putOrRemove(PersistentHashMap<K, V> map, K key, @Nullable V value) {
+        return value != null ? map.plus(key, value) : map.minus(key);
+    }
+
+    // Caller holds the write lock
+    private Optional<BlockUndoRecord> getUndoRecord(int blockHeight) {
+        final Iterator<BlockUndoRecord> iterator = undoRecords.descendingIterator();
+        while (iterator.hasNext()) {
+            final BlockUndoRecord undoRecord = iterator.next();
+            if (undoRecord.getHeight() == blockHeight)
+                return Optional.of(undoRecord);
+        }
+        return Optional.empty();
+    }
+
+    // Caller holds the write lock or is the constructor. Costs O(1) as the maps are persistent.
+    private void publishState() {
+        version++;
+        state = new BsqBlockChainState(version, reOrgCount, chainHeadHeight, genesisTx, txMap, unspentTxOutputsMap);
+    }
+
     // Probably not needed anymore
     public <T> T callFunctionWithWriteLock(Supplier<T> supplier) {
         return lock.write(supplier);
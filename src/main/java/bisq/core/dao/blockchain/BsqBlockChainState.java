@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.blockchain.vo.TxOutput;
+import bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
+
+import java.util.Map;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable view of the tx and tx output state of the BsqBlockChain at a given version. The version gets incremented
+ * at each committed state change (block added, issuance, re-org, snapshot applied).
+ * <p>
+ * BsqBlockChain publishes the state with a volatile reference, so readers do not need to acquire the lock and
+ * multiple reads from the same state instance are consistent with each other. The maps are immutable persistent maps
+ * which share their unchanged nodes with the maps of the previous version. Only the maps are part of the
+ * state; the mutable fields of the contained Tx and TxOutput objects (e.g. isUnspent) can change with later versions.
+ * <p>
+ * The reOrgCount gets incremented when blocks got reverted or a snapshot got applied, so data derived from
+ * the chain can detect that it might be invalid.
+ */
+@Getter
+public class BsqBlockChainState {
+    private final long version;
+    private final int reOrgCount;
+    private final int chainHeadHeight;
+    @Nullable
+    private final Tx genesisTx;
+    private final Map<String, Tx> txMap;
+    private final Map<TxIdIndexTuple, TxOutput> unspentTxOutputsMap;
+
+    BsqBlockChainState(long version,
+                       int reOrgCount,
+                       int chainHeadHeight,
+                       @Nullable Tx genesisTx,
+                       Map<String, Tx> txMap,
+                       Map<TxIdIndexTuple, TxOutput> unspentTxOutputsMap) {
+        this.version = version;
+        this.reOrgCount = reOrgCount;
+        this.chainHeadHeight = chainHeadHeight;
+        this.genesisTx = genesisTx;
+        this.txMap = txMap;
+        this.unspentTxOutputsMap = unspentTxOutputsMap;
+    }
+}
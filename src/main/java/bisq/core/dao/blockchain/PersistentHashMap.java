@@ -0,0 +1,444 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable hash map where plus and minus return a new map which shares all unchanged nodes with the old one
+ * (hash array mapped trie with 32 branches per node). An update costs O(log32(n)) instead of O(n) for a copy, so a
+ * new version of a large map can be published at each block. Null keys and values are not supported.
+ * <p>
+ * The mutator methods of the Map interface throw an UnsupportedOperationException.
+ */
+final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    @Nullable
+    private final Branch root;
+    private final int size;
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        if (map instanceof PersistentHashMap) {
+            @SuppressWarnings("unchecked") final PersistentHashMap<K, V> persistentHashMap = (PersistentHashMap<K, V>) map;
+            return persistentHashMap;
+        }
+
+        PersistentHashMap<K, V> result = empty();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            result = result.plus(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    private PersistentHashMap(@Nullable Branch root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    PersistentHashMap<K, V> plus(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException("Null keys and values are not supported");
+
+        final Leaf leaf = new Leaf(hash(key), key, value);
+        final int[] sizeChange = new int[1];
+        final Branch newRoot = root == null ? Branch.of(leaf, 0) : put(root, 0, leaf, sizeChange);
+        if (newRoot == root)
+            return this;
+        return new PersistentHashMap<>(newRoot, root == null ? 1 : size + sizeChange[0]);
+    }
+
+    PersistentHashMap<K, V> minus(Object key) {
+        if (root == null || key == null)
+            return this;
+
+        final Branch newRoot = remove(root, 0, hash(key), key);
+        if (newRoot == root)
+            return this;
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        final Leaf leaf = find(key);
+        //noinspection unchecked
+        return leaf != null ? (V) leaf.value : null;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new EntryIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Nullable
+    private Leaf find(Object key) {
+        if (root == null || key == null)
+            return null;
+
+        final int hash = hash(key);
+        Object node = root;
+        int shift = 0;
+        while (node instanceof Branch) {
+            final Branch branch = (Branch) node;
+            final int bit = bit(hash, shift);
+            if ((branch.bitmap & bit) == 0)
+                return null;
+            node = branch.slots[branch.index(bit)];
+            shift += BITS;
+        }
+
+        if (node instanceof Leaf) {
+            final Leaf leaf = (Leaf) node;
+            return leaf.hash == hash && leaf.key.equals(key) ? leaf : null;
+        }
+
+        final Collision collision = (Collision) node;
+        return collision.hash == hash ? collision.find(key) : null;
+    }
+
+    // Returns the same branch if nothing changed. sizeChange[0] is set to 1 if the key was not present.
+    private static Branch put(Branch branch, int shift, Leaf leaf, int[] sizeChange) {
+        final int bit = bit(leaf.hash, shift);
+        final int index = branch.index(bit);
+        if ((branch.bitmap & bit) == 0) {
+            sizeChange[0] = 1;
+            return branch.withInsertedSlot(bit, index, leaf);
+        }
+
+        final Object slot = branch.slots[index];
+        final Object newSlot;
+        if (slot instanceof Branch) {
+            newSlot = put((Branch) slot, shift + BITS, leaf, sizeChange);
+        } else if (slot instanceof Leaf) {
+            final Leaf existing = (Leaf) slot;
+            if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+                newSlot = existing.value == leaf.value ? existing : leaf;
+            } else {
+                sizeChange[0] = 1;
+                newSlot = existing.hash == leaf.hash ?
+                        new Collision(leaf.hash, new Leaf[]{existing, leaf}) :
+                        merge(existing, existing.hash, leaf, shift + BITS);
+            }
+        } else {
+            final Collision collision = (Collision) slot;
+            if (collision.hash == leaf.hash) {
+                if (collision.find(leaf.key) == null)
+                    sizeChange[0] = 1;
+                newSlot = collision.plus(leaf);
+            } else {
+                sizeChange[0] = 1;
+                newSlot = merge(collision, collision.hash, leaf, shift + BITS);
+            }
+        }
+        return newSlot == slot ? branch : branch.withReplacedSlot(index, newSlot);
+    }
+
+    // Creates the branches for two nodes with different hashes
+    private static Branch merge(Object node, int nodeHash, Leaf leaf, int shift) {
+        final int nodeBit = bit(nodeHash, shift);
+        final int leafBit = bit(leaf.hash, shift);
+        if (nodeBit == leafBit)
+            return new Branch(nodeBit, new Object[]{merge(node, nodeHash, leaf, shift + BITS)});
+
+        // The bit of index 31 is negative, so we need an unsigned comparison
+        return Integer.compareUnsigned(nodeBit, leafBit) < 0 ?
+                new Branch(nodeBit | leafBit, new Object[]{node, leaf}) :
+                new Branch(nodeBit | leafBit, new Object[]{leaf, node});
+    }
+
+    // Returns the same branch if the key was not present and null if the branch got empty
+    @Nullable
+    private static Branch remove(Branch branch, int shift, int hash, Object key) {
+        final int bit = bit(hash, shift);
+        if ((branch.bitmap & bit) == 0)
+            return branch;
+
+        final int index = branch.index(bit);
+        final Object slot = branch.slots[index];
+        final Object newSlot;
+        if (slot instanceof Branch) {
+            final Branch newChild = remove((Branch) slot, shift + BITS, hash, key);
+            if (newChild == slot)
+                return branch;
+            // A branch with a single leaf or collision is replaced by its content
+            newSlot = newChild != null && newChild.slots.length == 1 && !(newChild.slots[0] instanceof Branch) ?
+                    newChild.slots[0] :
+                    newChild;
+        } else if (slot instanceof Leaf) {
+            final Leaf leaf = (Leaf) slot;
+            if (leaf.hash != hash || !leaf.key.equals(key))
+                return branch;
+            newSlot = null;
+        } else {
+            final Collision collision = (Collision) slot;
+            if (collision.hash != hash || collision.find(key) == null)
+                return branch;
+            newSlot = collision.minus(key);
+        }
+
+        if (newSlot != null)
+            return branch.withReplacedSlot(index, newSlot);
+        return branch.slots.length == 1 ? null : branch.withRemovedSlot(bit, index);
+    }
+
+    private static int hash(Object key) {
+        return key.hashCode();
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Nodes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class Leaf implements Map.Entry<Object, Object> {
+        private final int hash;
+        private final Object key;
+        private final Object value;
+
+        private Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return key.equals(entry.getKey()) && value.equals(entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    // Leaves with the same full hash
+    private static final class Collision {
+        private final int hash;
+        private final Leaf[] leaves;
+
+        private Collision(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Nullable
+        private Leaf find(Object key) {
+            for (Leaf leaf : leaves) {
+                if (leaf.key.equals(key))
+                    return leaf;
+            }
+            return null;
+        }
+
+        private Collision plus(Leaf leaf) {
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(leaf.key)) {
+                    if (leaves[i].value == leaf.value)
+                        return this;
+                    final Leaf[] newLeaves = leaves.clone();
+                    newLeaves[i] = leaf;
+                    return new Collision(hash, newLeaves);
+                }
+            }
+            final Leaf[] newLeaves = new Leaf[leaves.length + 1];
+            System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+            newLeaves[leaves.length] = leaf;
+            return new Collision(hash, newLeaves);
+        }
+
+        // Caller checked that the key is present. A single remaining leaf replaces the collision.
+        private Object minus(Object key) {
+            if (leaves.length == 2)
+                return leaves[0].key.equals(key) ? leaves[1] : leaves[0];
+
+            final Leaf[] newLeaves = new Leaf[leaves.length - 1];
+            int i = 0;
+            for (Leaf leaf : leaves) {
+                if (!leaf.key.equals(key))
+                    newLeaves[i++] = leaf;
+            }
+            return new Collision(hash, newLeaves);
+        }
+    }
+
+    // The slots contain leaves, collisions or branches of the next level, ordered by their bit in the bitmap
+    private static final class Branch {
+        private final int bitmap;
+        private final Object[] slots;
+
+        private static Branch of(Leaf leaf, int shift) {
+            return new Branch(bit(leaf.hash, shift), new Object[]{leaf});
+        }
+
+        private Branch(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private Branch withInsertedSlot(int bit, int index, Object slot) {
+            final Object[] newSlots = new Object[slots.length + 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            newSlots[index] = slot;
+            System.arraycopy(slots, index, newSlots, index + 1, slots.length - index);
+            return new Branch(bitmap | bit, newSlots);
+        }
+
+        private Branch withReplacedSlot(int index, Object slot) {
+            final Object[] newSlots = slots.clone();
+            newSlots[index] = slot;
+            return new Branch(bitmap, newSlots);
+        }
+
+        private Branch withRemovedSlot(int bit, int index) {
+            final Object[] newSlots = new Object[slots.length - 1];
+            System.arraycopy(slots, 0, newSlots, 0, index);
+            System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+            return new Branch(bitmap & ~bit, newSlots);
+        }
+    }
+
+    // Depth first traversal of the trie
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Deque<Object[]> arrays = new ArrayDeque<>();
+        private final Deque<Integer> positions = new ArrayDeque<>();
+        @Nullable
+        private Leaf next;
+
+        private EntryIterator(@Nullable Branch root) {
+            if (root != null) {
+                arrays.push(root.slots);
+                positions.push(0);
+            }
+            next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public Map.Entry<K, V> next() {
+            if (next == null)
+                throw new NoSuchElementException();
+            final Leaf current = next;
+            next = advance();
+            return (Map.Entry<K, V>) (Map.Entry<?, ?>) current;
+        }
+
+        @Nullable
+        private Leaf advance() {
+            while (!arrays.isEmpty()) {
+                final Object[] array = arrays.peek();
+                final int position = positions.pop();
+                if (position == array.length) {
+                    arrays.pop();
+                    continue;
+                }
+                positions.push(position + 1);
+
+                final Object slot = array[position];
+                if (slot instanceof Leaf)
+                    return (Leaf) slot;
+
+                arrays.push(slot instanceof Branch ? ((Branch) slot).slots : ((Collision) slot).leaves);
+                positions.push(0);
+            }
+            return null;
+        }
+    }
+}
@@ -43,12 +43,18 @@ public interface ReadableBsqBlockChain {
     void removeIssuanceListener(BsqBlockChain.IssuanceListener listener);
 
 
+    BsqBlockChainState getState();
+
     int getChainHeadHeight();
 
     boolean containsBsqBlock(BsqBlock bsqBlock);
 
+    Optional<BsqBlock> getBsqBlock(String blockHash);
+
     List<BsqBlock> getClonedBlocksFrom(int fromBlockHeight);
 
+    List<BsqBlock> getClonedBlocksFrom(int fromBlockHeight, int maxBlocks);
+
     Map<String, Tx> getTxMap();
 
     Tx getGenesisTx();
@@ -18,21 +18,33 @@
 package bisq.core.dao.blockchain;
 
 import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.blockchain.vo.SpentInfo;
 import bisq.core.dao.blockchain.vo.Tx;
 import bisq.core.dao.blockchain.vo.TxOutput;
+import bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
+
+import java.util.Optional;
 
 public interface WritableBsqBlockChain {
 
+    // read access for the parser which includes the staged changes of the current block
+    Optional<TxOutput> getUnspentAndMatureTxOutputInclStaged(TxIdIndexTuple txIdIndexTuple);
+
     // state change
     void addBlock(BsqBlock bsqBlock);
 
+    void discardWriteBatch();
+
     void setGenesisTx(Tx tx);
 
     void addTxToMap(Tx tx);
 
     void addUnspentTxOutput(TxOutput txOutput);
 
-    void removeUnspentTxOutput(TxOutput spendableTxOutput);
+    void spendTxOutput(TxOutput txOutput, SpentInfo spentInfo);
+
+    void issueBsq(TxOutput txOutput, int blockHeight);
 
-    void issueBsq(TxOutput txOutput);
+    // re-org
+    boolean revertToHeight(int height);
 }
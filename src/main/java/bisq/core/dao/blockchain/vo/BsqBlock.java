@@ -17,6 +17,8 @@
 
 package bisq.core.dao.blockchain.vo;
 
+import bisq.core.dao.blockchain.vo.util.StringInterner;
+
 import bisq.common.proto.persistable.PersistablePayload;
 
 import io.bisq.generated.protobuffer.PB;
@@ -76,8 +78,8 @@ public class BsqBlock implements PersistablePayload {
     public static BsqBlock fromProto(PB.BsqBlock proto) {
         return new BsqBlock(proto.getHeight(),
                 proto.getTime(),
-                proto.getHash(),
-                proto.getPreviousBlockHash(),
+                StringInterner.intern(proto.getHash()),
+                StringInterner.intern(proto.getPreviousBlockHash()),
                 proto.getTxsList().isEmpty() ?
                         ImmutableList.copyOf(new ArrayList<>()) :
                         ImmutableList.copyOf(proto.getTxsList().stream()
@@ -17,6 +17,8 @@
 
 package bisq.core.dao.blockchain.vo;
 
+import bisq.core.dao.blockchain.vo.util.StringInterner;
+
 import bisq.common.proto.persistable.PersistablePayload;
 
 import io.bisq.generated.protobuffer.PB;
@@ -36,7 +38,7 @@ public class SpentInfo implements PersistablePayload {
 
     public static SpentInfo fromProto(PB.SpentInfo proto) {
         return new SpentInfo(proto.getBlockHeight(),
-                proto.getTxId(),
+                StringInterner.intern(proto.getTxId()),
                 proto.getInputIndex());
     }
 
@@ -17,6 +17,8 @@
 
 package bisq.core.dao.blockchain.vo;
 
+import bisq.core.dao.blockchain.vo.util.StringInterner;
+
 import bisq.common.app.Version;
 import bisq.common.proto.persistable.PersistablePayload;
 
@@ -154,9 +156,9 @@ public class Tx implements PersistablePayload {
 
     public static Tx fromProto(PB.Tx proto) {
         return new Tx(proto.getTxVersion(),
-                proto.getId(),
+                StringInterner.intern(proto.getId()),
                 proto.getBlockHeight(),
-                proto.getBlockHash(),
+                StringInterner.intern(proto.getBlockHash()),
                 proto.getTime(),
                 proto.getInputsList().isEmpty() ?
                         ImmutableList.copyOf(new ArrayList<>()) :
@@ -204,6 +206,12 @@ public class Tx implements PersistablePayload {
             throw new IllegalStateException("Already set txType must not be changed.");
     }
 
+    // Only used for reverting an issuance at a re-org
+    public void revertIssuance() {
+        this.isIssuanceTx = false;
+        this.issuanceBlockHeight = 0;
+    }
+
     public long getIssuanceAmount() {
         // Compensation request tx has at least 3 outputs
         // Second output is issuance candidate
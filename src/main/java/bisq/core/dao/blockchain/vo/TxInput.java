@@ -17,6 +17,7 @@
 
 package bisq.core.dao.blockchain.vo;
 
+import bisq.core.dao.blockchain.vo.util.StringInterner;
 import bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
 
 import bisq.common.proto.persistable.PersistablePayload;
@@ -79,7 +80,7 @@ public class TxInput implements PersistablePayload {
     }
 
     public static TxInput fromProto(PB.TxInput proto) {
-        return new TxInput(proto.getConnectedTxOutputTxId(),
+        return new TxInput(StringInterner.intern(proto.getConnectedTxOutputTxId()),
                 proto.getConnectedTxOutputIndex(),
                 proto.hasConnectedTxOutput() ? TxOutput.fromProto(proto.getConnectedTxOutput()) : null);
     }
@@ -18,6 +18,7 @@
 package bisq.core.dao.blockchain.vo;
 
 import bisq.core.dao.blockchain.btcd.PubKeyScript;
+import bisq.core.dao.blockchain.vo.util.StringInterner;
 import bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
 
 import bisq.common.proto.persistable.PersistablePayload;
@@ -152,9 +153,9 @@ public class TxOutput implements PersistablePayload {
     public static TxOutput fromProto(PB.TxOutput proto) {
         return new TxOutput(proto.getIndex(),
                 proto.getValue(),
-                proto.getTxId(),
+                StringInterner.intern(proto.getTxId()),
                 proto.hasPubKeyScript() ? PubKeyScript.fromProto(proto.getPubKeyScript()) : null,
-                proto.getAddress().isEmpty() ? null : proto.getAddress(),
+                proto.getAddress().isEmpty() ? null : StringInterner.intern(proto.getAddress()),
                 proto.getOpReturnData().isEmpty() ? null : proto.getOpReturnData().toByteArray(),
                 proto.getBlockHeight(),
                 proto.getIsUnspent(),
@@ -194,6 +195,11 @@ public class TxOutput implements PersistablePayload {
             throw new IllegalStateException("Already set spentInfo must not be changed.");
     }
 
+    // Only used for reverting the spending of that output at a re-org
+    public void revertSpentInfo() {
+        this.spentInfo = null;
+    }
+
 
     @Override
     public String toString() {
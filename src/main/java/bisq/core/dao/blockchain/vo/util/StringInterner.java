@@ -0,0 +1,37 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain.vo.util;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import javax.annotation.Nullable;
+
+/**
+ * Shares the String instances of tx IDs, block hashes and addresses. Those are repeated many times in the BSQ
+ * blockchain data (e.g. a txId is held by the tx, each of its outputs, the inputs spending them and their SpentInfo)
+ * but we get a new instance for each occurrence when reading from protobuffer or from the RPC data.
+ */
+public class StringInterner {
+    private static final Interner<String> INTERNER = Interners.newWeakInterner();
+
+    @Nullable
+    public static String intern(@Nullable String string) {
+        return string != null ? INTERNER.intern(string) : null;
+    }
+}
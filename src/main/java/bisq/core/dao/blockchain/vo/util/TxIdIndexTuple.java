@@ -34,7 +34,7 @@ public class TxIdIndexTuple implements PersistablePayload {
     }
 
     public TxIdIndexTuple(String string) {
-        this(string.split(":")[0], Integer.parseInt(string.split(":")[1]));
+        this(StringInterner.intern(string.split(":")[0]), Integer.parseInt(string.split(":")[1]));
     }
 
 
@@ -50,7 +50,7 @@ public class TxIdIndexTuple implements PersistablePayload {
     }
 
     public static TxIdIndexTuple fromProto(PB.TxIdIndexTuple proto) {
-        return new TxIdIndexTuple(proto.getTxId(),
+        return new TxIdIndexTuple(StringInterner.intern(proto.getTxId()),
                 proto.getIndex());
     }
 
@@ -19,6 +19,7 @@ package bisq.core.dao.node;
 
 import bisq.core.dao.blockchain.ReadableBsqBlockChain;
 import bisq.core.dao.blockchain.SnapshotManager;
+import bisq.core.dao.blockchain.vo.BsqBlock;
 
 import bisq.network.p2p.P2PService;
 import bisq.network.p2p.P2PServiceListener;
@@ -27,6 +28,8 @@ import bisq.common.handlers.ErrorMessageHandler;
 
 import com.google.inject.Inject;
 
+import java.util.function.Consumer;
+
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -37,6 +40,7 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public abstract class BsqNode {
+    private static final int REORG_STEP = 6;
 
     @SuppressWarnings("WeakerAccess")
     protected final P2PService p2PService;
@@ -158,6 +162,41 @@ public abstract class BsqNode {
         parseBlockchainComplete = true;
     }
 
+    // If we know the block the not connecting block is building on we revert to that block, otherwise we step back
+    // REORG_STEP blocks and try again. If the undo records do not reach deep enough we fall back to the snapshot.
+    // A block above our chain head + 1 does not indicate a re-org but missing blocks, so we only request them.
+    @SuppressWarnings("WeakerAccess")
+    protected void startReOrg(BsqBlock notConnectingBlock) {
+        final int chainHeadHeight = readableBsqBlockChain.getChainHeadHeight();
+        if (notConnectingBlock.getHeight() > chainHeadHeight + 1) {
+            log.info("We are missing the blocks between our chainHeadHeight {} and the notConnectingBlock at height {}. " +
+                    "We request them.", chainHeadHeight, notConnectingBlock.getHeight());
+            startParseBlocks();
+            return;
+        }
+
+        final int height = readableBsqBlockChain.getBsqBlock(notConnectingBlock.getPreviousBlockHash())
+                .map(BsqBlock::getHeight)
+                .orElse(Math.min(chainHeadHeight, notConnectingBlock.getHeight() - 1) - REORG_STEP);
+        log.info("Re-org: Revert blocks above height {}. chainHeadHeight={}, notConnectingBlock height={}",
+                height, chainHeadHeight, notConnectingBlock.getHeight());
+        revertToHeight(height,
+                success -> {
+                    if (success)
+                        startParseBlocks();
+                    else
+                        startReOrgFromLastSnapshot();
+                },
+                throwable -> {
+                    log.error(throwable.toString());
+                    throwable.printStackTrace();
+                    startReOrgFromLastSnapshot();
+                });
+    }
+
+    // Need to run on the parser thread
+    abstract protected void revertToHeight(int height, Consumer<Boolean> resultHandler, Consumer<Throwable> errorHandler);
+
     @SuppressWarnings("WeakerAccess")
     protected void startReOrgFromLastSnapshot() {
         applySnapshot();
@@ -29,7 +29,8 @@ import java.util.LinkedList;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Checks if a block is valid and if so adds it to the BsqBlockChain.
+ * Checks if a block is valid and if so adds it to the BsqBlockChain. The state changes staged while parsing the block
+ * get committed with the block or discarded if the block is not added.
  */
 @Slf4j
 public class BsqBlockController {
@@ -43,6 +44,11 @@ public class BsqBlockController {
         this.readableBsqBlockChain = readableBsqBlockChain;
     }
 
+    // In case the parsing of a block failed we need to discard its staged changes
+    public void discardWriteBatch() {
+        writableBsqBlockChain.discardWriteBatch();
+    }
+
     public void addBlockIfValid(BsqBlock bsqBlock) throws BlockNotConnectingException {
         LinkedList<BsqBlock> bsqBlocks = readableBsqBlockChain.getBsqBlocks();
         if (!bsqBlocks.contains(bsqBlock)) {
@@ -52,10 +58,12 @@ public class BsqBlockController {
                 log.warn("addBlock called with a not connecting block:\n" +
                                 "height()={}, hash()={}, head.height()={}, head.hash()={}",
                         bsqBlock.getHeight(), bsqBlock.getHash(), bsqBlocks.getLast().getHeight(), bsqBlocks.getLast().getHash());
+                writableBsqBlockChain.discardWriteBatch();
                 throw new BlockNotConnectingException(bsqBlock);
             }
         } else {
             log.warn("We got that block already. Ignore the call.");
+            writableBsqBlockChain.discardWriteBatch();
         }
     }
 
@@ -17,7 +17,6 @@
 
 package bisq.core.dao.node.consensus;
 
-import bisq.core.dao.blockchain.ReadableBsqBlockChain;
 import bisq.core.dao.blockchain.WritableBsqBlockChain;
 import bisq.core.dao.blockchain.vo.SpentInfo;
 import bisq.core.dao.blockchain.vo.TxInput;
@@ -33,16 +32,14 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class TxInputController {
 
-    private final ReadableBsqBlockChain readableBsqBlockChain;
-
     @Inject
-    public TxInputController(ReadableBsqBlockChain readableBsqBlockChain) {
-        this.readableBsqBlockChain = readableBsqBlockChain;
+    public TxInputController() {
     }
 
     void processInput(TxInput txInput, int blockHeight, String txId, int inputIndex, Model model,
                       WritableBsqBlockChain writableBsqBlockChain) {
-        readableBsqBlockChain.getUnspentAndMatureTxOutput(txInput.getTxIdIndexTuple()).ifPresent(connectedTxOutput -> {
+        // We need to see outputs created earlier in the same block, so we use the lookup including the staged changes
+        writableBsqBlockChain.getUnspentAndMatureTxOutputInclStaged(txInput.getTxIdIndexTuple()).ifPresent(connectedTxOutput -> {
             model.addToInputValue(connectedTxOutput.getValue());
 
             // If we are spending an output from a blind vote tx marked as VOTE_STAKE_OUTPUT we save it in our model
@@ -57,10 +54,7 @@ public class TxInputController {
             }
 
             txInput.setConnectedTxOutput(connectedTxOutput);
-            connectedTxOutput.setUnspent(false);
-            connectedTxOutput.setSpentInfo(new SpentInfo(blockHeight, txId, inputIndex));
-
-            writableBsqBlockChain.removeUnspentTxOutput(connectedTxOutput);
+            writableBsqBlockChain.spendTxOutput(connectedTxOutput, new SpentInfo(blockHeight, txId, inputIndex));
         });
     }
 }
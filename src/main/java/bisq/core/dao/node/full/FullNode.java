@@ -32,6 +32,8 @@ import bisq.common.handlers.ErrorMessageHandler;
 
 import javax.inject.Inject;
 
+import java.util.function.Consumer;
+
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -98,6 +100,11 @@ public class FullNode extends BsqNode {
         requestChainHeadHeightAndParseBlocks(getStartBlockHeight());
     }
 
+    @Override
+    protected void revertToHeight(int height, Consumer<Boolean> resultHandler, Consumer<Throwable> errorHandler) {
+        bsqFullNodeExecutor.revertToHeight(height, resultHandler, errorHandler);
+    }
+
     @Override
     protected void onP2PNetworkReady() {
         super.onP2PNetworkReady();
@@ -122,7 +129,7 @@ public class FullNode extends BsqNode {
                 this::onNewBsqBlock,
                 throwable -> {
                     if (throwable instanceof BlockNotConnectingException) {
-                        startReOrgFromLastSnapshot();
+                        startReOrg(((BlockNotConnectingException) throwable).getBlock());
                     } else {
                         log.error(throwable.toString());
                         throwable.printStackTrace();
@@ -155,7 +162,7 @@ public class FullNode extends BsqNode {
                             requestChainHeadHeightAndParseBlocks(chainHeadHeight);
                         }, throwable -> {
                             if (throwable instanceof BlockNotConnectingException) {
-                                startReOrgFromLastSnapshot();
+                                startReOrg(((BlockNotConnectingException) throwable).getBlock());
                             } else {
                                 log.error(throwable.toString());
                                 throwable.printStackTrace();
@@ -17,6 +17,7 @@
 
 package bisq.core.dao.node.full;
 
+import bisq.core.dao.blockchain.WritableBsqBlockChain;
 import bisq.core.dao.blockchain.vo.BsqBlock;
 import bisq.core.dao.node.full.rpc.RpcService;
 
@@ -49,6 +50,7 @@ public class FullNodeExecutor {
 
     private final FullNodeParser fullNodeParser;
     private final RpcService rpcService;
+    private final WritableBsqBlockChain writableBsqBlockChain;
     private final ListeningExecutorService executor = Utilities.getListeningSingleThreadExecutor("FullNodeExecutor");
 
 
@@ -58,9 +60,12 @@ public class FullNodeExecutor {
 
     @SuppressWarnings("WeakerAccess")
     @Inject
-    public FullNodeExecutor(RpcService rpcService, FullNodeParser fullNodeParser) {
+    public FullNodeExecutor(RpcService rpcService,
+                            FullNodeParser fullNodeParser,
+                            WritableBsqBlockChain writableBsqBlockChain) {
         this.rpcService = rpcService;
         this.fullNodeParser = fullNodeParser;
+        this.writableBsqBlockChain = writableBsqBlockChain;
     }
 
 
@@ -143,6 +148,23 @@ public class FullNodeExecutor {
         });
     }
 
+    // Runs on the parser thread, so the revert can't interfere with a block which is being parsed
+    void revertToHeight(int height, Consumer<Boolean> resultHandler, Consumer<Throwable> errorHandler) {
+        ListenableFuture<Boolean> future = executor.submit(() -> writableBsqBlockChain.revertToHeight(height));
+
+        Futures.addCallback(future, new FutureCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean success) {
+                UserThread.execute(() -> resultHandler.accept(success));
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                UserThread.execute(() -> errorHandler.accept(throwable));
+            }
+        });
+    }
+
     void addBlockHandler(Consumer<Block> blockHandler) {
         rpcService.registerBlockHandler(blockHandler);
     }
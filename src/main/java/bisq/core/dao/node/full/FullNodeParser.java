@@ -88,6 +88,7 @@ public class FullNodeParser extends BsqParser {
         } catch (Throwable t) {
             log.error(t.toString());
             t.printStackTrace();
+            bsqBlockController.discardWriteBatch();
             throw new BsqBlockchainException(t);
         }
     }
@@ -131,7 +131,8 @@ public class FullNodeNetworkService implements MessageListener, PeerManager.List
             // We received a GetBsqBlocksRequest from a liteNode
             Log.traceCall(networkEnvelop.toString() + "\n\tconnection=" + connection);
             if (!stopped) {
-                final String uid = connection.getUid();
+                // Lite nodes request several pages of blocks in parallel so we use the nonce as well for the key
+                final String uid = connection.getUid() + "_" + ((GetBsqBlocksRequest) networkEnvelop).getNonce();
                 if (!getBlocksRequestHandlers.containsKey(uid)) {
                     GetBsqBlocksRequestHandler requestHandler = new GetBsqBlocksRequestHandler(networkNode,
                             readableBsqBlockChain,
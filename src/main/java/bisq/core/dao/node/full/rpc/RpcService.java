@@ -23,6 +23,7 @@ import bisq.core.dao.blockchain.exceptions.BsqBlockchainException;
 import bisq.core.dao.blockchain.vo.Tx;
 import bisq.core.dao.blockchain.vo.TxInput;
 import bisq.core.dao.blockchain.vo.TxOutput;
+import bisq.core.dao.blockchain.vo.util.StringInterner;
 
 import org.bitcoinj.core.Coin;
 import org.bitcoinj.core.Utils;
@@ -172,12 +173,14 @@ public class RpcService {
     public Tx requestTx(String txId, int blockHeight) throws BsqBlockchainException {
         try {
             RawTransaction rawTransaction = requestRawTransaction(txId);
+            // We share the string instances of txIds as they are referenced from outputs, inputs and spentInfos
+            final String internedTxId = StringInterner.intern(txId);
             // rawTransaction.getTime() is in seconds but we keep it in ms internally
             final long time = rawTransaction.getTime() * 1000;
             final List<TxInput> txInputs = rawTransaction.getVIn()
                     .stream()
                     .filter(rawInput -> rawInput != null && rawInput.getVOut() != null && rawInput.getTxId() != null)
-                    .map(rawInput -> new TxInput(rawInput.getTxId(), rawInput.getVOut()))
+                    .map(rawInput -> new TxInput(StringInterner.intern(rawInput.getTxId()), rawInput.getVOut()))
                     .collect(Collectors.toList());
 
             final List<TxOutput> txOutputs = rawTransaction.getVOut()
@@ -208,7 +211,7 @@ public class RpcService {
                                 final PubKeyScript pubKeyScript = dumpBlockchainData ? new PubKeyScript(scriptPubKey) : null;
                                 return new TxOutput(rawOutput.getN(),
                                         rawOutput.getValue().movePointRight(8).longValue(),
-                                        rawTransaction.getTxId(),
+                                        internedTxId,
                                         pubKeyScript,
                                         address,
                                         opReturnData,
@@ -217,9 +220,9 @@ public class RpcService {
                     )
                     .collect(Collectors.toList());
 
-            return new Tx(txId,
+            return new Tx(internedTxId,
                     blockHeight,
-                    rawTransaction.getBlockHash(),
+                    StringInterner.intern(rawTransaction.getBlockHash()),
                     time,
                     ImmutableList.copyOf(txInputs),
                     ImmutableList.copyOf(txOutputs));
@@ -23,7 +23,6 @@ import bisq.core.dao.blockchain.exceptions.BlockNotConnectingException;
 import bisq.core.dao.blockchain.vo.BsqBlock;
 import bisq.core.dao.node.BsqNode;
 import bisq.core.dao.node.lite.network.LiteNodeNetworkService;
-import bisq.core.dao.node.messages.GetBsqBlocksResponse;
 import bisq.core.dao.node.messages.NewBsqBlockBroadcastMessage;
 
 import bisq.network.p2p.P2PService;
@@ -34,7 +33,8 @@ import bisq.common.handlers.ErrorMessageHandler;
 
 import com.google.inject.Inject;
 
-import java.util.ArrayList;
+import com.google.common.annotations.VisibleForTesting;
+
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -53,6 +53,8 @@ import org.jetbrains.annotations.Nullable;
 public class LiteNode extends BsqNode {
     private final LiteNodeExecutor bsqLiteNodeExecutor;
     private final LiteNodeNetworkService liteNodeNetworkService;
+    // Parse tasks of an older generation get dropped, e.g. the pages queued after a page which did not connect
+    private int parseGeneration;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -98,8 +100,8 @@ public class LiteNode extends BsqNode {
 
         liteNodeNetworkService.addListener(new LiteNodeNetworkService.Listener() {
             @Override
-            public void onRequestedBlocksReceived(GetBsqBlocksResponse getBsqBlocksResponse) {
-                LiteNode.this.onRequestedBlocksReceived(new ArrayList<>(getBsqBlocksResponse.getBsqBlocks()));
+            public void onRequestedBlocksReceived(List<BsqBlock> bsqBlocks, boolean isLastPage) {
+                LiteNode.this.onRequestedBlocksReceived(bsqBlocks, isLastPage);
             }
 
             @Override
@@ -123,17 +125,24 @@ public class LiteNode extends BsqNode {
     // First we request the blocks from a full node
     @Override
     protected void startParseBlocks() {
+        parseGeneration = bsqLiteNodeExecutor.startNewGeneration();
         liteNodeNetworkService.requestBlocks(getStartBlockHeight());
     }
 
+    @Override
+    protected void revertToHeight(int height, Consumer<Boolean> resultHandler, Consumer<Throwable> errorHandler) {
+        bsqLiteNodeExecutor.revertToHeight(height, resultHandler, errorHandler);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // We received the missing blocks
-    private void onRequestedBlocksReceived(List<BsqBlock> bsqBlockList) {
-        log.info("onRequestedBlocksReceived: blocks with {} items", bsqBlockList.size());
+    // We received a page of the missing blocks. Pages are delivered in order of block height.
+    @VisibleForTesting
+    void onRequestedBlocksReceived(List<BsqBlock> bsqBlockList, boolean isLastPage) {
+        log.info("onRequestedBlocksReceived: blocks with {} items, isLastPage={}", bsqBlockList.size(), isLastPage);
         if (bsqBlockList.size() > 0)
             log.info("block height of last item: {}", bsqBlockList.get(bsqBlockList.size() - 1).getHeight());
         // We clone with a reset of all mutable data in case the provider would not have done it.
@@ -141,20 +150,25 @@ public class LiteNode extends BsqNode {
                 .map(bsqBlock -> BsqBlock.clone(bsqBlock, true))
                 .collect(Collectors.toList());
         bsqLiteNodeExecutor.parseBlocks(clonedBsqBlockList,
+                parseGeneration,
                 this::onNewBsqBlock,
-                this::onParseBlockChainComplete,
+                () -> {
+                    if (isLastPage)
+                        onParseBlockChainComplete();
+                },
                 getErrorHandler());
     }
 
     // We received a new block
-    private void onNewBlockReceived(BsqBlock bsqBlock) {
+    @VisibleForTesting
+    void onNewBlockReceived(BsqBlock bsqBlock) {
         log.info("onNewBlockReceived: bsqBlock={}", bsqBlock.getHeight());
 
         // We clone with a reset of all mutable data in case the provider would not have done it.
         BsqBlock clonedBsqBlock = BsqBlock.clone(bsqBlock, true);
         if (!readableBsqBlockChain.containsBsqBlock(clonedBsqBlock)) {
             //TODO check block height and prev block it it connects to existing blocks
-            bsqLiteNodeExecutor.parseBlock(clonedBsqBlock, this::onNewBsqBlock, getErrorHandler());
+            bsqLiteNodeExecutor.parseBlock(clonedBsqBlock, parseGeneration, this::onNewBsqBlock, getErrorHandler());
         }
     }
 
@@ -166,10 +180,13 @@ public class LiteNode extends BsqNode {
     private Consumer<Throwable> getErrorHandler() {
         return throwable -> {
             if (throwable instanceof BlockNotConnectingException) {
-                startReOrgFromLastSnapshot();
+                startReOrg(((BlockNotConnectingException) throwable).getBlock());
             } else {
                 log.error(throwable.toString());
                 throwable.printStackTrace();
+                // The executor has dropped the queued tasks of the failed generation, so we request the blocks
+                // again from our chain head with a new generation.
+                startParseBlocks();
             }
         };
     }
@@ -17,6 +17,7 @@
 
 package bisq.core.dao.node.lite;
 
+import bisq.core.dao.blockchain.WritableBsqBlockChain;
 import bisq.core.dao.blockchain.vo.BsqBlock;
 
 import bisq.common.UserThread;
@@ -31,6 +32,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
@@ -41,12 +43,17 @@ import org.jetbrains.annotations.NotNull;
  * Processes tasks in custom thread. Results are mapped back to user thread so client don't need to deal with threading.
  * We use a SingleThreadExecutor to guarantee that the parser is only running from one thread at a time to avoid
  * risks with concurrent write to the BsqBlockChain.
+ * <p>
+ * Each task belongs to a generation. If a task fails all tasks of its generation which are still queued get dropped,
+ * as they would build on the failed block. A new generation is started when the blocks get requested again.
  */
 @Slf4j
 public class LiteNodeExecutor {
 
     private final LiteNodeParser liteNodeParser;
+    private final WritableBsqBlockChain writableBsqBlockChain;
     private final ListeningExecutorService executor = Utilities.getListeningSingleThreadExecutor("LiteNodeExecutor");
+    private final AtomicInteger generation = new AtomicInteger();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -55,8 +62,9 @@ public class LiteNodeExecutor {
 
     @SuppressWarnings("WeakerAccess")
     @Inject
-    public LiteNodeExecutor(LiteNodeParser liteNodeParser) {
+    public LiteNodeExecutor(LiteNodeParser liteNodeParser, WritableBsqBlockChain writableBsqBlockChain) {
         this.liteNodeParser = liteNodeParser;
+        this.writableBsqBlockChain = writableBsqBlockChain;
     }
 
 
@@ -64,22 +72,37 @@ public class LiteNodeExecutor {
     // Package private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // Tasks submitted with an older generation are not executed anymore
+    int startNewGeneration() {
+        return generation.incrementAndGet();
+    }
+
     void parseBlocks(List<BsqBlock> bsqBlockList,
+                     int generation,
                      Consumer<BsqBlock> newBlockHandler,
                      ResultHandler resultHandler,
                      Consumer<Throwable> errorHandler) {
-        ListenableFuture<Void> future = executor.submit(() -> {
+        ListenableFuture<Boolean> future = executor.submit(() -> {
+            if (isOutdated(generation))
+                return false;
+
             long startTs = System.currentTimeMillis();
-            liteNodeParser.parseBsqBlocks(bsqBlockList,
-                    newBsqBlock -> UserThread.execute(() -> newBlockHandler.accept(newBsqBlock)));
+            try {
+                liteNodeParser.parseBsqBlocks(bsqBlockList,
+                        newBsqBlock -> UserThread.execute(() -> newBlockHandler.accept(newBsqBlock)));
+            } catch (Throwable t) {
+                invalidate(generation);
+                throw t;
+            }
             log.info("parseBlocks took {} ms for {} blocks", System.currentTimeMillis() - startTs, bsqBlockList.size());
-            return null;
+            return true;
         });
 
-        Futures.addCallback(future, new FutureCallback<Void>() {
+        Futures.addCallback(future, new FutureCallback<Boolean>() {
             @Override
-            public void onSuccess(Void ignore) {
-                UserThread.execute(() -> UserThread.execute(resultHandler::handleResult));
+            public void onSuccess(Boolean parsed) {
+                if (parsed)
+                    UserThread.execute(() -> UserThread.execute(resultHandler::handleResult));
             }
 
             @Override
@@ -90,19 +113,29 @@ public class LiteNodeExecutor {
     }
 
     void parseBlock(BsqBlock bsqBlock,
+                    int generation,
                     Consumer<BsqBlock> newBlockHandler,
                     Consumer<Throwable> errorHandler) {
-        ListenableFuture<BsqBlock> future = executor.submit(() -> {
+        ListenableFuture<Boolean> future = executor.submit(() -> {
+            if (isOutdated(generation))
+                return false;
+
             long startTs = System.currentTimeMillis();
-            liteNodeParser.parseBsqBlock(bsqBlock);
+            try {
+                liteNodeParser.parseBsqBlock(bsqBlock);
+            } catch (Throwable t) {
+                invalidate(generation);
+                throw t;
+            }
             log.info("parseBlocks took {} ms", System.currentTimeMillis() - startTs);
-            return bsqBlock;
+            return true;
         });
 
-        Futures.addCallback(future, new FutureCallback<BsqBlock>() {
+        Futures.addCallback(future, new FutureCallback<Boolean>() {
             @Override
-            public void onSuccess(BsqBlock bsqBlock) {
-                UserThread.execute(() -> UserThread.execute(() -> newBlockHandler.accept(bsqBlock)));
+            public void onSuccess(Boolean parsed) {
+                if (parsed)
+                    UserThread.execute(() -> UserThread.execute(() -> newBlockHandler.accept(bsqBlock)));
             }
 
             @Override
@@ -111,4 +144,41 @@ public class LiteNodeExecutor {
             }
         });
     }
+
+    // Runs on the parser thread, so the revert can't interfere with a block which is being parsed
+    void revertToHeight(int height, Consumer<Boolean> resultHandler, Consumer<Throwable> errorHandler) {
+        ListenableFuture<Boolean> future = executor.submit(() -> writableBsqBlockChain.revertToHeight(height));
+
+        Futures.addCallback(future, new FutureCallback<Boolean>() {
+            @Override
+            public void onSuccess(Boolean success) {
+                UserThread.execute(() -> resultHandler.accept(success));
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                UserThread.execute(() -> errorHandler.accept(throwable));
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Called on the executor thread
+    private boolean isOutdated(int generation) {
+        if (generation != this.generation.get()) {
+            log.info("We drop a parse task of generation {} as the current generation is {}",
+                    generation, this.generation.get());
+            return true;
+        }
+        return false;
+    }
+
+    // Called on the executor thread. Queued tasks of the failed generation get dropped.
+    private void invalidate(int generation) {
+        this.generation.compareAndSet(generation, generation + 1);
+    }
 }
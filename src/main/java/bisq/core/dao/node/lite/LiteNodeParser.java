@@ -62,8 +62,13 @@ public class LiteNodeParser extends BsqParser {
         log.debug("Parse block at height={} ", blockHeight);
         List<Tx> txList = new ArrayList<>(bsqBlock.getTxs());
         List<Tx> bsqTxsInBlock = new ArrayList<>();
-        bsqBlock.getTxs().forEach(tx -> checkForGenesisTx(blockHeight, bsqTxsInBlock, tx));
-        recursiveFindBsqTxs(bsqTxsInBlock, txList, blockHeight, 0, 5300);
+        try {
+            bsqBlock.getTxs().forEach(tx -> checkForGenesisTx(blockHeight, bsqTxsInBlock, tx));
+            recursiveFindBsqTxs(bsqTxsInBlock, txList, blockHeight, 0, 5300);
+        } catch (RuntimeException e) {
+            bsqBlockController.discardWriteBatch();
+            throw e;
+        }
         bsqBlockController.addBlockIfValid(bsqBlock);
     }
 }
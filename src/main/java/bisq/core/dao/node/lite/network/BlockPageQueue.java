@@ -0,0 +1,146 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite.network;
+
+import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.node.messages.GetBsqBlocksResponse;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.util.Tuple2;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Holds the received pages of blocks until all pages below them have arrived and releases them in order of block
+ * height. Each released page must connect to the last block released before.
+ */
+@Slf4j
+class BlockPageQueue {
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Handler
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    interface Handler {
+        void onPageReleased(List<BsqBlock> bsqBlocks, boolean isLastPage);
+
+        // The page does not connect to the last released block. It got removed and need to be requested again.
+        void onPageNotConnecting(NodeAddress peersNodeAddress, int startBlockHeight);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Class fields
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Pages which arrived before the pages with a lower block height. Key is the requested block height.
+    private final TreeMap<Integer, Tuple2<NodeAddress, GetBsqBlocksResponse>> pendingResponses = new TreeMap<>();
+    // Block height of the next block we release
+    @Getter
+    private int nextBlockHeight;
+    // Hash of the last block we released. Null if we have not released a block yet.
+    @Nullable
+    private String lastReleasedBlockHash;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void reset(int startBlockHeight) {
+        pendingResponses.clear();
+        nextBlockHeight = startBlockHeight;
+        lastReleasedBlockHash = null;
+    }
+
+    // The released blocks are kept, only the pages not released yet get removed
+    void clearPending() {
+        pendingResponses.clear();
+    }
+
+    int getNumPending() {
+        return pendingResponses.size();
+    }
+
+    // A page is obsolete if we have released or received it already
+    boolean isPageObsolete(int startBlockHeight) {
+        return startBlockHeight < nextBlockHeight || pendingResponses.containsKey(startBlockHeight);
+    }
+
+    void add(NodeAddress peersNodeAddress, int startBlockHeight, GetBsqBlocksResponse getBsqBlocksResponse) {
+        pendingResponses.put(startBlockHeight, new Tuple2<>(peersNodeAddress, getBsqBlocksResponse));
+    }
+
+    // We release the pages in order of the block height. We stop after the last page.
+    void release(Handler handler) {
+        while (!pendingResponses.isEmpty() && pendingResponses.firstKey() <= nextBlockHeight) {
+            Map.Entry<Integer, Tuple2<NodeAddress, GetBsqBlocksResponse>> entry = pendingResponses.pollFirstEntry();
+            GetBsqBlocksResponse getBsqBlocksResponse = entry.getValue().second;
+            // Full nodes without paging support deliver all blocks, so we might get blocks we have released already
+            List<BsqBlock> bsqBlocks = getBsqBlocksResponse.getBsqBlocks().stream()
+                    .filter(bsqBlock -> bsqBlock.getHeight() >= nextBlockHeight)
+                    .collect(Collectors.toList());
+            if (!bsqBlocks.isEmpty() && lastReleasedBlockHash != null &&
+                    !bsqBlocks.get(0).getPreviousBlockHash().equals(lastReleasedBlockHash)) {
+                log.warn("The first block of the page does not connect to the last block we have delivered. " +
+                                "nodeAddress={}, startBlockHeight={}",
+                        entry.getValue().first, entry.getKey());
+                handler.onPageNotConnecting(entry.getValue().first, entry.getKey());
+                return;
+            }
+
+            if (!bsqBlocks.isEmpty()) {
+                BsqBlock lastBlock = bsqBlocks.get(bsqBlocks.size() - 1);
+                nextBlockHeight = lastBlock.getHeight() + 1;
+                lastReleasedBlockHash = lastBlock.getHash();
+            }
+
+            boolean isLastPage = getBsqBlocksResponse.isLastPage();
+            handler.onPageReleased(bsqBlocks, isLastPage);
+            if (isLastPage)
+                return;
+        }
+    }
+
+    // Checks if the blocks of a page connect to each other
+    static boolean isConnecting(List<BsqBlock> bsqBlocks, int startBlockHeight) {
+        for (int i = 0; i < bsqBlocks.size(); i++) {
+            BsqBlock bsqBlock = bsqBlocks.get(i);
+            if (i == 0) {
+                // Full nodes without paging support might deliver blocks below the requested height
+                if (bsqBlock.getHeight() > startBlockHeight)
+                    return false;
+            } else {
+                BsqBlock previousBlock = bsqBlocks.get(i - 1);
+                if (bsqBlock.getHeight() != previousBlock.getHeight() + 1 ||
+                        !bsqBlock.getPreviousBlockHash().equals(previousBlock.getHash()))
+                    return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite.network;
+
+import bisq.network.p2p.NodeAddress;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Keeps track of the pages in flight and the measured response time of a peer we download blocks from.
+ */
+@ToString
+@Getter
+class DownloadPeer {
+    // Weight of the latest measurement in the moving average
+    private static final double WEIGHT = 0.3;
+
+    private final NodeAddress nodeAddress;
+    private int numPagesInFlight;
+    // Average duration of a page request. -1 if we have not received a response yet.
+    private double avgPageDuration = -1;
+
+    DownloadPeer(NodeAddress nodeAddress) {
+        this.nodeAddress = nodeAddress;
+    }
+
+    void onPageRequested() {
+        numPagesInFlight++;
+    }
+
+    void onPageReceived(long duration) {
+        numPagesInFlight = Math.max(0, numPagesInFlight - 1);
+        avgPageDuration = avgPageDuration < 0 ? duration : WEIGHT * duration + (1 - WEIGHT) * avgPageDuration;
+    }
+
+    void onPageCanceled() {
+        numPagesInFlight = Math.max(0, numPagesInFlight - 1);
+    }
+
+    // Estimated time until another page requested from that peer would arrive. Peers without measurement are preferred
+    // so that each peer gets measured.
+    double getEstimatedDuration() {
+        return avgPageDuration < 0 ? 0 : (numPagesInFlight + 1) * avgPageDuration;
+    }
+}
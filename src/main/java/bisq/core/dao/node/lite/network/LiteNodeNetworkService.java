@@ -17,6 +17,7 @@
 
 package bisq.core.dao.node.lite.network;
 
+import bisq.core.dao.blockchain.vo.BsqBlock;
 import bisq.core.dao.node.messages.GetBsqBlocksResponse;
 import bisq.core.dao.node.messages.NewBsqBlockBroadcastMessage;
 
@@ -31,7 +32,6 @@ import bisq.network.p2p.seed.SeedNodeRepository;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
-import bisq.common.app.DevEnv;
 import bisq.common.app.Log;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.util.Tuple2;
@@ -41,11 +41,14 @@ import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -53,7 +56,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * Responsible for requesting BSQ blocks from a full node and for listening to new blocks broadcasted by full nodes.
+ * Responsible for requesting BSQ blocks from full nodes and for listening to new blocks broadcasted by full nodes.
+ * <p>
+ * Blocks are requested in pages of max. GetBsqBlocksResponse.MAX_BLOCKS blocks. The pages are distributed over up to
+ * MAX_DOWNLOAD_PEERS connected seed nodes with max. MAX_PAGES_PER_PEER requests in flight per peer. A new page is
+ * assigned to the peer with the lowest estimated response time based on its previous responses. If a page blocks the
+ * delivery much longer than other pages take we request it from another peer as well.
+ * <p>
+ * The pages are delivered in order of their block height to the listeners as soon as they arrive, so the parser can
+ * start early and blocks which have been delivered already don't need to be requested again after a failure.
+ * We check that each page connects to the last delivered block before we deliver it.
  */
 @Slf4j
 public class LiteNodeNetworkService implements MessageListener, ConnectionListener, PeerManager.Listener {
@@ -61,10 +73,20 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     private static final long RETRY_DELAY_SEC = 10;
     private static final long CLEANUP_TIMER = 120;
     private static final int MAX_RETRY = 3;
+    private static final int MAX_DOWNLOAD_PEERS = 4;
+    private static final int MAX_PAGES_PER_PEER = 2;
+    // We don't request blocks more than that many blocks above the next block we deliver. That limits the pending
+    // responses if the page at the lower end is slow.
+    private static final int MAX_REQUEST_WINDOW = MAX_DOWNLOAD_PEERS * MAX_PAGES_PER_PEER * GetBsqBlocksResponse.MAX_BLOCKS;
+    // If the page we wait for takes that many times longer than the average of the others we request it again
+    private static final int SLOW_PAGE_FACTOR = 3;
+    private static final long SLOW_PAGE_CHECK_INTERVAL_SEC = 2;
 
     private int retryCounter = 0;
-    private int lastRequestedBlockHeight;
-    private int lastReceivedBlockHeight;
+    // Block height of the next page we request
+    private int nextRequestedBlockHeight;
+    // Set once we received a page which reached the chain head. We don't request pages above it.
+    private boolean lastPageRequested;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -74,7 +96,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     public interface Listener {
         void onNoSeedNodeAvailable();
 
-        void onRequestedBlocksReceived(GetBsqBlocksResponse getBsqBlocksResponse);
+        void onRequestedBlocksReceived(List<BsqBlock> bsqBlocks, boolean isLastPage);
 
         void onNewBlockReceived(NewBsqBlockBroadcastMessage newBsqBlockBroadcastMessage);
 
@@ -94,7 +116,16 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
 
     // Key is tuple of seedNode address and requested blockHeight
     private final Map<Tuple2<NodeAddress, Integer>, RequestBlocksHandler> requestBlocksHandlerMap = new HashMap<>();
+    // Pages which arrived before the pages with a lower block height
+    private final BlockPageQueue pageQueue = new BlockPageQueue();
+    // Pages which need to be requested again after a fault
+    private final TreeSet<Integer> pagesToRequest = new TreeSet<>();
+    private final Map<NodeAddress, DownloadPeer> downloadPeers = new HashMap<>();
+    // Peers which failed in the current download
+    private final Set<NodeAddress> failedPeers = new HashSet<>();
     private Timer retryTimer;
+    // Checks periodically if the page we wait for is slow while requests are in flight
+    private Timer slowPageTimer;
     private boolean stopped;
 
 
@@ -125,6 +156,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
         Log.traceCall();
         stopped = true;
         stopRetryTimer();
+        stopSlowPageTimer();
         networkNode.removeMessageListener(this);
         networkNode.removeConnectionListener(this);
         peerManager.removeListener(this);
@@ -137,16 +169,14 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
 
     public void requestBlocks(int startBlockHeight) {
         Log.traceCall();
-        lastRequestedBlockHeight = startBlockHeight;
-        Optional<Connection> connectionToSeedNodeOptional = networkNode.getConfirmedConnections().stream()
-                .filter(peerManager::isSeedNode)
-                .findAny();
-        if (connectionToSeedNodeOptional.isPresent() &&
-                connectionToSeedNodeOptional.get().getPeersNodeAddressOptional().isPresent()) {
-            requestBlocks(connectionToSeedNodeOptional.get().getPeersNodeAddressOptional().get(), startBlockHeight);
-        } else {
-            tryWithNewSeedNode(startBlockHeight);
-        }
+        pageQueue.reset(startBlockHeight);
+        failedPeers.clear();
+        closeAllHandlers();
+        addConnectedDownloadPeers();
+        if (!downloadPeers.isEmpty())
+            requestPages();
+        else
+            tryWithNewSeedNode();
     }
 
 
@@ -162,14 +192,14 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     @Override
     public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
         Log.traceCall();
-        closeHandler(connection);
-
-        if (peerManager.isNodeBanned(closeConnectionReason, connection)) {
-            connection.getPeersNodeAddressOptional().ifPresent(nodeAddress -> {
+        connection.getPeersNodeAddressOptional().ifPresent(nodeAddress -> {
+            if (peerManager.isNodeBanned(closeConnectionReason, connection))
                 seedNodeAddresses.remove(nodeAddress);
-                removeFromRequestBlocksHandlerMap(nodeAddress);
-            });
-        }
+
+            // If we lose the connection to a peer we requested pages from we request them from the other peers
+            if (downloadPeers.containsKey(nodeAddress))
+                onPeerFailed(nodeAddress);
+        });
     }
 
     @Override
@@ -188,7 +218,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
         stopRetryTimer();
         stopped = true;
 
-        tryWithNewSeedNode(lastRequestedBlockHeight);
+        tryWithNewSeedNode();
     }
 
     @Override
@@ -196,7 +226,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
         Log.traceCall();
         closeAllHandlers();
         stopped = false;
-        tryWithNewSeedNode(lastRequestedBlockHeight);
+        tryWithNewSeedNode();
     }
 
     @Override
@@ -205,7 +235,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
         closeAllHandlers();
         stopped = false;
         if (!networkNode.getAllConnections().isEmpty())
-            tryWithNewSeedNode(lastRequestedBlockHeight);
+            tryWithNewSeedNode();
     }
 
 
@@ -224,82 +254,236 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     // RequestData
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void requestBlocks(NodeAddress peersNodeAddress, int startBlockHeight) {
+    // We assign pages to the peers until all peers have MAX_PAGES_PER_PEER requests in flight, the last page is
+    // requested or the request window is full. Pages which need to be requested again have priority.
+    private void requestPages() {
         if (!stopped) {
-            final Tuple2<NodeAddress, Integer> key = new Tuple2<>(peersNodeAddress, startBlockHeight);
-            if (!requestBlocksHandlerMap.containsKey(key)) {
-                if (startBlockHeight >= lastReceivedBlockHeight) {
-                    RequestBlocksHandler requestBlocksHandler = new RequestBlocksHandler(networkNode,
-                            peerManager,
-                            peersNodeAddress,
-                            startBlockHeight,
-                            new RequestBlocksHandler.Listener() {
-                                @Override
-                                public void onComplete(GetBsqBlocksResponse getBsqBlocksResponse) {
-                                    log.trace("requestBlocksHandler of outbound connection complete. nodeAddress={}",
-                                            peersNodeAddress);
-                                    stopRetryTimer();
-
-                                    // need to remove before listeners are notified as they cause the update call
-                                    requestBlocksHandlerMap.remove(key);
-                                    // we only notify if our request was latest
-                                    if (startBlockHeight >= lastReceivedBlockHeight) {
-                                        lastReceivedBlockHeight = startBlockHeight;
-                                        listeners.forEach(listener -> listener.onRequestedBlocksReceived(getBsqBlocksResponse));
-                                    } else {
-                                        log.warn("We got a response which is already obsolete because we receive a " +
-                                                "response from a request with a higher block height. " +
-                                                "This could theoretically happen, but is very unlikely.");
-                                    }
-                                }
-
-                                @Override
-                                public void onFault(String errorMessage, @Nullable Connection connection) {
-                                    log.warn("requestBlocksHandler with outbound connection failed.\n\tnodeAddress={}\n\t" +
-                                            "ErrorMessage={}", peersNodeAddress, errorMessage);
-
-                                    peerManager.handleConnectionFault(peersNodeAddress);
-                                    requestBlocksHandlerMap.remove(key);
-
-                                    listeners.forEach(listener -> listener.onFault(errorMessage, connection));
-
-                                    tryWithNewSeedNode(startBlockHeight);
-                                }
-                            });
-                    requestBlocksHandlerMap.put(key, requestBlocksHandler);
-                    requestBlocksHandler.requestBlocks();
+            addConnectedDownloadPeers();
+            Optional<DownloadPeer> peerOptional = getBestDownloadPeer(null);
+            while (peerOptional.isPresent()) {
+                while (!pagesToRequest.isEmpty() && pageQueue.isPageObsolete(pagesToRequest.first()))
+                    pagesToRequest.pollFirst();
+
+                int startBlockHeight;
+                if (!pagesToRequest.isEmpty()) {
+                    startBlockHeight = pagesToRequest.pollFirst();
+                } else if (!lastPageRequested &&
+                        nextRequestedBlockHeight - pageQueue.getNextBlockHeight() < MAX_REQUEST_WINDOW) {
+                    startBlockHeight = nextRequestedBlockHeight;
+                    nextRequestedBlockHeight += GetBsqBlocksResponse.MAX_BLOCKS;
                 } else {
-                    //TODO check with re-orgs
-                    // FIXME when a lot of blocks are created we get caught here. Seems to be a threading issue...
-                    log.warn("startBlockHeight must not be smaller than lastReceivedBlockHeight. That should never happen." +
-                            "startBlockHeight={},lastReceivedBlockHeight={}", startBlockHeight, lastReceivedBlockHeight);
-                    if (DevEnv.isDevMode())
-                        throw new RuntimeException("startBlockHeight must be larger than lastReceivedBlockHeight. startBlockHeight=" +
-                                startBlockHeight + " / lastReceivedBlockHeight=" + lastReceivedBlockHeight);
+                    break;
                 }
-            } else {
-                log.warn("We have started already a requestDataHandshake to peer. nodeAddress=" + peersNodeAddress + "\n" +
-                        "We start a cleanup timer if the handler has not closed by itself in between 2 minutes.");
-
-                UserThread.runAfter(() -> {
-                    if (requestBlocksHandlerMap.containsKey(key)) {
-                        RequestBlocksHandler handler = requestBlocksHandlerMap.get(key);
-                        handler.stop();
-                        requestBlocksHandlerMap.remove(key);
-                    }
-                }, CLEANUP_TIMER);
+
+                DownloadPeer downloadPeer = peerOptional.get();
+                if (requestBlocksHandlerMap.containsKey(new Tuple2<>(downloadPeer.getNodeAddress(), startBlockHeight))) {
+                    // That peer has that page in flight already. We wait until another peer is available.
+                    pagesToRequest.add(startBlockHeight);
+                    break;
+                }
+
+                requestPage(downloadPeer, startBlockHeight);
+                peerOptional = getBestDownloadPeer(null);
             }
+
+            if (slowPageTimer == null && !requestBlocksHandlerMap.isEmpty())
+                slowPageTimer = UserThread.runPeriodically(this::maybeRequestSlowPageAgain, SLOW_PAGE_CHECK_INTERVAL_SEC);
         } else {
             log.warn("We have stopped already. We ignore that requestData call.");
         }
     }
 
+    private void requestPage(DownloadPeer downloadPeer, int startBlockHeight) {
+        NodeAddress peersNodeAddress = downloadPeer.getNodeAddress();
+        final Tuple2<NodeAddress, Integer> key = new Tuple2<>(peersNodeAddress, startBlockHeight);
+        if (!requestBlocksHandlerMap.containsKey(key)) {
+            RequestBlocksHandler requestBlocksHandler = new RequestBlocksHandler(networkNode,
+                    peerManager,
+                    peersNodeAddress,
+                    startBlockHeight,
+                    new RequestBlocksHandler.Listener() {
+                        @Override
+                        public void onComplete(GetBsqBlocksResponse getBsqBlocksResponse) {
+                            log.trace("requestBlocksHandler of outbound connection complete. nodeAddress={}",
+                                    peersNodeAddress);
+                            stopRetryTimer();
+                            retryCounter = 0;
+
+                            // need to remove before listeners are notified as they cause the update call
+                            RequestBlocksHandler handler = requestBlocksHandlerMap.remove(key);
+                            if (handler != null)
+                                downloadPeer.onPageReceived(System.currentTimeMillis() - handler.getRequestTs());
+                            cancelOtherRequestsForPage(startBlockHeight);
+
+                            onPageReceived(peersNodeAddress, startBlockHeight, getBsqBlocksResponse);
+                        }
+
+                        @Override
+                        public void onFault(String errorMessage, @Nullable Connection connection) {
+                            log.warn("requestBlocksHandler with outbound connection failed.\n\tnodeAddress={}\n\t" +
+                                    "ErrorMessage={}", peersNodeAddress, errorMessage);
+
+                            peerManager.handleConnectionFault(peersNodeAddress);
+                            requestBlocksHandlerMap.remove(key);
+
+                            listeners.forEach(listener -> listener.onFault(errorMessage, connection));
+
+                            pagesToRequest.add(startBlockHeight);
+                            onPeerFailed(peersNodeAddress);
+                        }
+                    });
+            requestBlocksHandlerMap.put(key, requestBlocksHandler);
+            downloadPeer.onPageRequested();
+            requestBlocksHandler.requestBlocks();
+        } else {
+            log.warn("We have started already a requestDataHandshake to peer. nodeAddress=" + peersNodeAddress + "\n" +
+                    "We start a cleanup timer if the handler has not closed by itself in between 2 minutes.");
+
+            UserThread.runAfter(() -> {
+                if (requestBlocksHandlerMap.containsKey(key)) {
+                    RequestBlocksHandler handler = requestBlocksHandlerMap.get(key);
+                    handler.stop();
+                    requestBlocksHandlerMap.remove(key);
+                }
+            }, CLEANUP_TIMER);
+        }
+    }
+
+    private void onPageReceived(NodeAddress peersNodeAddress, int startBlockHeight, GetBsqBlocksResponse getBsqBlocksResponse) {
+        if (pageQueue.isPageObsolete(startBlockHeight)) {
+            log.debug("We got a response which is already obsolete. That happens if a page was requested from " +
+                    "multiple peers. startBlockHeight={}, nextBlockHeight={}", startBlockHeight, pageQueue.getNextBlockHeight());
+        } else if (!BlockPageQueue.isConnecting(getBsqBlocksResponse.getBsqBlocks(), startBlockHeight)) {
+            log.warn("We got a page with blocks which are not connecting to each other. We request it from another " +
+                    "peer. nodeAddress={}, startBlockHeight={}", peersNodeAddress, startBlockHeight);
+            pagesToRequest.add(startBlockHeight);
+            onPeerFailed(peersNodeAddress);
+            return;
+        } else {
+            if (getBsqBlocksResponse.isLastPage())
+                lastPageRequested = true;
+
+            pageQueue.add(peersNodeAddress, startBlockHeight, getBsqBlocksResponse);
+            deliverPendingResponses();
+        }
+
+        if (!lastPageRequested || !pagesToRequest.isEmpty())
+            requestPages();
+    }
+
+    // We deliver the pages in order of the block height. If a page was the last one we cancel the remaining requests.
+    private void deliverPendingResponses() {
+        pageQueue.release(new BlockPageQueue.Handler() {
+            @Override
+            public void onPageReleased(List<BsqBlock> bsqBlocks, boolean isLastPage) {
+                if (isLastPage) {
+                    closeAllHandlers();
+                    lastPageRequested = true;
+                }
+
+                listeners.forEach(listener -> listener.onRequestedBlocksReceived(bsqBlocks, isLastPage));
+            }
+
+            @Override
+            public void onPageNotConnecting(NodeAddress peersNodeAddress, int startBlockHeight) {
+                // We request it from another peer
+                pagesToRequest.add(startBlockHeight);
+                onPeerFailed(peersNodeAddress);
+            }
+        });
+    }
+
+    // If the page at nextBlockHeight takes much longer than the average page we request it from the fastest other peer
+    // as well. The first response wins. Called by the slowPageTimer.
+    private void maybeRequestSlowPageAgain() {
+        if (stopped)
+            return;
+
+        int nextBlockHeight = pageQueue.getNextBlockHeight();
+        List<Map.Entry<Tuple2<NodeAddress, Integer>, RequestBlocksHandler>> blockingRequests = requestBlocksHandlerMap.entrySet().stream()
+                .filter(e -> e.getKey().second == nextBlockHeight)
+                .collect(Collectors.toList());
+        if (blockingRequests.size() != 1)
+            return;
+
+        NodeAddress slowPeer = blockingRequests.get(0).getKey().first;
+        long duration = System.currentTimeMillis() - blockingRequests.get(0).getValue().getRequestTs();
+        double avgPageDuration = downloadPeers.values().stream()
+                .filter(e -> e.getAvgPageDuration() >= 0)
+                .mapToDouble(DownloadPeer::getAvgPageDuration)
+                .average()
+                .orElse(-1);
+        if (avgPageDuration > 0 && duration > SLOW_PAGE_FACTOR * avgPageDuration) {
+            getBestDownloadPeer(slowPeer).ifPresent(downloadPeer -> {
+                log.info("Page at block height {} from {} is slow. We request it from {} as well.",
+                        nextBlockHeight, slowPeer, downloadPeer.getNodeAddress());
+                requestPage(downloadPeer, nextBlockHeight);
+            });
+        }
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Utils
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void tryWithNewSeedNode(int startBlockHeight) {
+    // If a page was requested from multiple peers we cancel the other requests once we got it
+    private void cancelOtherRequestsForPage(int startBlockHeight) {
+        List<Tuple2<NodeAddress, Integer>> keys = requestBlocksHandlerMap.keySet().stream()
+                .filter(key -> key.second == startBlockHeight)
+                .collect(Collectors.toList());
+        keys.forEach(key -> {
+            requestBlocksHandlerMap.remove(key).cancel();
+            DownloadPeer downloadPeer = downloadPeers.get(key.first);
+            if (downloadPeer != null)
+                downloadPeer.onPageCanceled();
+        });
+    }
+
+    private void addConnectedDownloadPeers() {
+        networkNode.getConfirmedConnections().stream()
+                .filter(peerManager::isSeedNode)
+                .map(Connection::getPeersNodeAddressOptional)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .filter(nodeAddress -> !failedPeers.contains(nodeAddress) && !peerManager.isSelf(nodeAddress))
+                .forEach(this::addDownloadPeer);
+    }
+
+    private void addDownloadPeer(NodeAddress nodeAddress) {
+        if (downloadPeers.size() < MAX_DOWNLOAD_PEERS && !downloadPeers.containsKey(nodeAddress))
+            downloadPeers.put(nodeAddress, new DownloadPeer(nodeAddress));
+    }
+
+    private Optional<DownloadPeer> getBestDownloadPeer(@Nullable NodeAddress excluded) {
+        return downloadPeers.values().stream()
+                .filter(e -> e.getNumPagesInFlight() < MAX_PAGES_PER_PEER && !e.getNodeAddress().equals(excluded))
+                .min(Comparator.comparingDouble(DownloadPeer::getEstimatedDuration));
+    }
+
+    // We remove the peer and request its open pages from the other peers
+    private void onPeerFailed(NodeAddress nodeAddress) {
+        failedPeers.add(nodeAddress);
+        downloadPeers.remove(nodeAddress);
+        List<Tuple2<NodeAddress, Integer>> keys = requestBlocksHandlerMap.keySet().stream()
+                .filter(key -> key.first.equals(nodeAddress))
+                .collect(Collectors.toList());
+        keys.forEach(key -> {
+            requestBlocksHandlerMap.remove(key).cancel();
+            pagesToRequest.add(key.second);
+        });
+
+        if (stopped)
+            return;
+
+        addConnectedDownloadPeers();
+        if (!downloadPeers.isEmpty())
+            requestPages();
+        else
+            tryWithNewSeedNode();
+    }
+
+    private void tryWithNewSeedNode() {
         Log.traceCall();
         if (retryTimer == null) {
             retryCounter++;
@@ -319,7 +503,9 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
                                 NodeAddress nextCandidate = list.get(0);
                                 seedNodeAddresses.remove(nextCandidate);
                                 log.info("We try requestBlocks with {}", nextCandidate);
-                                requestBlocks(nextCandidate, startBlockHeight);
+                                failedPeers.remove(nextCandidate);
+                                addDownloadPeer(nextCandidate);
+                                requestPages();
                             } else {
                                 log.warn("No more seed nodes available we could try.");
                                 listeners.forEach(Listener::onNoSeedNodeAvailable);
@@ -342,31 +528,22 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
         }
     }
 
-    private void closeHandler(Connection connection) {
-        Optional<NodeAddress> peersNodeAddressOptional = connection.getPeersNodeAddressOptional();
-        if (peersNodeAddressOptional.isPresent()) {
-            NodeAddress nodeAddress = peersNodeAddressOptional.get();
-            removeFromRequestBlocksHandlerMap(nodeAddress);
-        } else {
-            log.trace("closeHandler: nodeAddress not set in connection " + connection);
+    private void stopSlowPageTimer() {
+        if (slowPageTimer != null) {
+            slowPageTimer.stop();
+            slowPageTimer = null;
         }
     }
 
-    private void removeFromRequestBlocksHandlerMap(NodeAddress nodeAddress) {
-        requestBlocksHandlerMap.entrySet().stream()
-                .filter(e -> e.getKey().first.equals(nodeAddress))
-                .findAny()
-                .map(Map.Entry::getValue)
-                .ifPresent(handler -> {
-                    final Tuple2<NodeAddress, Integer> key = new Tuple2<>(handler.getNodeAddress(), handler.getStartBlockHeight());
-                    requestBlocksHandlerMap.get(key).cancel();
-                    requestBlocksHandlerMap.remove(key);
-                });
-    }
-
-
+    // We cancel all requests. The next requests start at the first block which was not delivered yet.
     private void closeAllHandlers() {
         requestBlocksHandlerMap.values().forEach(RequestBlocksHandler::cancel);
         requestBlocksHandlerMap.clear();
+        stopSlowPageTimer();
+        pageQueue.clearPending();
+        pagesToRequest.clear();
+        downloadPeers.clear();
+        nextRequestedBlockHeight = pageQueue.getNextBlockHeight();
+        lastPageRequested = false;
     }
 }
@@ -79,6 +79,8 @@ public class RequestBlocksHandler implements MessageListener {
     private final Listener listener;
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
+    @Getter
+    private long requestTs;
     private boolean stopped;
 
 
@@ -110,6 +112,7 @@ public class RequestBlocksHandler implements MessageListener {
     public void requestBlocks() {
         if (!stopped) {
             GetBsqBlocksRequest getBsqBlocksRequest = new GetBsqBlocksRequest(startBlockHeight, nonce);
+            requestTs = System.currentTimeMillis();
             log.debug("getBsqBlocksRequest " + getBsqBlocksRequest);
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -180,9 +183,10 @@ public class RequestBlocksHandler implements MessageListener {
                         cleanup();
                         listener.onComplete(getBsqBlocksResponse);
                     } else {
-                        log.warn("Nonce not matching. That can happen rarely if we get a response after a canceled " +
-                                        "handshake (timeout causes connection close but peer might have sent a msg before " +
-                                        "connection was closed).\n\t" +
+                        // As we have several pages in flight to the same peer each handler gets the responses of the
+                        // other requests as well
+                        log.debug("Nonce not matching. That is expected if we have several requests to that peer " +
+                                        "or if we get a response after a canceled request. " +
                                         "We drop that message. nonce={} / requestNonce={}",
                                 nonce, getBsqBlocksResponse.getRequestNonce());
                     }
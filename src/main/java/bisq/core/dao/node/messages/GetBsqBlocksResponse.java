@@ -34,9 +34,16 @@ import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
+/**
+ * Contains max. MAX_BLOCKS blocks starting at the requested block height. If the response is full the requester
+ * continues with the block height after the last block of the response. Full nodes which are not updated yet deliver
+ * all blocks up to the chain head in one response.
+ */
 @EqualsAndHashCode(callSuper = true)
 @Getter
 public final class GetBsqBlocksResponse extends NetworkEnvelope implements DirectMessage, ExtendedDataSizePermission {
+    public static final int MAX_BLOCKS = 1000;
+
     private final List<BsqBlock> bsqBlocks;
     private final int requestNonce;
 
@@ -75,4 +82,15 @@ public final class GetBsqBlocksResponse extends NetworkEnvelope implements Direc
                 proto.getRequestNonce(),
                 messageVersion);
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // If we got less blocks than the max. number we have reached the chain head. A response with more blocks is from a
+    // full node which does not support paging and delivered all blocks.
+    public boolean isLastPage() {
+        return bsqBlocks.size() != MAX_BLOCKS;
+    }
 }
@@ -26,7 +26,9 @@ import bisq.common.storage.Storage;
 import javax.inject.Inject;
 
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -40,12 +42,15 @@ import lombok.extern.slf4j.Slf4j;
  * We do not need to sync that data structure with the BsqBlockChain or have handling for snapshots because changes by
  * voting are safe against blockchain re-orgs as we use sufficient breaks between the phases. So even in case the
  * BsqBlockchain gets changed due a re-org we will not suffer from a stale state.
+ * For fast lookups during block parsing we keep per DaoParam the change events sorted by blockHeight in arrays. The
+ * map is replaced at each change (which are rare) so it can be read from the parser thread without locking.
  */
 @Slf4j
 public class DaoParamService implements PersistedDataHost {
     private final Storage<ParamChangeEventList> storage;
     @Getter
     private final ParamChangeEventList paramChangeEventList = new ParamChangeEventList();
+    private volatile Map<DaoParam, ParamTimeline> paramTimelineByDaoParam = new EnumMap<>(DaoParam.class);
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -68,6 +73,7 @@ public class DaoParamService implements PersistedDataHost {
             if (persisted != null) {
                 this.paramChangeEventList.clear();
                 this.paramChangeEventList.addAll(persisted.getList());
+                updateParamTimelines();
             }
         }
     }
@@ -83,23 +89,20 @@ public class DaoParamService implements PersistedDataHost {
     }
 
     public long getDaoParamValue(DaoParam daoParam, int blockHeight) {
-        final List<ParamChangeEvent> sortedFilteredList = getParamChangeEventListForParam(daoParam).stream()
-                .filter(e -> e.getBlockHeight() <= blockHeight)
-                .sorted(Comparator.comparing(ParamChangeEvent::getBlockHeight))
-                .collect(Collectors.toList());
-
-        if (sortedFilteredList.isEmpty()) {
-            return daoParam.getDefaultValue();
-        } else {
-            final ParamChangeEvent mostRecentEvent = sortedFilteredList.get(sortedFilteredList.size() - 1);
-            return mostRecentEvent.getValue();
+        final ParamTimeline paramTimeline = paramTimelineByDaoParam.get(daoParam);
+        if (paramTimeline != null) {
+            final int index = paramTimeline.getIndexAtHeight(blockHeight);
+            if (index >= 0)
+                return paramTimeline.values[index];
         }
+        return daoParam.getDefaultValue();
     }
 
     public void addChangeEvent(ParamChangeEvent event) {
         if (!paramChangeEventList.contains(event)) {
             if (!hasConflictingValue(getParamChangeEventListForParam(event.getDaoParam()), event)) {
                 paramChangeEventList.add(event);
+                updateParamTimelines();
             } else {
                 String msg = "We have already an ParamChangeEvent with the same blockHeight but a different value. " +
                         "That must not happen.";
@@ -123,7 +126,51 @@ public class DaoParamService implements PersistedDataHost {
                 .anyMatch(e -> e.getValue() != event.getValue());
     }
 
+    private void updateParamTimelines() {
+        final Map<DaoParam, ParamTimeline> map = new EnumMap<>(DaoParam.class);
+        paramChangeEventList.getList().stream()
+                .collect(Collectors.groupingBy(ParamChangeEvent::getDaoParam))
+                .forEach((daoParam, events) -> map.put(daoParam, new ParamTimeline(events)));
+        paramTimelineByDaoParam = map;
+    }
+
     private void persist() {
         storage.queueUpForSave();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // ParamTimeline
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class ParamTimeline {
+        private final int[] blockHeights;
+        private final long[] values;
+
+        private ParamTimeline(List<ParamChangeEvent> events) {
+            final List<ParamChangeEvent> sortedEvents = events.stream()
+                    .sorted(Comparator.comparing(ParamChangeEvent::getBlockHeight))
+                    .collect(Collectors.toList());
+            blockHeights = new int[sortedEvents.size()];
+            values = new long[sortedEvents.size()];
+            for (int i = 0; i < sortedEvents.size(); i++) {
+                blockHeights[i] = sortedEvents.get(i).getBlockHeight();
+                values[i] = sortedEvents.get(i).getValue();
+            }
+        }
+
+        // Returns the index of the last event with a blockHeight <= given blockHeight or -1 if there is none
+        private int getIndexAtHeight(int blockHeight) {
+            int low = 0;
+            int high = blockHeights.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                if (blockHeights[mid] <= blockHeight)
+                    low = mid + 1;
+                else
+                    high = mid - 1;
+            }
+            return high;
+        }
+    }
 }
@@ -30,11 +30,14 @@ import com.google.inject.Inject;
 import javax.inject.Named;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -89,11 +92,28 @@ public class PeriodService implements BsqBlockChain.Listener {
     // Fields
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private static final int MAX_TX_HEIGHT_CACHE_SIZE = 10_000;
+
     private final ReadableBsqBlockChain readableBsqBlockChain;
     private final int genesisBlockHeight;
     @Getter
     private ObjectProperty<Phase> phaseProperty = new SimpleObjectProperty<>(Phase.UNDEFINED);
 
+    // Phase boundaries are precomputed as the durations do not change at runtime.
+    private final int numBlocksOfCycle;
+    // Offset of start and end of a phase relative to the cycle start. Index is the ordinal of the phase.
+    private final int[] phaseStartOffsets;
+    private final int[] phaseEndOffsets;
+    // Phase for each block offset in the cycle
+    private final Phase[] phaseByOffset;
+
+    // Cache of the block height of the looked up txs. Cleared if blocks got reverted.
+    private final Cache<String, Integer> txHeightByTxIdCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_TX_HEIGHT_CACHE_SIZE)
+            .build();
+    // reOrgCount of the BsqBlockChainState when the cache got filled
+    private volatile int txHeightCacheReOrgCount;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -104,6 +124,22 @@ public class PeriodService implements BsqBlockChain.Listener {
                          @Named(DaoOptionKeys.GENESIS_BLOCK_HEIGHT) int genesisBlockHeight) {
         this.readableBsqBlockChain = readableBsqBlockChain;
         this.genesisBlockHeight = genesisBlockHeight;
+
+        final Phase[] phases = Phase.values();
+        phaseStartOffsets = new int[phases.length];
+        phaseEndOffsets = new int[phases.length];
+        int offset = 0;
+        for (Phase phase : phases) {
+            phaseStartOffsets[phase.ordinal()] = offset;
+            offset += phase.getDurationInBlocks();
+            phaseEndOffsets[phase.ordinal()] = offset;
+        }
+        numBlocksOfCycle = offset;
+
+        phaseByOffset = new Phase[numBlocksOfCycle];
+        for (Phase phase : phases) {
+            Arrays.fill(phaseByOffset, phaseStartOffsets[phase.ordinal()], phaseEndOffsets[phase.ordinal()], phase);
+        }
     }
 
 
@@ -125,30 +161,28 @@ public class PeriodService implements BsqBlockChain.Listener {
     }
 
     public boolean isInPhase(int blockHeight, Phase phase) {
-        int start = getBlockUntilPhaseStart(phase);
-        int end = getBlockUntilPhaseEnd(phase);
         int numBlocksOfTxHeightSinceGenesis = blockHeight - genesisBlockHeight;
-        int heightInCycle = numBlocksOfTxHeightSinceGenesis % getNumBlocksOfCycle();
-        return heightInCycle >= start && heightInCycle < end;
+        int heightInCycle = numBlocksOfTxHeightSinceGenesis % numBlocksOfCycle;
+        return heightInCycle >= 0 && phaseByOffset[heightInCycle] == phase;
     }
 
     // If we are not in the parsing, it is safe to call it without explicit chainHeadHeight
     public boolean isTxInPhase(String txId, Phase phase) {
-        Tx tx = readableBsqBlockChain.getTxMap().get(txId);
-        return tx != null && isInPhase(tx.getBlockHeight(), phase);
+        final Optional<Integer> txHeight = getTxHeight(txId);
+        return txHeight.isPresent() && isInPhase(txHeight.get(), phase);
     }
 
     public boolean isTxInCurrentCycle(String txId) {
-        Tx tx = readableBsqBlockChain.getTxMap().get(txId);
-        return tx != null && isTxInCurrentCycle(tx.getBlockHeight(),
+        final Optional<Integer> txHeight = getTxHeight(txId);
+        return txHeight.isPresent() && isTxInCurrentCycle(txHeight.get(),
                 readableBsqBlockChain.getChainHeadHeight(),
                 genesisBlockHeight,
                 getNumBlocksOfCycle());
     }
 
     public boolean isTxInPastCycle(String txId) {
-        Tx tx = readableBsqBlockChain.getTxMap().get(txId);
-        return tx != null && isTxInPastCycle(tx.getBlockHeight(),
+        final Optional<Integer> txHeight = getTxHeight(txId);
+        return txHeight.isPresent() && isTxInPastCycle(txHeight.get(),
                 readableBsqBlockChain.getChainHeadHeight(),
                 genesisBlockHeight,
                 getNumBlocksOfCycle());
@@ -192,6 +226,24 @@ public class PeriodService implements BsqBlockChain.Listener {
     // Private methods
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // The height of a tx only changes if its block got reverted, so we clear the cache if the reOrgCount changed
+    @VisibleForTesting
+    Optional<Integer> getTxHeight(String txId) {
+        final int reOrgCount = readableBsqBlockChain.getState().getReOrgCount();
+        if (reOrgCount != txHeightCacheReOrgCount) {
+            txHeightByTxIdCache.invalidateAll();
+            txHeightCacheReOrgCount = reOrgCount;
+        }
+
+        final Integer cachedHeight = txHeightByTxIdCache.getIfPresent(txId);
+        if (cachedHeight != null)
+            return Optional.of(cachedHeight);
+
+        final Optional<Integer> txHeight = readableBsqBlockChain.getTx(txId).map(Tx::getBlockHeight);
+        txHeight.ifPresent(height -> txHeightByTxIdCache.put(txId, height));
+        return txHeight;
+    }
+
     private void onChainHeightChanged(int chainHeight) {
         final int relativeBlocksInCycle = getRelativeBlocksInCycle(genesisBlockHeight, chainHeight, getNumBlocksOfCycle());
         phaseProperty.set(calculatePhase(relativeBlocksInCycle));
@@ -203,72 +255,19 @@ public class PeriodService implements BsqBlockChain.Listener {
     }
 
     int getBlockUntilPhaseStart(Phase target) {
-        int totalDuration = 0;
-        for (Phase phase : Arrays.asList(Phase.values())) {
-            if (phase == target)
-                break;
-            else
-                totalDuration += phase.getDurationInBlocks();
-        }
-        return totalDuration;
+        return phaseStartOffsets[target.ordinal()];
     }
 
     int getBlockUntilPhaseEnd(Phase target) {
-        int totalDuration = 0;
-        for (Phase phase : Arrays.asList(Phase.values())) {
-            totalDuration += phase.getDurationInBlocks();
-            if (phase == target)
-                break;
-        }
-        return totalDuration;
+        return phaseEndOffsets[target.ordinal()];
     }
 
     @VisibleForTesting
     Phase calculatePhase(int blocksInNewPhase) {
-        if (blocksInNewPhase < Phase.PROPOSAL.getDurationInBlocks())
+        if (blocksInNewPhase >= 0 && blocksInNewPhase < numBlocksOfCycle)
+            return phaseByOffset[blocksInNewPhase];
+        else if (blocksInNewPhase < 0)
             return Phase.PROPOSAL;
-        else if (blocksInNewPhase < Phase.PROPOSAL.getDurationInBlocks() +
-                Phase.BREAK1.getDurationInBlocks())
-            return Phase.BREAK1;
-        else if (blocksInNewPhase < Phase.PROPOSAL.getDurationInBlocks() +
-                Phase.BREAK1.getDurationInBlocks() +
-                Phase.BLIND_VOTE.getDurationInBlocks())
-            return Phase.BLIND_VOTE;
-        else if (blocksInNewPhase < Phase.PROPOSAL.getDurationInBlocks() +
-                Phase.BREAK1.getDurationInBlocks() +
-                Phase.BLIND_VOTE.getDurationInBlocks() +
-                Phase.BREAK2.getDurationInBlocks())
-            return Phase.BREAK2;
-        else if (blocksInNewPhase < Phase.PROPOSAL.getDurationInBlocks() +
-                Phase.BREAK1.getDurationInBlocks() +
-                Phase.BLIND_VOTE.getDurationInBlocks() +
-                Phase.BREAK2.getDurationInBlocks() +
-                Phase.VOTE_REVEAL.getDurationInBlocks())
-            return Phase.VOTE_REVEAL;
-        else if (blocksInNewPhase < Phase.PROPOSAL.getDurationInBlocks() +
-                Phase.BREAK1.getDurationInBlocks() +
-                Phase.BLIND_VOTE.getDurationInBlocks() +
-                Phase.BREAK2.getDurationInBlocks() +
-                Phase.VOTE_REVEAL.getDurationInBlocks() +
-                Phase.BREAK3.getDurationInBlocks())
-            return Phase.BREAK3;
-        else if (blocksInNewPhase < Phase.PROPOSAL.getDurationInBlocks() +
-                Phase.BREAK1.getDurationInBlocks() +
-                Phase.BLIND_VOTE.getDurationInBlocks() +
-                Phase.BREAK2.getDurationInBlocks() +
-                Phase.VOTE_REVEAL.getDurationInBlocks() +
-                Phase.BREAK3.getDurationInBlocks() +
-                Phase.ISSUANCE.getDurationInBlocks())
-            return Phase.ISSUANCE;
-        else if (blocksInNewPhase < Phase.PROPOSAL.getDurationInBlocks() +
-                Phase.BREAK1.getDurationInBlocks() +
-                Phase.BLIND_VOTE.getDurationInBlocks() +
-                Phase.BREAK2.getDurationInBlocks() +
-                Phase.VOTE_REVEAL.getDurationInBlocks() +
-                Phase.BREAK3.getDurationInBlocks() +
-                Phase.ISSUANCE.getDurationInBlocks() +
-                Phase.BREAK4.getDurationInBlocks())
-            return Phase.BREAK4;
         else {
             log.error("blocksInNewPhase is not covered by phase checks. blocksInNewPhase={}", blocksInNewPhase);
             if (DevEnv.isDevMode())
@@ -330,23 +329,11 @@ public class PeriodService implements BsqBlockChain.Listener {
 
     @VisibleForTesting
     int getNumBlocksOfPhaseStart(Phase phase) {
-        int blocks = 0;
-        for (int i = 0; i < Phase.values().length; i++) {
-            final Phase currentPhase = Phase.values()[i];
-            if (currentPhase == phase)
-                break;
-
-            blocks += currentPhase.getDurationInBlocks();
-        }
-        return blocks;
+        return phaseStartOffsets[phase.ordinal()];
     }
 
     @VisibleForTesting
     int getNumBlocksOfCycle() {
-        int blocks = 0;
-        for (int i = 0; i < Phase.values().length; i++) {
-            blocks += Phase.values()[i].getDurationInBlocks();
-        }
-        return blocks;
+        return numBlocksOfCycle;
     }
 }
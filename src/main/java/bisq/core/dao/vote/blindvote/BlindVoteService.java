@@ -55,7 +55,9 @@ import java.security.PublicKey;
 import java.io.IOException;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -81,6 +83,8 @@ public class BlindVoteService implements PersistedDataHost, HashMapChangedListen
 
     // BlindVoteList is wrapper for persistence. From outside we access only list inside of wrapper.
     private final BlindVoteList blindVoteList = new BlindVoteList();
+    // Index of blindVoteList for fast duplicate checks at the initial P2P data delivery
+    private final Set<BlindVote> blindVoteSet = new HashSet<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -123,6 +127,8 @@ public class BlindVoteService implements PersistedDataHost, HashMapChangedListen
             if (persisted != null) {
                 this.blindVoteList.clear();
                 this.blindVoteList.addAll(persisted.getList());
+                blindVoteSet.clear();
+                blindVoteSet.addAll(persisted.getList());
             }
         }
     }
@@ -206,7 +212,7 @@ public class BlindVoteService implements PersistedDataHost, HashMapChangedListen
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private void addBlindVote(BlindVote blindVote) {
-        if (!blindVoteList.contains(blindVote)) {
+        if (blindVoteSet.add(blindVote)) {
             blindVoteList.add(blindVote);
             persist();
             log.info("Added blindVote to blindVoteList.\nblindVote={}", blindVote);
@@ -48,11 +48,14 @@ import com.google.common.util.concurrent.FutureCallback;
 import javafx.beans.value.ChangeListener;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 
 import java.security.PublicKey;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import lombok.Getter;
@@ -84,7 +87,13 @@ public class ProposalService implements PersistedDataHost, HashMapChangedListene
     @Getter
     private final FilteredList<Proposal> closedProposals = new FilteredList<>(observableList);
 
+    // Indexes of observableList, maintained by a ListChangeListener
+    private final Map<String, Proposal> proposalByUidMap = new HashMap<>();
+    private final Map<String, Proposal> proposalByTxIdMap = new HashMap<>();
+
     private ChangeListener<Number> numConnectedPeersListener;
+    private int numOfStartedCyclesAtLastBlock = -1;
+    private int lastBlockHeight;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -105,6 +114,17 @@ public class ProposalService implements PersistedDataHost, HashMapChangedListene
         this.storage = storage;
 
         signaturePubKey = keyRing.getPubKeyRing().getSignaturePubKey();
+
+        observableList.addListener((ListChangeListener<Proposal>) c -> {
+            while (c.next()) {
+                c.getRemoved().forEach(this::removeFromIndexes);
+                c.getAddedSubList().forEach(this::addToIndexes);
+            }
+        });
+        // New items get filtered by the FilteredList with the current predicate, so we only need to set it again if
+        // the result for existing items might have changed.
+        upDatePredicate();
+
         readableBsqBlockChain.addListener(this);
     }
 
@@ -131,7 +151,19 @@ public class ProposalService implements PersistedDataHost, HashMapChangedListene
 
     @Override
     public void onBlockAdded(BsqBlock bsqBlock) {
-        upDatePredicate();
+        // The predicates only change their result if a new cycle has started, if a proposal tx got confirmed or
+        // if we had a re-org. Otherwise we avoid to re-evaluate them over all proposals at each block.
+        final int height = bsqBlock.getHeight();
+        final int numOfStartedCycles = periodService.getNumOfStartedCycles(height);
+        final boolean isNewCycle = numOfStartedCycles != numOfStartedCyclesAtLastBlock;
+        final boolean isReOrg = height <= lastBlockHeight;
+        final boolean hasProposalTx = bsqBlock.getTxs().stream()
+                .anyMatch(tx -> proposalByTxIdMap.containsKey(tx.getId()));
+        numOfStartedCyclesAtLastBlock = numOfStartedCycles;
+        lastBlockHeight = height;
+
+        if (isNewCycle || isReOrg || hasProposalTx)
+            upDatePredicate();
     }
 
     private void upDatePredicate() {
@@ -271,12 +303,16 @@ public class ProposalService implements PersistedDataHost, HashMapChangedListene
     private void addProposal(ProposalPayload proposalPayload, boolean storeLocally) {
         if (!listContains(proposalPayload)) {
             log.info("We got added a ProposalPayload from P2P network.\nProposalPayload={}" + proposalPayload);
+            if (proposalByUidMap.containsKey(proposalPayload.getUid())) {
+                log.warn("We have already a different proposal with the same uid. We ignore the new one. " +
+                        "ProposalPayload={}", proposalPayload);
+                return;
+            }
+
             observableList.add(createSpecificProposal(proposalPayload));
 
             if (storeLocally)
                 persist();
-
-            upDatePredicate();
         } else {
             if (!isMine(proposalPayload))
                 log.warn("We already have an item with the same Proposal.");
@@ -344,9 +380,20 @@ public class ProposalService implements PersistedDataHost, HashMapChangedListene
     }
 
     private Optional<Proposal> findProposal(ProposalPayload proposalPayload) {
-        return observableList.stream()
-                .filter(e -> e.getProposalPayload().equals(proposalPayload))
-                .findAny();
+        return Optional.ofNullable(proposalByUidMap.get(proposalPayload.getUid()))
+                .filter(e -> e.getProposalPayload().equals(proposalPayload));
+    }
+
+    private void addToIndexes(Proposal proposal) {
+        proposalByUidMap.put(proposal.getUid(), proposal);
+        if (proposal.getTxId() != null)
+            proposalByTxIdMap.put(proposal.getTxId(), proposal);
+    }
+
+    private void removeFromIndexes(Proposal proposal) {
+        proposalByUidMap.remove(proposal.getUid(), proposal);
+        if (proposal.getTxId() != null)
+            proposalByTxIdMap.remove(proposal.getTxId(), proposal);
     }
 
     private void removeProposalFromList(Proposal proposal) {
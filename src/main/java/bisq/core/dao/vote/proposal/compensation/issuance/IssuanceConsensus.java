@@ -17,14 +17,21 @@
 
 package bisq.core.dao.vote.proposal.compensation.issuance;
 
+import bisq.network.p2p.storage.P2PDataStorage;
+
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.Encryption;
 
+import com.google.common.primitives.UnsignedBytes;
+
 import javax.crypto.SecretKey;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -41,9 +48,24 @@ public class IssuanceConsensus {
         return Encryption.decrypt(encryptedProposalList, secretKey);
     }
 
+    // We group the txIds of the vote reveal txs by the hash of the blind vote list. We use ByteArray as key as byte[]
+    // would use identity hashing and each vote would end up in its own entry.
+    public static Map<P2PDataStorage.ByteArray, List<String>> getTxIdListByVoteListHashMap(Map<String, byte[]> opReturnMap) {
+        Map<P2PDataStorage.ByteArray, List<String>> map = new HashMap<>();
+        opReturnMap.forEach((txId, data) -> {
+            final P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(getBlindVoteListHash(data));
+            map.computeIfAbsent(hash, bytes -> new ArrayList<>()).add(txId);
+        });
+        return map;
+    }
+
     @Nullable
     public static byte[] getMajorityHash(List<IssuanceService.HashWithTxIdList> list) {
-        list.sort(Comparator.comparingInt(o -> o.getTxIds().size()));
+        // The hash with the most txIds is the majority. At a tie all nodes need to pick the same hash, so we use the
+        // lowest hash as tie-breaker as the order of the list depends on the order of a HashMap.
+        list.sort(Comparator.comparingInt((IssuanceService.HashWithTxIdList o) -> o.getTxIds().size()).reversed()
+                .thenComparing(IssuanceService.HashWithTxIdList::getHashOfProposalList,
+                        UnsignedBytes.lexicographicalComparator()));
         return !list.isEmpty() ? list.get(0).getHashOfProposalList() : null;
     }
 
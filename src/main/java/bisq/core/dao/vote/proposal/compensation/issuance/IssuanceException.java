@@ -35,6 +35,10 @@ public class IssuanceException extends Exception {
         this.blindVote = blindVote;
     }
 
+    public IssuanceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
     public IssuanceException(String message) {
         super(message);
     }
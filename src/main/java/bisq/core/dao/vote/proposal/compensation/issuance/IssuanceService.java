@@ -21,6 +21,7 @@ import bisq.core.dao.blockchain.BsqBlockChain;
 import bisq.core.dao.blockchain.ReadableBsqBlockChain;
 import bisq.core.dao.blockchain.WritableBsqBlockChain;
 import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.blockchain.vo.SpentInfo;
 import bisq.core.dao.blockchain.vo.Tx;
 import bisq.core.dao.blockchain.vo.TxOutput;
 import bisq.core.dao.blockchain.vo.TxOutputType;
@@ -44,11 +45,21 @@ import bisq.core.dao.vote.votereveal.RevealedVote;
 import bisq.core.dao.vote.votereveal.VoteRevealConsensus;
 import bisq.core.dao.vote.votereveal.VoteRevealService;
 
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.UserThread;
 import bisq.common.crypto.CryptoException;
 import bisq.common.util.Utilities;
 
 import com.google.protobuf.InvalidProtocolBufferException;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import javax.inject.Inject;
 
 import javafx.collections.FXCollections;
@@ -58,24 +69,34 @@ import javax.crypto.SecretKey;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
+import org.jetbrains.annotations.NotNull;
+
 import javax.annotation.Nullable;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 //TODO case that user misses reveal phase not impl. yet
 
 @Slf4j
 public class IssuanceService implements BsqBlockChain.Listener {
+    private static final int MAX_DECRYPTION_THREADS = 4;
+
     private final BlindVoteService blindVoteService;
     private final VoteRevealService voteRevealService;
     private final ReadableBsqBlockChain readableBsqBlockChain;
@@ -84,6 +105,8 @@ public class IssuanceService implements BsqBlockChain.Listener {
     private final PeriodService periodService;
     @Getter
     private final ObservableList<IssuanceException> issuanceExceptions = FXCollections.observableArrayList();
+    // Bounded pool for decrypting the revealed votes
+    private final ListeningExecutorService decryptionExecutor;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -103,6 +126,11 @@ public class IssuanceService implements BsqBlockChain.Listener {
         this.writableBsqBlockChain = writableBsqBlockChain;
         this.daoParamService = daoParamService;
         this.periodService = periodService;
+
+        final int numThreads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_DECRYPTION_THREADS));
+        // We need an unbounded queue as we submit one task per revealed vote
+        decryptionExecutor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(numThreads,
+                new ThreadFactoryBuilder().setNameFormat("DecryptRevealedVotes-%d").setDaemon(true).build()));
     }
 
 
@@ -115,6 +143,7 @@ public class IssuanceService implements BsqBlockChain.Listener {
     }
 
     public void shutDown() {
+        decryptionExecutor.shutdownNow();
     }
 
     @Override
@@ -123,7 +152,7 @@ public class IssuanceService implements BsqBlockChain.Listener {
             // A phase change is triggered by a new block but we need to wait for the parser to complete
             //TODO use handler only triggered at end of parsing. -> Refactor bsqBlockChain and BsqNode handlers
             log.info("blockHeight " + bsqBlock.getHeight());
-            applyVoteResult();
+            applyVoteResult(bsqBlock.getHeight());
         }
     }
 
@@ -132,7 +161,7 @@ public class IssuanceService implements BsqBlockChain.Listener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void applyVoteResult() {
+    private void applyVoteResult(int blockHeight) {
         // We make a map with txIds of VoteReveal TxOutputs as key and the opReturn data as value (containing secret key
         // and hash of proposal list)
         Map<String, byte[]> opReturnByVoteRevealTxIdMap = getOpReturnByTxIdMap();
@@ -141,7 +170,8 @@ public class IssuanceService implements BsqBlockChain.Listener {
             // of txIds as value. That map is used for calculating the majority of the blind vote lists. If there are
             // conflicting versions due the eventually consistency of the P2P network (it might be that some blind votes do
             // not arrive at all voters) we will only consider the majority data view.
-            Map<byte[], List<String>> txIdListMap = getTxIdListByVoteListHashMap(opReturnByVoteRevealTxIdMap);
+            Map<P2PDataStorage.ByteArray, List<String>> txIdListMap =
+                    IssuanceConsensus.getTxIdListByVoteListHashMap(opReturnByVoteRevealTxIdMap);
 
             // We make a map with the VoteReveal TxId as key and the secret key decoded from the opReturn data where the
             // voter has revealed the secret key.
@@ -152,27 +182,39 @@ public class IssuanceService implements BsqBlockChain.Listener {
             // this is used to connect those transactions.
             Set<BlindVoteWithRevealTxId> blindVoteWithRevealTxIdSet = getBlindVoteWithRevealTxIdSet();
 
-            // We have now all data prepared required to get the decrypted vote data so we can calculate the result
-            Set<RevealedVote> revealedVotes = getRevealedVotes(blindVoteWithRevealTxIdSet, secretKeysByTxIdMap);
+            // We have now all data prepared required to get the decrypted vote data so we can calculate the result.
+            // The votes get decrypted on the decryptionExecutor and the result gets applied on the UserThread once all
+            // votes are processed. If the blocks got reverted in the meantime we must not apply the result.
+            final int reOrgCount = readableBsqBlockChain.getState().getReOrgCount();
+            requestRevealedVotes(blindVoteWithRevealTxIdSet, secretKeysByTxIdMap, revealedVotes -> {
+                if (readableBsqBlockChain.getState().getReOrgCount() == reOrgCount)
+                    applyRevealedVotes(revealedVotes, txIdListMap, blockHeight);
+                else
+                    log.warn("Blocks got reverted while we processed the revealed votes. " +
+                            "We don't apply the vote result of block {}.", blockHeight);
+            });
+        } else {
+            log.info("There have not been any votes in that cycle.");
+        }
+    }
 
-            byte[] majorityVoteListHash = getMajorityVoteListHashByTxIdMap(txIdListMap);
+    private void applyRevealedVotes(Set<RevealedVote> revealedVotes,
+                                    Map<P2PDataStorage.ByteArray, List<String>> txIdListMap,
+                                    int blockHeight) {
+        byte[] majorityVoteListHash = getMajorityVoteListHashByTxIdMap(txIdListMap);
 
-            if (majorityVoteListHash != null) {
-                if (isBlindVoteListMatchingMajority(majorityVoteListHash)) {
-                    Map<ProposalPayload, List<VoteResultWithStake>> resultListByProposalPayloadMap = getResultListByProposalPayloadMap(revealedVotes);
-                    processAllVoteResults(resultListByProposalPayloadMap, daoParamService, writableBsqBlockChain, readableBsqBlockChain);
-                    log.info("processAllVoteResults completed");
-                } else {
-                    log.warn("Our list of received blind votes do not match the list from the majority of voters.");
-                    // TODO request missing blind votes
-                }
+        if (majorityVoteListHash != null) {
+            if (isBlindVoteListMatchingMajority(majorityVoteListHash)) {
+                Map<ProposalPayload, List<VoteResultWithStake>> resultListByProposalPayloadMap = getResultListByProposalPayloadMap(revealedVotes);
+                processAllVoteResults(resultListByProposalPayloadMap, daoParamService, writableBsqBlockChain, readableBsqBlockChain, blockHeight);
+                log.info("processAllVoteResults completed");
             } else {
-                //TODO throw exception as it is likely not a valid option
-                log.warn("majorityVoteListHash is null");
+                log.warn("Our list of received blind votes do not match the list from the majority of voters.");
+                // TODO request missing blind votes
             }
-
         } else {
-            log.info("There have not been any votes in that cycle.");
+            //TODO throw exception as it is likely not a valid option
+            log.warn("majorityVoteListHash is null");
         }
     }
 
@@ -185,16 +227,6 @@ public class IssuanceService implements BsqBlockChain.Listener {
         return opReturnHashesByTxIdMap;
     }
 
-    private Map<byte[], List<String>> getTxIdListByVoteListHashMap(Map<String, byte[]> opReturnMap) {
-        Map<byte[], List<String>> map = new HashMap<>();
-        opReturnMap.forEach((txId, data) -> {
-            final byte[] hash = IssuanceConsensus.getBlindVoteListHash(data);
-            map.computeIfAbsent(hash, bytes -> new ArrayList<>());
-            map.get(hash).add(txId); // We add to each of the blindVoteList hashes the txId of the voteReveal tx
-        });
-        return map;
-    }
-
     private Map<String, SecretKey> getSecretsKeyByTxIdMap(Map<String, byte[]> opReturnMap) {
         Map<String, SecretKey> map = new HashMap<>();
         opReturnMap.forEach((key, value) -> map.put(key, IssuanceConsensus.getSecretKey(value)));
@@ -225,66 +257,105 @@ public class IssuanceService implements BsqBlockChain.Listener {
 
     // Finds txId of voteReveal tx which has its first input connected to the blind vote tx's first output for
     // transferring the stake.
+    // The spentInfo of the stake output is set by the parser when the output gets spent, so we can look up the
+    // spending tx directly instead of iterating all txs.
     private Optional<String> getRevealTxIdForBlindVoteTx(String blindVoteTxId) {
-        Optional<String> optionalBlindVoteStakeTxOutputId = readableBsqBlockChain.getTx(blindVoteTxId)
+        return readableBsqBlockChain.getTx(blindVoteTxId)
                 .map(Tx::getOutputs)
                 .filter(outputs -> !outputs.isEmpty())
                 .map(outputs -> outputs.get(0))
-                .map(TxOutput::getId);
-
-        if (optionalBlindVoteStakeTxOutputId.isPresent()) {
-            String blindVoteStakeTxOutputId = optionalBlindVoteStakeTxOutputId.get();
-            return readableBsqBlockChain.getTxMap().values().stream()
-                    .filter(tx -> tx.getTxType() == TxType.VOTE_REVEAL)
-                    .map(tx -> {
-                        if (!tx.getInputs().isEmpty()) {
-                            TxOutput connectedTxOutput = tx.getInputs().get(0).getConnectedTxOutput();
-                            if (connectedTxOutput != null) {
-                                if (connectedTxOutput.getId().equals(blindVoteStakeTxOutputId))
-                                    return tx.getId();
-                            }
-                        }
-                        return null;
-                    })
-                    .filter(Objects::nonNull)
-                    .findAny();
-        } else {
-            return Optional.empty();
-        }
+                .map(TxOutput::getSpentInfo)
+                .filter(spentInfo -> spentInfo.getInputIndex() == 0)
+                .map(SpentInfo::getTxId)
+                .filter(spendingTxId -> readableBsqBlockChain.getTxType(spendingTxId)
+                        .filter(txType -> txType == TxType.VOTE_REVEAL)
+                        .isPresent());
     }
 
-    private Set<RevealedVote> getRevealedVotes(Set<BlindVoteWithRevealTxId> blindVoteWithRevealTxIdSet,
-                                               Map<String, SecretKey> secretKeysByTxIdMap) {
-        return blindVoteWithRevealTxIdSet.stream()
+    // Decryption and parsing of the proposal lists are independent for each vote, so we do it in parallel. We process
+    // the votes sorted by the reveal txId and collect the results in that order, so the result is deterministic.
+    // If the processing itself (not of a single vote) failed we don't call the resultHandler as we cannot tally
+    // without all votes.
+    private void requestRevealedVotes(Set<BlindVoteWithRevealTxId> blindVoteWithRevealTxIdSet,
+                                      Map<String, SecretKey> secretKeysByTxIdMap,
+                                      Consumer<Set<RevealedVote>> resultHandler) {
+        long startTs = System.currentTimeMillis();
+        List<ListenableFuture<DecryptedVote>> futures = blindVoteWithRevealTxIdSet.stream()
+                .sorted(Comparator.comparing(BlindVoteWithRevealTxId::getRevealTxId))
                 .map(blindVoteWithRevealTxId -> {
-                    final BlindVote blindVote = blindVoteWithRevealTxId.getBlindVote();
-                    final byte[] encryptedProposalList = blindVote.getEncryptedProposalList();
                     final String revealTxId = blindVoteWithRevealTxId.getRevealTxId();
                     if (secretKeysByTxIdMap.containsKey(revealTxId)) {
                         final SecretKey secretKey = secretKeysByTxIdMap.get(revealTxId);
-                        try {
-                            final byte[] decrypted = IssuanceConsensus.decryptProposalList(encryptedProposalList, secretKey);
-                            ProposalList proposalList = ProposalList.getProposalListFromBytes(decrypted);
-                            return new RevealedVote(proposalList, blindVote);
-                        } catch (CryptoException | InvalidProtocolBufferException e) {
-                            log.error(e.toString());
-                            e.printStackTrace();
-                            issuanceExceptions.add(new IssuanceException("Error at getRevealedVotes", e, blindVote));
-                            return null;
-                        }
+                        return decryptionExecutor.submit(() -> decryptVote(blindVoteWithRevealTxId.getBlindVote(), secretKey));
                     } else {
                         log.warn("We don't have the secret key in our secretKeysByTxIdMap");
                         return null;
                     }
                 })
                 .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toList());
+
+        // allAsList keeps the order of the input futures
+        Futures.addCallback(Futures.allAsList(futures), new FutureCallback<List<DecryptedVote>>() {
+            @Override
+            public void onSuccess(@Nullable List<DecryptedVote> decryptedVotes) {
+                UserThread.execute(() -> {
+                    checkNotNull(decryptedVotes, "decryptedVotes must not be null at requestRevealedVotes");
+                    Set<RevealedVote> revealedVotes = new LinkedHashSet<>();
+                    long decryptionTime = 0;
+                    long parsingTime = 0;
+                    for (DecryptedVote decryptedVote : decryptedVotes) {
+                        decryptionTime += decryptedVote.getDecryptionTime();
+                        parsingTime += decryptedVote.getParsingTime();
+                        if (decryptedVote.getRevealedVote() != null)
+                            revealedVotes.add(decryptedVote.getRevealedVote());
+                        // We add the exceptions at the UserThread as issuanceExceptions is an ObservableList
+                        if (decryptedVote.getIssuanceException() != null)
+                            issuanceExceptions.add(decryptedVote.getIssuanceException());
+                    }
+                    log.info("requestRevealedVotes: Processing {} votes took {} ms. Accumulated time for decryption: " +
+                                    "{} ms, for parsing: {} ms",
+                            decryptedVotes.size(), System.currentTimeMillis() - startTs,
+                            decryptionTime / 1_000_000, parsingTime / 1_000_000);
+                    resultHandler.accept(revealedVotes);
+                });
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                futures.forEach(future -> future.cancel(true));
+                UserThread.execute(() -> {
+                    final IssuanceException issuanceException =
+                            new IssuanceException("Processing the revealed votes failed", throwable);
+                    log.error("We abort applying the vote result. " + issuanceException.toString());
+                    throwable.printStackTrace();
+                    issuanceExceptions.add(issuanceException);
+                });
+            }
+        });
+    }
+
+    // Called from the decryptionExecutor threads
+    private static DecryptedVote decryptVote(BlindVote blindVote, SecretKey secretKey) {
+        long ts = System.nanoTime();
+        try {
+            final byte[] decrypted = IssuanceConsensus.decryptProposalList(blindVote.getEncryptedProposalList(), secretKey);
+            final long decryptionTime = System.nanoTime() - ts;
+            ts = System.nanoTime();
+            ProposalList proposalList = ProposalList.getProposalListFromBytes(decrypted);
+            return new DecryptedVote(new RevealedVote(proposalList, blindVote), null, decryptionTime, System.nanoTime() - ts);
+        } catch (CryptoException | InvalidProtocolBufferException e) {
+            log.error(e.toString());
+            e.printStackTrace();
+            return new DecryptedVote(null, new IssuanceException("Error at getRevealedVotes", e, blindVote),
+                    System.nanoTime() - ts, 0);
+        }
     }
 
     @Nullable
-    private byte[] getMajorityVoteListHashByTxIdMap(Map<byte[], List<String>> txIdListMap) {
+    private byte[] getMajorityVoteListHashByTxIdMap(Map<P2PDataStorage.ByteArray, List<String>> txIdListMap) {
         List<HashWithTxIdList> list = new ArrayList<>();
-        txIdListMap.forEach((key, value) -> list.add(new HashWithTxIdList(key, value)));
+        txIdListMap.forEach((key, value) -> list.add(new HashWithTxIdList(key.bytes, value)));
         return IssuanceConsensus.getMajorityHash(list);
     }
 
@@ -311,7 +382,8 @@ public class IssuanceService implements BsqBlockChain.Listener {
     private void processAllVoteResults(Map<ProposalPayload, List<VoteResultWithStake>> map,
                                        DaoParamService daoParamService,
                                        WritableBsqBlockChain writableBsqBlockChain,
-                                       ReadableBsqBlockChain readableBsqBlockChain) {
+                                       ReadableBsqBlockChain readableBsqBlockChain,
+                                       int blockHeight) {
         map.forEach((proposalPayload, voteResultsWithStake) -> {
             VoteResultPerProposal voteResultPerProposal = getDetailResult(voteResultsWithStake);
             long totalStake = voteResultPerProposal.getStakeOfAcceptedVotes() + voteResultPerProposal.getStakeOfRejectedVotes();
@@ -325,7 +397,7 @@ public class IssuanceService implements BsqBlockChain.Listener {
                 log.info("reachedThreshold {} %", reachedThreshold / 100D);
                 log.info("requiredVoteThreshold {} %", requiredVoteThreshold / 100D);
                 if (reachedThreshold >= requiredVoteThreshold) {
-                    processAcceptedCompletedVoteResult(proposalPayload, writableBsqBlockChain, readableBsqBlockChain);
+                    processAcceptedCompletedVoteResult(proposalPayload, writableBsqBlockChain, readableBsqBlockChain, blockHeight);
                 } else {
                     log.warn("We did not reach the quorum. reachedThreshold={} %, requiredVoteThreshold={} %", reachedThreshold / 100D, requiredVoteThreshold / 100D);
                 }
@@ -394,9 +466,10 @@ public class IssuanceService implements BsqBlockChain.Listener {
 
     private void processAcceptedCompletedVoteResult(ProposalPayload proposalPayload,
                                                     WritableBsqBlockChain writableBsqBlockChain,
-                                                    ReadableBsqBlockChain readableBsqBlockChain) {
+                                                    ReadableBsqBlockChain readableBsqBlockChain,
+                                                    int blockHeight) {
         if (proposalPayload instanceof CompensationRequestPayload) {
-            handleCompensationRequestPayloadResult(proposalPayload, writableBsqBlockChain, readableBsqBlockChain);
+            handleCompensationRequestPayloadResult(proposalPayload, writableBsqBlockChain, readableBsqBlockChain, blockHeight);
         } else if (proposalPayload instanceof GenericProposalPayload) {
             //TODO impl
         } else if (proposalPayload instanceof ChangeParamProposalPayload) {
@@ -408,7 +481,8 @@ public class IssuanceService implements BsqBlockChain.Listener {
 
     private void handleCompensationRequestPayloadResult(ProposalPayload proposalPayload,
                                                         WritableBsqBlockChain writableBsqBlockChain,
-                                                        ReadableBsqBlockChain readableBsqBlockChain) {
+                                                        ReadableBsqBlockChain readableBsqBlockChain,
+                                                        int blockHeight) {
         Map<String, TxOutput> txOutputsByTxIdMap = new HashMap<>();
         final Set<TxOutput> compReqIssuanceTxOutputs = readableBsqBlockChain.getCompReqIssuanceTxOutputs();
         compReqIssuanceTxOutputs.stream()
@@ -419,7 +493,7 @@ public class IssuanceService implements BsqBlockChain.Listener {
         final String txId = proposalPayload.getTxId();
         if (txOutputsByTxIdMap.containsKey(txId)) {
             final TxOutput txOutput = txOutputsByTxIdMap.get(txId);
-            writableBsqBlockChain.issueBsq(txOutput);
+            writableBsqBlockChain.issueBsq(txOutput, blockHeight);
             log.info("################################################################################");
             log.info("## We issued new BSQ to txId {} for proposalPayload with UID {}", txId, proposalPayload.getUid());
             log.info("## txOutput {}, proposalPayload {}", txOutput, proposalPayload);
@@ -447,7 +521,7 @@ public class IssuanceService implements BsqBlockChain.Listener {
     }
 
     @Value
-    public class HashWithTxIdList {
+    public static class HashWithTxIdList {
         private final byte[] hashOfProposalList;
         private final List<String> txIds;
 
@@ -457,6 +531,24 @@ public class IssuanceService implements BsqBlockChain.Listener {
         }
     }
 
+    @Value
+    private static class DecryptedVote {
+        @Nullable
+        private final RevealedVote revealedVote;
+        @Nullable
+        private final IssuanceException issuanceException;
+        private final long decryptionTime;
+        private final long parsingTime;
+
+        DecryptedVote(@Nullable RevealedVote revealedVote, @Nullable IssuanceException issuanceException,
+                      long decryptionTime, long parsingTime) {
+            this.revealedVote = revealedVote;
+            this.issuanceException = issuanceException;
+            this.decryptionTime = decryptionTime;
+            this.parsingTime = parsingTime;
+        }
+    }
+
     @Value
     private static class VoteResultPerProposal {
         private final long stakeOfAcceptedVotes;
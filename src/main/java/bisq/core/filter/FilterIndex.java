@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Hash based views of the banned data of a Filter. Created once per received filter so the checks for each offer or
+ * message do not need to iterate over the lists of the filter.
+ */
+@Getter
+public class FilterIndex {
+    private final Filter filter;
+    private final Set<String> bannedOfferIds;
+    private final Set<String> bannedNodeAddresses;
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethods;
+    // Keeps the order of the filter for each payment method
+    private final Map<String, List<PaymentAccountFilter>> bannedPaymentAccountsByPaymentMethodId;
+
+    public FilterIndex(Filter filter) {
+        this.filter = filter;
+        bannedOfferIds = toSet(filter.getBannedOfferIds());
+        bannedNodeAddresses = toSet(filter.getBannedNodeAddress());
+        bannedCurrencies = toSet(filter.getBannedCurrencies());
+        bannedPaymentMethods = toSet(filter.getBannedPaymentMethods());
+
+        final Map<String, List<PaymentAccountFilter>> map = new HashMap<>();
+        if (filter.getBannedPaymentAccounts() != null) {
+            filter.getBannedPaymentAccounts().forEach(paymentAccountFilter ->
+                    map.computeIfAbsent(paymentAccountFilter.getPaymentMethodId(), k -> new ArrayList<>())
+                            .add(paymentAccountFilter));
+        }
+        bannedPaymentAccountsByPaymentMethodId = Collections.unmodifiableMap(map);
+    }
+
+    public List<PaymentAccountFilter> getBannedPaymentAccounts(String paymentMethodId) {
+        return bannedPaymentAccountsByPaymentMethodId.getOrDefault(paymentMethodId, Collections.emptyList());
+    }
+
+    private static Set<String> toSet(@Nullable List<String> list) {
+        return list != null ? Collections.unmodifiableSet(new HashSet<>(list)) : Collections.emptySet();
+    }
+}
@@ -20,6 +20,7 @@ package bisq.core.filter;
 import bisq.core.app.AppOptionKeys;
 import bisq.core.app.BisqEnvironment;
 import bisq.core.btc.BitcoinNodes;
+import bisq.core.crypto.VerifiedSignatureCache;
 import bisq.core.payment.payload.PaymentAccountPayload;
 import bisq.core.payment.payload.PaymentMethod;
 import bisq.core.provider.ProvidersRepository;
@@ -50,6 +51,8 @@ import javafx.beans.property.SimpleObjectProperty;
 
 import java.security.SignatureException;
 
+import java.nio.charset.StandardCharsets;
+
 import java.math.BigInteger;
 
 import java.util.ArrayList;
@@ -94,6 +97,8 @@ public class FilterManager {
 
     private final String pubKeyAsHex;
     private ECKey filterSigningKey;
+    @Nullable
+    private volatile FilterIndex filterIndex;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -293,13 +298,21 @@ public class FilterManager {
     }
 
     private boolean verifySignature(Filter filter) {
-        try {
-            ECKey.fromPublicOnly(HEX.decode(pubKeyAsHex)).verifyMessage(getHexFromData(filter), filter.getSignatureAsBase64());
-            return true;
-        } catch (SignatureException e) {
-            log.warn("verifySignature failed");
-            return false;
-        }
+        final byte[] pubKey = HEX.decode(pubKeyAsHex);
+        final String hexFromData = getHexFromData(filter);
+        final String signatureAsBase64 = filter.getSignatureAsBase64();
+        return VerifiedSignatureCache.verify(pubKey,
+                hexFromData.getBytes(StandardCharsets.UTF_8),
+                signatureAsBase64.getBytes(StandardCharsets.UTF_8),
+                () -> {
+                    try {
+                        ECKey.fromPublicOnly(pubKey).verifyMessage(hexFromData, signatureAsBase64);
+                        return true;
+                    } catch (SignatureException e) {
+                        log.warn("verifySignature failed");
+                        return false;
+                    }
+                });
     }
 
     // We dont use full data from Filter as we are only interested in the filter data not the sig and keys
@@ -323,51 +336,59 @@ public class FilterManager {
     }
 
     public boolean isCurrencyBanned(String currencyCode) {
-        return getFilter() != null &&
-                getFilter().getBannedCurrencies() != null &&
-                getFilter().getBannedCurrencies().stream()
-                        .anyMatch(e -> e.equals(currencyCode));
+        final FilterIndex filterIndex = getFilterIndex();
+        return filterIndex != null &&
+                filterIndex.getBannedCurrencies().contains(currencyCode);
     }
 
     public boolean isPaymentMethodBanned(PaymentMethod paymentMethod) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentMethods() != null &&
-                getFilter().getBannedPaymentMethods().stream()
-                        .anyMatch(e -> e.equals(paymentMethod.getId()));
+        final FilterIndex filterIndex = getFilterIndex();
+        return filterIndex != null &&
+                filterIndex.getBannedPaymentMethods().contains(paymentMethod.getId());
     }
 
     public boolean isOfferIdBanned(String offerId) {
-        return getFilter() != null &&
-                getFilter().getBannedOfferIds().stream()
-                        .anyMatch(e -> e.equals(offerId));
+        final FilterIndex filterIndex = getFilterIndex();
+        return filterIndex != null &&
+                filterIndex.getBannedOfferIds().contains(offerId);
     }
 
     public boolean isNodeAddressBanned(NodeAddress nodeAddress) {
-        return getFilter() != null &&
-                getFilter().getBannedNodeAddress().stream()
-                        .anyMatch(e -> e.equals(nodeAddress.getFullAddress()));
+        final FilterIndex filterIndex = getFilterIndex();
+        return filterIndex != null &&
+                filterIndex.getBannedNodeAddresses().contains(nodeAddress.getFullAddress());
     }
 
     public boolean isPeersPaymentAccountDataAreBanned(PaymentAccountPayload paymentAccountPayload,
                                                       PaymentAccountFilter[] appliedPaymentAccountFilter) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentAccounts().stream()
+        final FilterIndex filterIndex = getFilterIndex();
+        return filterIndex != null &&
+                filterIndex.getBannedPaymentAccounts(paymentAccountPayload.getPaymentMethodId()).stream()
                         .anyMatch(paymentAccountFilter -> {
-                            final boolean samePaymentMethodId = paymentAccountFilter.getPaymentMethodId().equals(
-                                    paymentAccountPayload.getPaymentMethodId());
-                            if (samePaymentMethodId) {
-                                try {
-                                    Method method = paymentAccountPayload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
-                                    String result = (String) method.invoke(paymentAccountPayload);
-                                    appliedPaymentAccountFilter[0] = paymentAccountFilter;
-                                    return result.equals(paymentAccountFilter.getValue());
-                                } catch (Throwable e) {
-                                    log.error(e.getMessage());
-                                    return false;
-                                }
-                            } else {
+                            try {
+                                Method method = paymentAccountPayload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
+                                String result = (String) method.invoke(paymentAccountPayload);
+                                appliedPaymentAccountFilter[0] = paymentAccountFilter;
+                                return result.equals(paymentAccountFilter.getValue());
+                            } catch (Throwable e) {
+                                log.error(e.getMessage());
                                 return false;
                             }
                         });
     }
+
+    // The index gets created lazily for the current filter and is replaced when the filter changes
+    @Nullable
+    public FilterIndex getFilterIndex() {
+        final Filter filter = getFilter();
+        if (filter == null)
+            return null;
+
+        FilterIndex index = filterIndex;
+        if (index == null || index.getFilter() != filter) {
+            index = new FilterIndex(filter);
+            filterIndex = index;
+        }
+        return index;
+    }
 }
@@ -0,0 +1,147 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.payment;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+
+/**
+ * Open addressing hash table for the AccountAgeWitness data. Keys (the 20 byte hashes) and dates are stored in flat
+ * arrays so an entry costs 28 bytes (plus the unused slots) instead of a map entry, a ByteArray wrapper and the
+ * witness object.
+ * As the keys are already cryptographic hashes we use their first 4 bytes as hash code.
+ * Access is synchronized as the witnesses might get added from the P2P network thread.
+ */
+class AccountAgeWitnessIndex {
+    static final int HASH_LENGTH = 20;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    private byte[] hashes;
+    private long[] dates;
+    private BitSet usedSlots;
+    private int capacity;
+    private int size;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    AccountAgeWitnessIndex() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns false if we have the hash already or if it has not the expected length
+    synchronized boolean putIfAbsent(AccountAgeWitness accountAgeWitness) {
+        final byte[] hash = accountAgeWitness.getHash();
+        if (hash.length != HASH_LENGTH || findSlot(hash) >= 0)
+            return false;
+
+        if (size + 1 > capacity * MAX_LOAD_FACTOR)
+            resize(capacity * 2);
+
+        insert(hash, accountAgeWitness.getDate());
+        size++;
+        return true;
+    }
+
+    synchronized boolean contains(byte[] hash) {
+        return hash.length == HASH_LENGTH && findSlot(hash) >= 0;
+    }
+
+    synchronized Optional<AccountAgeWitness> get(byte[] hash) {
+        if (hash.length != HASH_LENGTH)
+            return Optional.empty();
+
+        final int slot = findSlot(hash);
+        if (slot < 0)
+            return Optional.empty();
+
+        return Optional.of(new AccountAgeWitness(Arrays.copyOfRange(hashes, slot * HASH_LENGTH, (slot + 1) * HASH_LENGTH),
+                dates[slot]));
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        hashes = new byte[capacity * HASH_LENGTH];
+        dates = new long[capacity];
+        usedSlots = new BitSet(capacity);
+    }
+
+    private void resize(int newCapacity) {
+        final byte[] oldHashes = hashes;
+        final long[] oldDates = dates;
+        final BitSet oldUsedSlots = usedSlots;
+        allocate(newCapacity);
+        for (int slot = oldUsedSlots.nextSetBit(0); slot >= 0; slot = oldUsedSlots.nextSetBit(slot + 1)) {
+            insert(Arrays.copyOfRange(oldHashes, slot * HASH_LENGTH, (slot + 1) * HASH_LENGTH), oldDates[slot]);
+        }
+    }
+
+    private void insert(byte[] hash, long date) {
+        int slot = getStartSlot(hash);
+        while (usedSlots.get(slot)) {
+            slot = (slot + 1) & (capacity - 1);
+        }
+        System.arraycopy(hash, 0, hashes, slot * HASH_LENGTH, HASH_LENGTH);
+        dates[slot] = date;
+        usedSlots.set(slot);
+    }
+
+    // Returns -1 if not found
+    private int findSlot(byte[] hash) {
+        int slot = getStartSlot(hash);
+        while (usedSlots.get(slot)) {
+            if (isEqualAtSlot(hash, slot))
+                return slot;
+            slot = (slot + 1) & (capacity - 1);
+        }
+        return -1;
+    }
+
+    private boolean isEqualAtSlot(byte[] hash, int slot) {
+        final int offset = slot * HASH_LENGTH;
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            if (hashes[offset + i] != hash[i])
+                return false;
+        }
+        return true;
+    }
+
+    // Capacity is always a power of 2
+    private int getStartSlot(byte[] hash) {
+        final int hashCode = ((hash[0] & 0xff) << 24) | ((hash[1] & 0xff) << 16) | ((hash[2] & 0xff) << 8) | (hash[3] & 0xff);
+        return hashCode & (capacity - 1);
+    }
+}
@@ -26,7 +26,6 @@ import bisq.core.user.User;
 
 import bisq.network.p2p.BootstrapListener;
 import bisq.network.p2p.P2PService;
-import bisq.network.p2p.storage.P2PDataStorage;
 
 import bisq.common.UserThread;
 import bisq.common.crypto.CryptoException;
@@ -42,15 +41,19 @@ import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 
+import com.google.common.annotations.VisibleForTesting;
+
+import javafx.collections.SetChangeListener;
+
 import java.security.PublicKey;
 
 import java.util.Arrays;
 import java.util.Date;
 import java.util.GregorianCalendar;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import lombok.extern.slf4j.Slf4j;
@@ -74,7 +77,12 @@ public class AccountAgeWitnessService {
     private final P2PService p2PService;
     private final User user;
 
-    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new HashMap<>();
+    // Compact index as it contains all witnesses of the network
+    private final AccountAgeWitnessIndex accountAgeWitnessIndex = new AccountAgeWitnessIndex();
+    // Key is the payment account id
+    private final Map<String, byte[]> myWitnessHashCache = new ConcurrentHashMap<>();
+    // Key is the payment account id and the currency code
+    private final Map<String, MyTradeLimit> myTradeLimitCache = new ConcurrentHashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -95,6 +103,15 @@ public class AccountAgeWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void onAllServicesInitialized() {
+        // The payload and the salt of an account can be edited until it got added, so we invalidate the cached
+        // witness at adding and removing.
+        user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) change -> {
+            if (change.wasAdded())
+                invalidateMyWitness(change.getElementAdded().getId());
+            if (change.wasRemoved())
+                invalidateMyWitness(change.getElementRemoved().getId());
+        });
+
         p2PService.getP2PDataStorage().addPersistableNetworkPayloadMapListener(payload -> {
             if (payload instanceof AccountAgeWitness)
                 addToMap((AccountAgeWitness) payload);
@@ -133,8 +150,7 @@ public class AccountAgeWitnessService {
 
     private void addToMap(AccountAgeWitness accountAgeWitness) {
         log.debug("addToMap hash=" + Utilities.bytesAsHexString(accountAgeWitness.getHash()));
-        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray()))
-            accountAgeWitnessMap.put(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
+        accountAgeWitnessIndex.putIfAbsent(accountAgeWitness);
     }
 
 
@@ -144,7 +160,7 @@ public class AccountAgeWitnessService {
 
     public void publishMyAccountAgeWitness(PaymentAccountPayload paymentAccountPayload) {
         AccountAgeWitness accountAgeWitness = getMyWitness(paymentAccountPayload);
-        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray()))
+        if (!accountAgeWitnessIndex.contains(accountAgeWitness.getHash()))
             p2PService.addPersistableNetworkPayload(accountAgeWitness, false);
     }
 
@@ -168,13 +184,11 @@ public class AccountAgeWitnessService {
     }
 
     public Optional<AccountAgeWitness> getWitnessByHash(byte[] hash) {
-        P2PDataStorage.ByteArray hashAsByteArray = new P2PDataStorage.ByteArray(hash);
+        final Optional<AccountAgeWitness> accountAgeWitnessOptional = accountAgeWitnessIndex.get(hash);
+        if (!accountAgeWitnessOptional.isPresent())
+            log.debug("hash not found in accountAgeWitnessIndex");
 
-        final boolean containsKey = accountAgeWitnessMap.containsKey(hashAsByteArray);
-        if (!containsKey)
-            log.debug("hash not found in accountAgeWitnessMap");
-
-        return accountAgeWitnessMap.containsKey(hashAsByteArray) ? Optional.of(accountAgeWitnessMap.get(hashAsByteArray)) : Optional.<AccountAgeWitness>empty();
+        return accountAgeWitnessOptional;
     }
 
     public Optional<AccountAgeWitness> getWitnessByHashAsHex(String hashAsHex) {
@@ -257,15 +271,27 @@ public class AccountAgeWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public AccountAgeWitness getMyWitness(PaymentAccountPayload paymentAccountPayload) {
-        final Optional<AccountAgeWitness> accountAgeWitnessOptional = findWitness(paymentAccountPayload, keyRing.getPubKeyRing());
+        byte[] hash = getMyWitnessHash(paymentAccountPayload);
+        final Optional<AccountAgeWitness> accountAgeWitnessOptional = getWitnessByHash(hash);
         if (accountAgeWitnessOptional.isPresent())
             return accountAgeWitnessOptional.get();
         else
-            return getNewWitness(paymentAccountPayload, keyRing.getPubKeyRing());
+            return new AccountAgeWitness(hash, new Date().getTime());
     }
 
+    // The hash only depends on the account input data, the salt and our signature pubKey, so we keep it per account
+    // until invalidateMyWitness gets called for it.
     public byte[] getMyWitnessHash(PaymentAccountPayload paymentAccountPayload) {
-        return getMyWitness(paymentAccountPayload).getHash();
+        return myWitnessHashCache.computeIfAbsent(paymentAccountPayload.getId(), id ->
+                Hash.getSha256Ripemd160hash(Utilities.concatenateByteArrays(getAccountInputDataWithSalt(paymentAccountPayload),
+                        keyRing.getPubKeyRing().getSignaturePubKeyBytes())));
+    }
+
+    // Needs to be called if the payload or the salt of a payment account got changed. Accounts which get added to or
+    // removed from the user are invalidated by the service itself.
+    public void invalidateMyWitness(String paymentAccountId) {
+        myWitnessHashCache.remove(paymentAccountId);
+        myTradeLimitCache.keySet().removeIf(key -> key.startsWith(paymentAccountId + "_"));
     }
 
     public String getMyWitnessHashAsHex(PaymentAccountPayload paymentAccountPayload) {
@@ -276,8 +302,61 @@ public class AccountAgeWitnessService {
         return getAccountAge(getMyWitness(paymentAccountPayload), new Date());
     }
 
+    // The limit only changes when the account age category or the fade in phase changes, so we reuse it until the
+    // next of those dates.
     public long getMyTradeLimit(PaymentAccount paymentAccount, String currencyCode) {
-        return getTradeLimit(paymentAccount.getPaymentMethod().getMaxTradeLimitAsCoin(currencyCode), currencyCode, Optional.of(getMyWitness(paymentAccount.getPaymentAccountPayload())), new Date());
+        AccountAgeWitness accountAgeWitness = getMyWitness(paymentAccount.getPaymentAccountPayload());
+        Coin maxTradeLimit = paymentAccount.getPaymentMethod().getMaxTradeLimitAsCoin(currencyCode);
+        Date now = new Date();
+        String key = paymentAccount.getId() + "_" + currencyCode;
+        MyTradeLimit myTradeLimit = myTradeLimitCache.get(key);
+        if (myTradeLimit == null || !myTradeLimit.isValid(accountAgeWitness, maxTradeLimit.value, now.getTime())) {
+            long limit = getTradeLimit(maxTradeLimit, currencyCode, Optional.of(accountAgeWitness), now);
+            myTradeLimit = new MyTradeLimit(accountAgeWitness, maxTradeLimit.value, limit,
+                    getTradeLimitValidUntil(accountAgeWitness, now));
+            myTradeLimitCache.put(key, myTradeLimit);
+        }
+        return myTradeLimit.limit;
+    }
+
+    @VisibleForTesting
+    long getTradeLimitValidUntil(AccountAgeWitness accountAgeWitness, Date now) {
+        long[] dates = {
+                accountAgeWitness.getDate() + TimeUnit.DAYS.toMillis(30),
+                accountAgeWitness.getDate() + TimeUnit.DAYS.toMillis(60),
+                FIRST_PHASE.getTime(),
+                SECOND_PHASE.getTime(),
+                FULL_ACTIVATION.getTime()
+        };
+        long validUntil = Long.MAX_VALUE;
+        for (long date : dates) {
+            if (date > now.getTime())
+                validUntil = Math.min(validUntil, date);
+        }
+        return validUntil;
+    }
+
+    private static final class MyTradeLimit {
+        private final byte[] witnessHash;
+        private final long witnessDate;
+        private final long maxTradeLimit;
+        private final long limit;
+        private final long validUntil;
+
+        private MyTradeLimit(AccountAgeWitness accountAgeWitness, long maxTradeLimit, long limit, long validUntil) {
+            this.witnessHash = accountAgeWitness.getHash();
+            this.witnessDate = accountAgeWitness.getDate();
+            this.maxTradeLimit = maxTradeLimit;
+            this.limit = limit;
+            this.validUntil = validUntil;
+        }
+
+        private boolean isValid(AccountAgeWitness accountAgeWitness, long maxTradeLimit, long now) {
+            return now < validUntil &&
+                    this.maxTradeLimit == maxTradeLimit &&
+                    witnessDate == accountAgeWitness.getDate() &&
+                    Arrays.equals(witnessHash, accountAgeWitness.getHash());
+        }
     }
 
 
@@ -413,6 +492,7 @@ public class AccountAgeWitnessService {
                             byte[] nonce,
                             byte[] signature,
                             ErrorMessageHandler errorMessageHandler) {
+        // The nonce is fresh per trade, so a cache of verified signatures would never get a hit here
         boolean result;
         try {
             result = Sig.verify(peersPublicKey, nonce, signature);
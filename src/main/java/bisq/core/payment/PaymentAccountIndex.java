@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.payment;
+
+import bisq.core.locale.TradeCurrency;
+import bisq.core.offer.Offer;
+import bisq.core.payment.payload.PaymentMethod;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Our payment accounts indexed by trade currency code and offer payment method id.
+ * An account is listed under each offer payment method it can be compatible with (SEPA and SEPA Instant accounts
+ * accept each other's offers, bank accounts accept same bank and specific banks offers), so the candidates for an
+ * offer are found with one lookup. Only those candidates are checked with the full ReceiptValidator for the country
+ * and bank rules.
+ */
+class PaymentAccountIndex {
+    private final List<PaymentAccount> accounts;
+    private final int[] tradeCurrenciesHashCodes;
+    private final BiFunction<Offer, PaymentAccount, Boolean> validator;
+    private final Map<String, Map<String, List<PaymentAccount>>> accountsByPaymentMethodIdByCurrencyCode = new HashMap<>();
+
+    PaymentAccountIndex(Collection<PaymentAccount> accounts) {
+        this(accounts, PaymentAccountUtil::isPaymentAccountValidForOffer);
+    }
+
+    PaymentAccountIndex(Collection<PaymentAccount> accounts, BiFunction<Offer, PaymentAccount, Boolean> validator) {
+        this.accounts = new ArrayList<>(accounts);
+        this.validator = validator;
+        tradeCurrenciesHashCodes = new int[this.accounts.size()];
+        for (int i = 0; i < this.accounts.size(); i++) {
+            PaymentAccount account = this.accounts.get(i);
+            tradeCurrenciesHashCodes[i] = account.getTradeCurrencies().hashCode();
+            Set<String> paymentMethodIds = getCompatibleOfferPaymentMethodIds(account);
+            for (TradeCurrency tradeCurrency : account.getTradeCurrencies()) {
+                Map<String, List<PaymentAccount>> accountsByPaymentMethodId =
+                        accountsByPaymentMethodIdByCurrencyCode.computeIfAbsent(tradeCurrency.getCode(), k -> new HashMap<>());
+                paymentMethodIds.forEach(paymentMethodId ->
+                        accountsByPaymentMethodId.computeIfAbsent(paymentMethodId, k -> new ArrayList<>()).add(account));
+            }
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The accounts of the user are mutable (currencies can be added or removed) so we compare the instances and the
+    // trade currencies to detect if the index needs to be rebuilt.
+    boolean isBuiltFrom(Collection<PaymentAccount> accounts) {
+        if (accounts.size() != this.accounts.size())
+            return false;
+
+        int i = 0;
+        for (PaymentAccount account : accounts) {
+            if (account != this.accounts.get(i) || account.getTradeCurrencies().hashCode() != tradeCurrenciesHashCodes[i])
+                return false;
+            i++;
+        }
+        return true;
+    }
+
+    boolean isAnyPaymentAccountValidForOffer(Offer offer) {
+        for (PaymentAccount paymentAccount : getCandidates(offer)) {
+            if (validator.apply(offer, paymentAccount))
+                return true;
+        }
+        return false;
+    }
+
+    List<PaymentAccount> getValidPaymentAccounts(Offer offer) {
+        return getCandidates(offer).stream()
+                .filter(paymentAccount -> validator.apply(offer, paymentAccount))
+                .collect(Collectors.toList());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<PaymentAccount> getCandidates(Offer offer) {
+        Map<String, List<PaymentAccount>> accountsByPaymentMethodId = accountsByPaymentMethodIdByCurrencyCode.get(offer.getCurrencyCode());
+        if (accountsByPaymentMethodId == null)
+            return Collections.emptyList();
+
+        List<PaymentAccount> candidates = accountsByPaymentMethodId.get(offer.getPaymentMethod().getId());
+        return candidates != null ? candidates : Collections.emptyList();
+    }
+
+    // Mirrors the rules of ReceiptValidator and ReceiptPredicates for the payment methods of an offer we might accept
+    private static Set<String> getCompatibleOfferPaymentMethodIds(PaymentAccount account) {
+        Set<String> paymentMethodIds = new HashSet<>();
+        paymentMethodIds.add(account.getPaymentMethod().getId());
+        if (account instanceof CountryBasedPaymentAccount) {
+            if (account instanceof SepaAccount || account instanceof SepaInstantAccount) {
+                paymentMethodIds.add(PaymentMethod.SEPA_ID);
+                paymentMethodIds.add(PaymentMethod.SEPA_INSTANT_ID);
+            }
+            if (account instanceof BankAccount) {
+                paymentMethodIds.add(PaymentMethod.SAME_BANK_ID);
+                paymentMethodIds.add(PaymentMethod.SPECIFIC_BANKS_ID);
+            }
+        }
+        return paymentMethodIds;
+    }
+}
@@ -25,25 +25,25 @@ import javafx.collections.ObservableList;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class PaymentAccountUtil {
+    // Those methods are called for each offer in the offer book with the same accounts of the user, so we keep the
+    // index of the last used accounts.
+    @Nullable
+    private static volatile PaymentAccountIndex paymentAccountIndex;
+
     public static boolean isAnyPaymentAccountValidForOffer(Offer offer, Collection<PaymentAccount> paymentAccounts) {
-        for (PaymentAccount paymentAccount : paymentAccounts) {
-            if (isPaymentAccountValidForOffer(offer, paymentAccount))
-                return true;
-        }
-        return false;
+        return getPaymentAccountIndex(paymentAccounts).isAnyPaymentAccountValidForOffer(offer);
     }
 
     public static ObservableList<PaymentAccount> getPossiblePaymentAccounts(Offer offer, Set<PaymentAccount> paymentAccounts) {
         ObservableList<PaymentAccount> result = FXCollections.observableArrayList();
-        result.addAll(paymentAccounts.stream()
-                .filter(paymentAccount -> isPaymentAccountValidForOffer(offer, paymentAccount))
-                .collect(Collectors.toList()));
+        result.addAll(getPaymentAccountIndex(paymentAccounts).getValidPaymentAccounts(offer));
         return result;
     }
 
@@ -65,4 +65,13 @@ public class PaymentAccountUtil {
         PaymentAccounts accounts = new PaymentAccounts(paymentAccounts, service);
         return Optional.ofNullable(accounts.getOldestPaymentAccountForOffer(offer));
     }
+
+    private static PaymentAccountIndex getPaymentAccountIndex(Collection<PaymentAccount> paymentAccounts) {
+        PaymentAccountIndex index = paymentAccountIndex;
+        if (index == null || !index.isBuiltFrom(paymentAccounts)) {
+            index = new PaymentAccountIndex(paymentAccounts);
+            paymentAccountIndex = index;
+        }
+        return index;
+    }
 }
@@ -21,7 +21,9 @@ import bisq.core.offer.Offer;
 
 import java.util.Comparator;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -59,11 +61,15 @@ class PaymentAccounts {
     }
 
     private List<PaymentAccount> sortValidAccounts(Offer offer) {
-        Comparator<PaymentAccount> comparator = this::compareByAge;
-        return accounts.stream()
+        List<PaymentAccount> validAccounts = accounts.stream()
                 .filter(account -> validator.apply(offer, account))
-                .sorted(comparator.reversed())
                 .collect(Collectors.toList());
+
+        // We look up the witness and its age only once per account instead of at each comparison
+        Map<PaymentAccount, Long> ageByAccount = getAgeByAccount(validAccounts);
+        Comparator<PaymentAccount> comparator = Comparator.comparingLong(ageByAccount::get);
+        validAccounts.sort(comparator.reversed());
+        return validAccounts;
     }
 
     @Nullable
@@ -89,15 +95,13 @@ class PaymentAccounts {
         }
     }
 
-    private int compareByAge(PaymentAccount left, PaymentAccount right) {
-        AccountAgeWitness leftWitness = service.getMyWitness(left.getPaymentAccountPayload());
-        AccountAgeWitness rightWitness = service.getMyWitness(right.getPaymentAccountPayload());
-
+    private Map<PaymentAccount, Long> getAgeByAccount(List<PaymentAccount> accounts) {
         Date now = new Date();
-
-        long leftAge = service.getAccountAge(leftWitness, now);
-        long rightAge = service.getAccountAge(rightWitness, now);
-
-        return Long.compare(leftAge, rightAge);
+        Map<PaymentAccount, Long> ageByAccount = new IdentityHashMap<>();
+        for (PaymentAccount account : accounts) {
+            AccountAgeWitness witness = service.getMyWitness(account.getPaymentAccountPayload());
+            ageByAccount.put(account, service.getAccountAge(witness, now));
+        }
+        return ageByAccount;
     }
 }
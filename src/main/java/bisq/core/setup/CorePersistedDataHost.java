@@ -36,7 +36,6 @@ import bisq.common.proto.persistable.PersistedDataHost;
 
 import com.google.inject.Injector;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
@@ -44,22 +43,37 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class CorePersistedDataHost {
 
-    // All classes which are persisting objects need to be added here
+    /**
+     * @deprecated Reading the returned hosts one after another ignores that most of them don't depend on each other.
+     * Use getPersistedDataHostScheduler(injector).readPersisted() instead.
+     */
+    @Deprecated
     public static List<PersistedDataHost> getPersistedDataHosts(Injector injector) {
-        List<PersistedDataHost> persistedDataHosts = new ArrayList<>();
-        persistedDataHosts.add(injector.getInstance(Preferences.class));
-        persistedDataHosts.add(injector.getInstance(User.class));
-        persistedDataHosts.add(injector.getInstance(AddressEntryList.class));
-        persistedDataHosts.add(injector.getInstance(OpenOfferManager.class));
-        persistedDataHosts.add(injector.getInstance(TradeManager.class));
-        persistedDataHosts.add(injector.getInstance(ClosedTradableManager.class));
-        persistedDataHosts.add(injector.getInstance(FailedTradesManager.class));
-        persistedDataHosts.add(injector.getInstance(DisputeManager.class));
-        persistedDataHosts.add(injector.getInstance(P2PService.class));
-        persistedDataHosts.add(injector.getInstance(ProposalService.class));
-        persistedDataHosts.add(injector.getInstance(BlindVoteService.class));
-        persistedDataHosts.add(injector.getInstance(MyVoteService.class));
-        persistedDataHosts.add(injector.getInstance(DaoParamService.class));
-        return persistedDataHosts;
+        return getPersistedDataHostScheduler(injector).getPersistedDataHosts();
+    }
+
+    // All classes which are persisting objects need to be added here.
+    // Hosts which are not depending on each other are read in parallel, so all dependencies between the hosts need
+    // to be declared here.
+    public static PersistedDataHostScheduler getPersistedDataHostScheduler(Injector injector) {
+        final Preferences preferences = injector.getInstance(Preferences.class);
+        final User user = injector.getInstance(User.class);
+        final AddressEntryList addressEntryList = injector.getInstance(AddressEntryList.class);
+        // The tradables need the locale and currency settings from Preferences, the payment accounts from User and
+        // the address entries for setting the transient fields of the trades.
+        return new PersistedDataHostScheduler()
+                .add(preferences)
+                .add(user, preferences)
+                .add(addressEntryList)
+                .add(injector.getInstance(OpenOfferManager.class), preferences, user, addressEntryList)
+                .add(injector.getInstance(TradeManager.class), preferences, user, addressEntryList)
+                .add(injector.getInstance(ClosedTradableManager.class), preferences, user, addressEntryList)
+                .add(injector.getInstance(FailedTradesManager.class), preferences, user, addressEntryList)
+                .add(injector.getInstance(DisputeManager.class), preferences)
+                .add(injector.getInstance(P2PService.class))
+                .add(injector.getInstance(ProposalService.class))
+                .add(injector.getInstance(BlindVoteService.class))
+                .add(injector.getInstance(MyVoteService.class))
+                .add(injector.getInstance(DaoParamService.class));
     }
 }
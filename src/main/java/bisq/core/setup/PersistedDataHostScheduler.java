@@ -0,0 +1,136 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.setup;
+
+import bisq.common.proto.persistable.PersistedDataHost;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Calls readPersisted on the added PersistedDataHosts. A host is read only after all the hosts it depends on have
+ * completed, hosts which do not depend on each other are read in parallel on a bounded thread pool.
+ * Dependencies need to be added before the hosts depending on them, so there cannot be any cycles.
+ */
+@Slf4j
+public class PersistedDataHostScheduler {
+    private static final int MAX_THREADS = 4;
+
+    // Insertion order is used as fallback order if we read on one thread
+    private final Map<PersistedDataHost, List<PersistedDataHost>> dependenciesByHost = new LinkedHashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public PersistedDataHostScheduler add(PersistedDataHost host, PersistedDataHost... dependencies) {
+        checkArgument(!dependenciesByHost.containsKey(host), "host is already added. host=" + getName(host));
+        for (PersistedDataHost dependency : dependencies) {
+            checkArgument(dependenciesByHost.containsKey(dependency),
+                    "Dependency must be added before the host depending on it. dependency=" + getName(dependency));
+        }
+        dependenciesByHost.put(host, Arrays.asList(dependencies));
+        return this;
+    }
+
+    public List<PersistedDataHost> getPersistedDataHosts() {
+        return new ArrayList<>(dependenciesByHost.keySet());
+    }
+
+    // Blocks until all hosts have been read. Exceptions of a host are logged and do not prevent reading of the other
+    // hosts, same as it was when we read them sequentially.
+    public void readPersisted() {
+        if (dependenciesByHost.isEmpty())
+            return;
+
+        final long ts = System.currentTimeMillis();
+        final Map<PersistedDataHost, AtomicInteger> numPendingDependenciesByHost = new HashMap<>();
+        final Map<PersistedDataHost, List<PersistedDataHost>> dependentsByHost = new HashMap<>();
+        dependenciesByHost.forEach((host, dependencies) -> {
+            numPendingDependenciesByHost.put(host, new AtomicInteger(dependencies.size()));
+            dependentsByHost.put(host, new ArrayList<>());
+            dependencies.forEach(dependency -> dependentsByHost.get(dependency).add(host));
+        });
+
+        final int numThreads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+        // We need an unbounded queue as all independent hosts get submitted at once
+        final ExecutorService executor = Executors.newFixedThreadPool(numThreads,
+                new ThreadFactoryBuilder().setNameFormat("ReadPersisted-%d").setDaemon(true).build());
+        final CountDownLatch latch = new CountDownLatch(dependenciesByHost.size());
+        try {
+            dependenciesByHost.forEach((host, dependencies) -> {
+                if (dependencies.isEmpty())
+                    read(host, executor, numPendingDependenciesByHost, dependentsByHost, latch);
+            });
+            latch.await();
+        } catch (InterruptedException e) {
+            log.error("readPersisted got interrupted", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+        }
+        log.info("Reading persisted data of {} hosts on {} threads took {} ms",
+                dependenciesByHost.size(), numThreads, System.currentTimeMillis() - ts);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void read(PersistedDataHost host,
+                      ExecutorService executor,
+                      Map<PersistedDataHost, AtomicInteger> numPendingDependenciesByHost,
+                      Map<PersistedDataHost, List<PersistedDataHost>> dependentsByHost,
+                      CountDownLatch latch) {
+        executor.execute(() -> {
+            final long ts = System.currentTimeMillis();
+            try {
+                host.readPersisted();
+                log.info("readPersisted at {} took {} ms", getName(host), System.currentTimeMillis() - ts);
+            } catch (Throwable t) {
+                log.error("readPersisted error at " + getName(host), t);
+            } finally {
+                dependentsByHost.get(host).forEach(dependent -> {
+                    if (numPendingDependenciesByHost.get(dependent).decrementAndGet() == 0)
+                        read(dependent, executor, numPendingDependenciesByHost, dependentsByHost, latch);
+                });
+                latch.countDown();
+            }
+        });
+    }
+
+    private static String getName(PersistedDataHost host) {
+        return host.getClass().getSimpleName();
+    }
+}
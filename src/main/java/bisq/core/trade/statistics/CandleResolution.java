@@ -0,0 +1,55 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Time resolution of the candles in TradeStatisticsCandleAggregator. All intervals are in UTC.
+ */
+public enum CandleResolution {
+    HOUR,
+    DAY,
+    WEEK,
+    MONTH;
+
+    // Returns the start of the interval the given time belongs to
+    public long getIntervalStart(long time) {
+        ZonedDateTime dateTime = Instant.ofEpochMilli(time).atZone(ZoneOffset.UTC);
+        switch (this) {
+            case HOUR:
+                dateTime = dateTime.truncatedTo(ChronoUnit.HOURS);
+                break;
+            case DAY:
+                dateTime = dateTime.truncatedTo(ChronoUnit.DAYS);
+                break;
+            case WEEK:
+                dateTime = dateTime.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                break;
+            case MONTH:
+                dateTime = dateTime.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.firstDayOfMonth());
+                break;
+        }
+        return dateTime.toInstant().toEpochMilli();
+    }
+}
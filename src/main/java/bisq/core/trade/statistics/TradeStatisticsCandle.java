@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.core.monetary.Price;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Open/high/low/close prices, volume and number of trades of one market in one interval. Prices are the long values
+ * of the trade price (see TradeStatistics2.getTradePrice()). Instances are updated by TradeStatisticsCandleAggregator
+ * when a new trade statistics object falls into their interval.
+ */
+@ToString
+@Getter
+public final class TradeStatisticsCandle {
+    private final String currencyCode;
+    private final CandleResolution resolution;
+    private final long intervalStart;
+
+    private long open;
+    private long high;
+    private long low;
+    private long close;
+    // Sum of trade amounts in BTC (satoshi)
+    private long amount;
+    // Sum of trade volumes in the currency of the market
+    private long volume;
+    private int numTrades;
+
+    // Trade dates of the trades which define open and close
+    private long openTradeDate;
+    private long closeTradeDate;
+
+    TradeStatisticsCandle(String currencyCode, CandleResolution resolution, long intervalStart) {
+        this.currencyCode = currencyCode;
+        this.resolution = resolution;
+        this.intervalStart = intervalStart;
+    }
+
+    void add(long tradePrice, long tradeAmount, long tradeVolume, long tradeDate) {
+        if (numTrades == 0) {
+            open = close = high = low = tradePrice;
+            openTradeDate = closeTradeDate = tradeDate;
+        } else {
+            high = Math.max(high, tradePrice);
+            low = Math.min(low, tradePrice);
+            // Trades do not arrive in order of their trade date so we need to check which one is the first and last
+            if (tradeDate < openTradeDate) {
+                open = tradePrice;
+                openTradeDate = tradeDate;
+            }
+            if (tradeDate >= closeTradeDate) {
+                close = tradePrice;
+                closeTradeDate = tradeDate;
+            }
+        }
+        amount += tradeAmount;
+        volume += tradeVolume;
+        numTrades++;
+    }
+
+    public Price getClosePrice() {
+        return Price.valueOf(currencyCode, close);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.core.monetary.Price;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains per market OHLC candles for all CandleResolution values. Candles are updated incrementally with each
+ * added trade statistics object, so queries cost only the number of candles in the requested range and not the number
+ * of trades.
+ * Not thread safe. Must be used from the UserThread like TradeStatisticsManager.
+ */
+@Slf4j
+public class TradeStatisticsCandleAggregator {
+    // Key is currency code. Inner map is keyed by interval start.
+    private final Map<String, EnumMap<CandleResolution, TreeMap<Long, TradeStatisticsCandle>>> candlesByCurrencyCode = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(TradeStatistics2 tradeStatistics) {
+        String currencyCode = tradeStatistics.getCurrencyCode();
+        long tradeDate = tradeStatistics.getTradeDate().getTime();
+        long tradePrice = tradeStatistics.getTradePrice().getValue();
+        long tradeAmount = tradeStatistics.getTradeAmount().getValue();
+        long tradeVolume;
+        try {
+            tradeVolume = tradeStatistics.getTradeVolume().getValue();
+        } catch (Throwable t) {
+            log.error("Could not calculate trade volume. tradeStatistics={}, error={}", tradeStatistics, t.getMessage());
+            tradeVolume = 0;
+        }
+
+        EnumMap<CandleResolution, TreeMap<Long, TradeStatisticsCandle>> candlesByResolution =
+                candlesByCurrencyCode.computeIfAbsent(currencyCode, k -> new EnumMap<>(CandleResolution.class));
+        for (CandleResolution resolution : CandleResolution.values()) {
+            long intervalStart = resolution.getIntervalStart(tradeDate);
+            candlesByResolution.computeIfAbsent(resolution, k -> new TreeMap<>())
+                    .computeIfAbsent(intervalStart, k -> new TradeStatisticsCandle(currencyCode, resolution, intervalStart))
+                    .add(tradePrice, tradeAmount, tradeVolume, tradeDate);
+        }
+    }
+
+    public void addAll(Collection<TradeStatistics2> collection) {
+        collection.forEach(this::add);
+    }
+
+    // Returns the candles with an interval start in the range [from, to), sorted by interval start
+    public List<TradeStatisticsCandle> getCandles(String currencyCode, CandleResolution resolution, long from, long to) {
+        NavigableMap<Long, TradeStatisticsCandle> candles = getCandleMap(currencyCode, resolution);
+        if (candles.isEmpty() || from >= to)
+            return new ArrayList<>();
+
+        return new ArrayList<>(candles.subMap(resolution.getIntervalStart(from), true, to, false).values());
+    }
+
+    // Returns all candles of that market, sorted by interval start
+    public Stream<TradeStatisticsCandle> getCandlesAsStream(String currencyCode, CandleResolution resolution) {
+        return getCandleMap(currencyCode, resolution).values().stream();
+    }
+
+    public Stream<TradeStatisticsCandle> getAllCandlesAsStream(CandleResolution resolution) {
+        return candlesByCurrencyCode.keySet().stream()
+                .sorted()
+                .flatMap(currencyCode -> getCandlesAsStream(currencyCode, resolution));
+    }
+
+    // Returns the price of the latest trade of each market
+    public Map<String, Price> getLatestPriceByCurrencyCode() {
+        Map<String, Price> map = new HashMap<>();
+        candlesByCurrencyCode.forEach((currencyCode, candlesByResolution) -> {
+            TreeMap<Long, TradeStatisticsCandle> candles = candlesByResolution.get(CandleResolution.HOUR);
+            if (candles != null && !candles.isEmpty())
+                map.put(currencyCode, candles.lastEntry().getValue().getClosePrice());
+        });
+        return map;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private NavigableMap<Long, TradeStatisticsCandle> getCandleMap(String currencyCode, CandleResolution resolution) {
+        EnumMap<CandleResolution, TreeMap<Long, TradeStatisticsCandle>> candlesByResolution = candlesByCurrencyCode.get(currencyCode);
+        if (candlesByResolution == null || !candlesByResolution.containsKey(resolution))
+            return Collections.emptyNavigableMap();
+
+        return candlesByResolution.get(resolution);
+    }
+}
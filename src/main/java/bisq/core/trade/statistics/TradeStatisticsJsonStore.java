@@ -0,0 +1,232 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.common.storage.JsonFileManager;
+import bisq.common.util.Utilities;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Stores the trade statistics as json files partitioned by month and currency (e.g. trade_statistics_buckets/2018-03_EUR.json)
+ * so that a new trade only causes a rewrite of the bucket it belongs to. An index file lists all bucket names.
+ * Consumers who want all data can use the merged stream or the merged file which gets written on demand.
+ * The merged file is written item by item from a snapshot of the buckets on a background thread, so the json of the
+ * whole history is never held in memory.
+ */
+@Slf4j
+class TradeStatisticsJsonStore {
+    private static final String DIR_NAME = "trade_statistics_buckets";
+    private static final String INDEX_FILE_NAME = "index";
+    // Sorted by tradeDate, most recent first (same order as in the former single file)
+    private static final Comparator<TradeStatisticsForJson> COMPARATOR =
+            (o1, o2) -> Long.compare(o2.tradeDate, o1.tradeDate);
+
+    private final JsonFileManager bucketFileManager;
+    private final File storageDir;
+    private final ListeningExecutorService mergedFileExecutor = Utilities.getListeningSingleThreadExecutor("TradeStatisticsJsonStore");
+    // Key is the month of the trade date, value is a map of currency code to the sorted items of that bucket
+    private final TreeMap<YearMonth, Map<String, List<TradeStatisticsForJson>>> bucketsByMonth = new TreeMap<>();
+    // Set if items got added since the last write of the merged file
+    private boolean mergedFileOutdated = true;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    TradeStatisticsJsonStore(File storageDir) {
+        File bucketDir = new File(Paths.get(storageDir.getAbsolutePath(), DIR_NAME).toString());
+        if (!bucketDir.exists() && !bucketDir.mkdir())
+            log.warn("make bucketDir failed.\nbucketDir=" + bucketDir.getAbsolutePath());
+
+        bucketFileManager = new JsonFileManager(bucketDir);
+        this.storageDir = storageDir;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Used at startup. Writes all buckets and the index.
+    void addAll(Collection<TradeStatistics2> collection) {
+        collection.stream()
+                .map(TradeStatisticsForJson::new)
+                .forEach(e -> getBucket(e).add(e));
+        bucketsByMonth.forEach((month, map) -> map.forEach((currency, list) -> {
+            list.sort(COMPARATOR);
+            writeBucket(month, currency, list);
+        }));
+        writeIndex();
+        mergedFileOutdated = true;
+    }
+
+    // Only the bucket of the new item gets written.
+    void add(TradeStatistics2 tradeStatistics) {
+        TradeStatisticsForJson item = new TradeStatisticsForJson(tradeStatistics);
+        YearMonth month = getMonth(item);
+        boolean isNewBucket = !bucketsByMonth.containsKey(month) || !bucketsByMonth.get(month).containsKey(item.currency);
+        List<TradeStatisticsForJson> list = getBucket(item);
+        int index = Collections.binarySearch(list, item, COMPARATOR);
+        list.add(index < 0 ? -index - 1 : index, item);
+        writeBucket(month, item.currency, list);
+        if (isNewBucket)
+            writeIndex();
+        mergedFileOutdated = true;
+    }
+
+    // Returns all items sorted by tradeDate, most recent first. Only the buckets of one month are merged at a time.
+    Stream<TradeStatisticsForJson> getAllAsStream() {
+        return getAllAsStream(bucketsByMonth);
+    }
+
+    // Writes the merged view as one json array if items got added since the last write. That is expensive with a
+    // large history so it should not be called for each new trade but periodically. Returns null if nothing got
+    // written.
+    @Nullable
+    ListenableFuture<?> maybeWriteMergedFile(String fileName) {
+        if (!mergedFileOutdated)
+            return null;
+
+        return writeMergedFile(fileName);
+    }
+
+    // Writes the merged view as one json array on a background thread. The returned future completes once the file
+    // is written.
+    ListenableFuture<?> writeMergedFile(String fileName) {
+        mergedFileOutdated = false;
+        // We copy only the lists (not the items) as the buckets get changed on the calling thread
+        NavigableMap<YearMonth, Map<String, List<TradeStatisticsForJson>>> snapshot = new TreeMap<>();
+        bucketsByMonth.forEach((month, map) -> {
+            Map<String, List<TradeStatisticsForJson>> mapCopy = new HashMap<>();
+            map.forEach((currency, list) -> mapCopy.put(currency, new ArrayList<>(list)));
+            snapshot.put(month, mapCopy);
+        });
+
+        return mergedFileExecutor.submit(() -> {
+            File mergedFile = new File(storageDir, fileName + ".json");
+            File tempFile = new File(storageDir, fileName + ".json.tmp");
+            try {
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(tempFile.toPath()),
+                        StandardCharsets.UTF_8))) {
+                    writeMergedJson(getAllAsStream(snapshot), writer);
+                }
+                Files.move(tempFile.toPath(), mergedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                log.error("Writing merged file failed. mergedFile=" + mergedFile.getAbsolutePath(), e);
+                if (tempFile.exists() && !tempFile.delete())
+                    log.warn("Deleting temp file failed. tempFile=" + tempFile.getAbsolutePath());
+            }
+        });
+    }
+
+    List<String> getBucketNames() {
+        List<String> bucketNames = new ArrayList<>();
+        bucketsByMonth.forEach((month, map) -> map.keySet().stream()
+                .sorted()
+                .forEach(currency -> bucketNames.add(getBucketName(month, currency))));
+        return bucketNames;
+    }
+
+    // Same format as a json array of all items but the items are written one by one
+    static void writeMergedJson(Stream<TradeStatisticsForJson> items, Writer writer) throws IOException {
+        writer.write("[");
+        boolean isFirst = true;
+        for (TradeStatisticsForJson item : (Iterable<TradeStatisticsForJson>) items::iterator) {
+            if (!isFirst)
+                writer.write(",");
+            writer.write(Utilities.objectToJson(item));
+            isFirst = false;
+        }
+        writer.write("]");
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private List<TradeStatisticsForJson> getBucket(TradeStatisticsForJson item) {
+        return bucketsByMonth.computeIfAbsent(getMonth(item), k -> new HashMap<>())
+                .computeIfAbsent(item.currency, k -> new ArrayList<>());
+    }
+
+    private void writeBucket(YearMonth month, String currency, List<TradeStatisticsForJson> list) {
+        TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
+        list.toArray(array);
+        bucketFileManager.writeToDisc(Utilities.objectToJson(array), getBucketName(month, currency));
+    }
+
+    private void writeIndex() {
+        bucketFileManager.writeToDisc(Utilities.objectToJson(getBucketNames()), INDEX_FILE_NAME);
+    }
+
+    private static Stream<TradeStatisticsForJson> getAllAsStream(
+            NavigableMap<YearMonth, Map<String, List<TradeStatisticsForJson>>> bucketsByMonth) {
+        return bucketsByMonth.descendingMap().values().stream()
+                .flatMap(map -> {
+                    if (map.size() == 1)
+                        return map.values().iterator().next().stream();
+
+                    List<TradeStatisticsForJson> list = new ArrayList<>();
+                    map.values().forEach(list::addAll);
+                    list.sort(COMPARATOR);
+                    return list.stream();
+                });
+    }
+
+    private static YearMonth getMonth(TradeStatisticsForJson item) {
+        return YearMonth.from(Instant.ofEpochMilli(item.tradeDate).atZone(ZoneOffset.UTC));
+    }
+
+    private static String getBucketName(YearMonth month, String currency) {
+        return month.toString() + "_" + currency;
+    }
+}
@@ -43,14 +43,18 @@ import javafx.collections.ObservableSet;
 import java.io.File;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class TradeStatisticsManager {
 
@@ -73,12 +77,21 @@ public class TradeStatisticsManager {
                 tradeStatistics.getExtraDataMap());
     }
 
+    private static final String MERGED_FILE_NAME = "trade_statistics";
+    private static final long MERGED_FILE_WRITE_INTERVAL_MIN = 10;
+
     private final JsonFileManager jsonFileManager;
+    @Nullable
+    private final TradeStatisticsJsonStore jsonStore;
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
     private final HashSet<TradeStatistics2> tradeStatisticsSet = new HashSet<>();
+    // Secondary index to detect items with the same offer ID (maker and taker both publish) without scanning the set
+    private final Set<String> offerIdSet = new HashSet<>();
+    private final TradeStatisticsCandleAggregator candleAggregator = new TradeStatisticsCandleAggregator();
+    private boolean jsonStoreInitialized;
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
@@ -89,6 +102,7 @@ public class TradeStatisticsManager {
         this.priceFeedService = priceFeedService;
         this.dumpStatistics = dumpStatistics;
         jsonFileManager = new JsonFileManager(storageDir);
+        jsonStore = dumpStatistics ? new TradeStatisticsJsonStore(storageDir) : null;
     }
 
     public void onAllServicesInitialized() {
@@ -110,10 +124,10 @@ public class TradeStatisticsManager {
                 addToMap((TradeStatistics2) payload, true);
         });
 
-        p2PService.getP2PDataStorage().getPersistableNetworkPayloadList().getMap().values().forEach(e -> {
-            if (e instanceof TradeStatistics2)
-                addToMap((TradeStatistics2) e, false);
-        });
+        addAllToMap(p2PService.getP2PDataStorage().getPersistableNetworkPayloadList().getMap().values().stream()
+                .filter(e -> e instanceof TradeStatistics2)
+                .map(e -> (TradeStatistics2) e)
+                .collect(Collectors.toList()));
 
         //TODO can be removed after version older than v0.6.0 are not used anymore
         // We listen to TradeStatistics objects from old clients as well and convert them into TradeStatistics2 objects
@@ -132,8 +146,8 @@ public class TradeStatisticsManager {
             }
         });
 
-        priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsSet);
-        dump();
+        priceFeedService.applyLatestBisqMarketPrice(candleAggregator.getLatestPriceByCurrencyCode());
+        initJsonStore();
 
         // print all currencies sorted by nr. of trades
         // printAllCurrencyStats();
@@ -163,16 +177,14 @@ public class TradeStatisticsManager {
 
     public void addToMap(TradeStatistics2 tradeStatistics, boolean storeLocally) {
         if (!tradeStatisticsSet.contains(tradeStatistics)) {
-            boolean itemAlreadyAdded = tradeStatisticsSet.stream().filter(e -> (e.getOfferId().equals(tradeStatistics.getOfferId()))).findAny().isPresent();
-            if (!itemAlreadyAdded) {
+            if (offerIdSet.add(tradeStatistics.getOfferId())) {
                 tradeStatisticsSet.add(tradeStatistics);
                 observableTradeStatisticsSet.add(tradeStatistics);
-
-                tradeStatistics.getTradePrice().getValue();
+                candleAggregator.add(tradeStatistics);
 
                 if (storeLocally) {
-                    priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsSet);
-                    dump();
+                    priceFeedService.applyLatestBisqMarketPrice(candleAggregator.getLatestPriceByCurrencyCode());
+                    dump(tradeStatistics);
                 }
             } else {
                 log.debug("We have already an item with the same offer ID. That might happen if both the maker and the taker published the tradeStatistics");
@@ -180,23 +192,50 @@ public class TradeStatisticsManager {
         }
     }
 
+    // Used for the initial load of the persisted statistics. We filter duplicates against the offer ID index and apply
+    // all new items to the observable set with one addAll call instead of adding them one by one.
+    void addAllToMap(Collection<TradeStatistics2> collection) {
+        List<TradeStatistics2> newItems = new ArrayList<>(collection.size());
+        collection.forEach(tradeStatistics -> {
+            if (!tradeStatisticsSet.contains(tradeStatistics) && offerIdSet.add(tradeStatistics.getOfferId())) {
+                tradeStatisticsSet.add(tradeStatistics);
+                newItems.add(tradeStatistics);
+            }
+        });
+        observableTradeStatisticsSet.addAll(newItems);
+        candleAggregator.addAll(newItems);
+        log.info("Added {} trade statistics objects. Ignored {} duplicates.", newItems.size(), collection.size() - newItems.size());
+    }
+
     public ObservableSet<TradeStatistics2> getObservableTradeStatisticsSet() {
         return observableTradeStatisticsSet;
     }
 
-    private void dump() {
-        if (dumpStatistics) {
-            // We store the statistics as json so it is easy for further processing (e.g. for web based services)
-            // TODO This is just a quick solution for storing to one file.
-            // 1 statistic entry has 500 bytes as json.
-            // Need a more scalable solution later when we get more volume.
-            // The flag will only be activated by dedicated nodes, so it should not be too critical for the moment, but needs to
-            // get improved. Maybe a LevelDB like DB...? Could be impl. in a headless version only.
-            List<TradeStatisticsForJson> list = tradeStatisticsSet.stream().map(TradeStatisticsForJson::new).collect(Collectors.toList());
-            list.sort((o1, o2) -> (o1.tradeDate < o2.tradeDate ? 1 : (o1.tradeDate == o2.tradeDate ? 0 : -1)));
-            TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
-            list.toArray(array);
-            jsonFileManager.writeToDisc(Utilities.objectToJson(array), "trade_statistics");
+    public TradeStatisticsCandleAggregator getCandleAggregator() {
+        return candleAggregator;
+    }
+
+    private void initJsonStore() {
+        if (jsonStore != null) {
+            // We store the statistics as json so it is easy for further processing (e.g. for web based services).
+            // The store is partitioned by month and currency so a new trade only causes a rewrite of one bucket file.
+            // The merged file is kept for consumers who want all data but is only rewritten periodically.
+            jsonStore.addAll(tradeStatisticsSet);
+            jsonStore.writeMergedFile(MERGED_FILE_NAME);
+            jsonStoreInitialized = true;
+            UserThread.runPeriodically(this::maybeWriteMergedFile, MERGED_FILE_WRITE_INTERVAL_MIN, TimeUnit.MINUTES);
+        }
+    }
+
+    private void dump(TradeStatistics2 tradeStatistics) {
+        // Before initJsonStore is called the item will be added with the initial write of all items
+        if (jsonStore != null && jsonStoreInitialized) {
+            jsonStore.add(tradeStatistics);
         }
     }
+
+    private void maybeWriteMergedFile() {
+        if (jsonStore != null)
+            jsonStore.maybeWriteMergedFile(MERGED_FILE_NAME);
+    }
 }
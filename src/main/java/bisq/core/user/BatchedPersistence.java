@@ -0,0 +1,115 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.user;
+
+import bisq.common.UserThread;
+import bisq.common.crypto.Hash;
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.storage.Storage;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Queues up a payload for saving. Inside a batch the save is deferred until the outermost batch has ended so that
+ * bulk operations cause only one save. Outside of a batch the save is deferred to the next UserThread cycle, so
+ * that multiple changes from the same event cause only one save. A save is skipped if the serialized payload is the
+ * same as at the last save. As serializing and hashing is done only when we actually save, it costs at most once
+ * per save.
+ */
+@Slf4j
+class BatchedPersistence<T extends PersistableEnvelope> {
+    private final Consumer<Runnable> saveScheduler;
+    private int batchDepth;
+    private boolean dirty;
+    private boolean saveScheduled;
+    @Nullable
+    private byte[] lastSavedHash;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BatchedPersistence() {
+        this(UserThread::execute);
+    }
+
+    @VisibleForTesting
+    BatchedPersistence(Consumer<Runnable> saveScheduler) {
+        this.saveScheduler = saveScheduler;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    synchronized void persist(Storage<T> storage, T payload) {
+        dirty = true;
+        if (batchDepth == 0 && !saveScheduled) {
+            saveScheduled = true;
+            saveScheduler.accept(() -> onScheduledSave(storage, payload));
+        }
+    }
+
+    synchronized void beginBatch() {
+        batchDepth++;
+    }
+
+    synchronized void endBatch(Storage<T> storage, T payload) {
+        checkArgument(batchDepth > 0, "endBatch called without beginBatch");
+        batchDepth--;
+        if (batchDepth == 0 && dirty) {
+            dirty = false;
+            save(storage, payload);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void onScheduledSave(Storage<T> storage, T payload) {
+        saveScheduled = false;
+        // If a batch has started in the meantime the save happens at its end
+        if (batchDepth == 0 && dirty) {
+            dirty = false;
+            save(storage, payload);
+        }
+    }
+
+    private void save(Storage<T> storage, T payload) {
+        byte[] hash = Hash.getSha256Hash(payload.toProtoMessage().toByteArray());
+        if (!Arrays.equals(hash, lastSavedHash)) {
+            lastSavedHash = hash;
+            storage.queueUpForSave(payload);
+        } else {
+            log.trace("Payload has not changed since last save. We skip the save.");
+        }
+    }
+}
@@ -136,6 +136,7 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
     private final ObservableList<TradeCurrency> tradeCurrenciesAsObservable = FXCollections.observableArrayList();
 
     private final Storage<PreferencesPayload> storage;
+    private final BatchedPersistence<PreferencesPayload> batchedPersistence = new BatchedPersistence<>();
     private final BisqEnvironment bisqEnvironment;
     private final String btcNodesFromOptions;
     private final String useTorFlagFromOptions;
@@ -280,6 +281,16 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // All changes inside the batch are saved once after the batch is done
+    public void runBatched(Runnable operations) {
+        batchedPersistence.beginBatch();
+        try {
+            operations.run();
+        } finally {
+            batchedPersistence.endBatch(storage, prefPayload);
+        }
+    }
+
     public void dontShowAgain(String key, boolean dontShowAgain) {
         prefPayload.getDontShowAgainMap().put(key, dontShowAgain);
         persist();
@@ -306,12 +317,14 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
 
     public void removeFiatCurrency(FiatCurrency tradeCurrency) {
         if (tradeCurrenciesAsObservable.size() > 1) {
-            if (fiatCurrenciesAsObservable.contains(tradeCurrency))
-                fiatCurrenciesAsObservable.remove(tradeCurrency);
-
-            if (prefPayload.getPreferredTradeCurrency() != null &&
-                    prefPayload.getPreferredTradeCurrency().equals(tradeCurrency))
-                setPreferredTradeCurrency(tradeCurrenciesAsObservable.get(0));
+            runBatched(() -> {
+                if (fiatCurrenciesAsObservable.contains(tradeCurrency))
+                    fiatCurrenciesAsObservable.remove(tradeCurrency);
+
+                if (prefPayload.getPreferredTradeCurrency() != null &&
+                        prefPayload.getPreferredTradeCurrency().equals(tradeCurrency))
+                    setPreferredTradeCurrency(tradeCurrenciesAsObservable.get(0));
+            });
         } else {
             log.error("you cannot remove the last currency");
         }
@@ -324,12 +337,14 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
 
     public void removeCryptoCurrency(CryptoCurrency tradeCurrency) {
         if (tradeCurrenciesAsObservable.size() > 1) {
-            if (cryptoCurrenciesAsObservable.contains(tradeCurrency))
-                cryptoCurrenciesAsObservable.remove(tradeCurrency);
-
-            if (prefPayload.getPreferredTradeCurrency() != null &&
-                    prefPayload.getPreferredTradeCurrency().equals(tradeCurrency))
-                setPreferredTradeCurrency(tradeCurrenciesAsObservable.get(0));
+            runBatched(() -> {
+                if (cryptoCurrenciesAsObservable.contains(tradeCurrency))
+                    cryptoCurrenciesAsObservable.remove(tradeCurrency);
+
+                if (prefPayload.getPreferredTradeCurrency() != null &&
+                        prefPayload.getPreferredTradeCurrency().equals(tradeCurrency))
+                    setPreferredTradeCurrency(tradeCurrenciesAsObservable.get(0));
+            });
         } else {
             log.error("you cannot remove the last currency");
         }
@@ -349,7 +364,7 @@ public final class Preferences implements PersistedDataHost, BridgeAddressProvid
 
     private void persist() {
         if (initialReadDone)
-            storage.queueUpForSave(prefPayload);
+            batchedPersistence.persist(storage, prefPayload);
     }
 
     public void setUserLanguage(@NotNull String userLanguageCode) {
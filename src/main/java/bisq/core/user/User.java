@@ -64,6 +64,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public final class User implements PersistedDataHost {
     final private Storage<UserPayload> storage;
     final private KeyRing keyRing;
+    final private BatchedPersistence<UserPayload> batchedPersistence = new BatchedPersistence<>();
 
     private ObservableSet<PaymentAccount> paymentAccountsAsObservable;
     private ObjectProperty<PaymentAccount> currentPaymentAccountProperty;
@@ -112,7 +113,7 @@ public final class User implements PersistedDataHost {
     }
 
     private void persist() {
-        storage.queueUpForSave(userPayload);
+        batchedPersistence.persist(storage, userPayload);
     }
 
 
@@ -194,15 +195,28 @@ public final class User implements PersistedDataHost {
     }
 
 
+    // All changes inside the batch are saved once after the batch is done
+    public void runBatched(Runnable operations) {
+        batchedPersistence.beginBatch();
+        try {
+            operations.run();
+        } finally {
+            batchedPersistence.endBatch(storage, userPayload);
+        }
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Collection operations
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void addPaymentAccount(PaymentAccount paymentAccount) {
-        boolean changed = paymentAccountsAsObservable.add(paymentAccount);
-        setCurrentPaymentAccount(paymentAccount);
-        if (changed)
-            persist();
+        runBatched(() -> {
+            boolean changed = paymentAccountsAsObservable.add(paymentAccount);
+            setCurrentPaymentAccount(paymentAccount);
+            if (changed)
+                persist();
+        });
     }
 
     public void removePaymentAccount(PaymentAccount paymentAccount) {
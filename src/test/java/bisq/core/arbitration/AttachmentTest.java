@@ -0,0 +1,55 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.arbitration;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class AttachmentTest {
+    @Test
+    public void testRoundtrip() {
+        Attachment attachment = new Attachment("screenshot.png", new byte[]{1, 2, 3});
+        Attachment fromProto = Attachment.fromProto(attachment.toProtoMessage());
+
+        assertEquals(attachment, fromProto);
+        assertEquals("screenshot.png", fromProto.getFileName());
+        assertArrayEquals(new byte[]{1, 2, 3}, fromProto.getBytes());
+    }
+
+    @Test
+    public void testContentIsShared() {
+        Attachment attachment = new Attachment("screenshot.png", new byte[]{1, 2, 3});
+        Attachment copy = new Attachment("copy.png", new byte[]{1, 2, 3});
+
+        assertSame(attachment.toProtoMessage().getBytes(), copy.toProtoMessage().getBytes());
+        assertSame(attachment.toProtoMessage().getBytes(), Attachment.fromProto(copy.toProtoMessage()).toProtoMessage().getBytes());
+    }
+
+    @Test
+    public void testGetBytesReturnsCopy() {
+        Attachment attachment = new Attachment("screenshot.png", new byte[]{1, 2, 3});
+        attachment.getBytes()[0] = 9;
+
+        assertNotSame(attachment.getBytes(), attachment.getBytes());
+        assertArrayEquals(new byte[]{1, 2, 3}, attachment.getBytes());
+    }
+}
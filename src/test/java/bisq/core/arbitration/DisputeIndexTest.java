@@ -0,0 +1,97 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.arbitration;
+
+import bisq.core.trade.Contract;
+
+import bisq.network.p2p.NodeAddress;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({Dispute.class, Contract.class})
+public class DisputeIndexTest {
+    private final NodeAddress buyer = new NodeAddress("buyer", 1000);
+    private final NodeAddress seller = new NodeAddress("seller", 1000);
+    private ObservableList<Dispute> disputes;
+
+    @Before
+    public void setUp() {
+        disputes = FXCollections.observableArrayList();
+    }
+
+    @Test
+    public void testFindDispute() {
+        Dispute buyersDispute = createDispute("trade1", 1);
+        Dispute sellersDispute = createDispute("trade1", 2);
+        disputes.add(buyersDispute);
+        DisputeIndex index = new DisputeIndex(disputes);
+        disputes.add(sellersDispute);
+
+        assertSame(buyersDispute, index.findDispute("trade1", 1).get());
+        assertSame(sellersDispute, index.findDispute("trade1", 2).get());
+        assertFalse(index.findDispute("trade1", 3).isPresent());
+        assertFalse(index.findDispute("trade2", 1).isPresent());
+        assertSame(buyersDispute, index.findAnyDispute("trade1").get());
+
+        disputes.remove(buyersDispute);
+        assertFalse(index.findDispute("trade1", 1).isPresent());
+        assertSame(sellersDispute, index.findAnyDispute("trade1").get());
+    }
+
+    @Test
+    public void testGetNrOfDisputes() {
+        DisputeIndex index = new DisputeIndex(disputes);
+        Dispute dispute1 = createDispute("trade1", 1);
+        disputes.add(dispute1);
+        disputes.add(createDispute("trade2", 1));
+        Contract contract = dispute1.getContract();
+
+        assertEquals(2, index.getNrOfDisputes(true, contract));
+        assertEquals(2, index.getNrOfDisputes(false, contract));
+
+        disputes.remove(dispute1);
+        assertEquals(1, index.getNrOfDisputes(true, contract));
+    }
+
+    private Dispute createDispute(String tradeId, int traderId) {
+        Contract contract = mock(Contract.class);
+        when(contract.getBuyerNodeAddress()).thenReturn(buyer);
+        when(contract.getSellerNodeAddress()).thenReturn(seller);
+
+        Dispute dispute = mock(Dispute.class);
+        when(dispute.getTradeId()).thenReturn(tradeId);
+        when(dispute.getTraderId()).thenReturn(traderId);
+        when(dispute.getContract()).thenReturn(contract);
+        return dispute;
+    }
+}
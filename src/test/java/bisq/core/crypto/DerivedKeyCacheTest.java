@@ -0,0 +1,110 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.crypto;
+
+import org.bitcoinj.crypto.KeyCrypterScrypt;
+
+import org.spongycastle.crypto.params.KeyParameter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class DerivedKeyCacheTest {
+    private final AtomicLong now = new AtomicLong(1000);
+    private final List<Runnable> scheduledWipes = new ArrayList<>();
+    private DerivedKeyCache cache;
+    private KeyCrypterScrypt keyCrypterScrypt;
+
+    @Before
+    public void setup() {
+        cache = new DerivedKeyCache(100, now::get, (wipe, delayMillis) -> {
+            assertEquals(100, delayMillis);
+            scheduledWipes.add(wipe);
+        });
+        keyCrypterScrypt = ScryptUtil.getKeyCrypterScrypt();
+    }
+
+    @Test
+    public void testGet() {
+        KeyParameter aesKey = new KeyParameter(new byte[]{1, 2, 3});
+        cache.put(keyCrypterScrypt, "password", aesKey);
+
+        KeyParameter cached = cache.get(keyCrypterScrypt, "password");
+        assertNotSame(aesKey, cached);
+        assertArrayEquals(aesKey.getKey(), cached.getKey());
+        assertNull(cache.get(keyCrypterScrypt, "otherPassword"));
+        // Other salt
+        assertNull(cache.get(ScryptUtil.getKeyCrypterScrypt(), "password"));
+    }
+
+    @Test
+    public void testExpiry() {
+        cache.put(keyCrypterScrypt, "password", new KeyParameter(new byte[]{1, 2, 3}));
+        now.addAndGet(99);
+        assertArrayEquals(new byte[]{1, 2, 3}, cache.get(keyCrypterScrypt, "password").getKey());
+
+        now.addAndGet(1);
+        assertNull(cache.get(keyCrypterScrypt, "password"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testScheduledWipe() {
+        KeyParameter aesKey = new KeyParameter(new byte[]{1, 2, 3});
+        cache.put(keyCrypterScrypt, "password", aesKey);
+        assertEquals(1, scheduledWipes.size());
+
+        // The wipe runs at expiry also if the cache is not accessed anymore
+        scheduledWipes.get(0).run();
+        assertEquals(0, cache.size());
+        assertArrayEquals(new byte[]{1, 2, 3}, aesKey.getKey());
+    }
+
+    @Test
+    public void testScheduledWipeDoesNotRemoveNewerEntry() {
+        cache.put(keyCrypterScrypt, "password", new KeyParameter(new byte[]{1, 2, 3}));
+        cache.put(keyCrypterScrypt, "password", new KeyParameter(new byte[]{4, 5, 6}));
+
+        scheduledWipes.get(0).run();
+        assertArrayEquals(new byte[]{4, 5, 6}, cache.get(keyCrypterScrypt, "password").getKey());
+
+        scheduledWipes.get(1).run();
+        assertNull(cache.get(keyCrypterScrypt, "password"));
+    }
+
+    @Test
+    public void testClearDoesNotWipeKeysInUse() {
+        KeyParameter aesKey = new KeyParameter(new byte[]{1, 2, 3});
+        cache.put(keyCrypterScrypt, "password", aesKey);
+        KeyParameter cached = cache.get(keyCrypterScrypt, "password");
+
+        cache.clear();
+        assertNull(cache.get(keyCrypterScrypt, "password"));
+        assertArrayEquals(new byte[]{1, 2, 3}, aesKey.getKey());
+        assertArrayEquals(new byte[]{1, 2, 3}, cached.getKey());
+    }
+}
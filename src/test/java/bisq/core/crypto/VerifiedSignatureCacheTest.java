@@ -0,0 +1,58 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.crypto;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VerifiedSignatureCacheTest {
+    private final byte[] pubKey = {1, 2, 3};
+    private final byte[] message = {4, 5};
+    private final byte[] signature = {6};
+
+    @Before
+    public void setup() {
+        VerifiedSignatureCache.clear();
+    }
+
+    @Test
+    public void testSuccessfulVerificationIsCached() {
+        AtomicInteger numCalls = new AtomicInteger();
+        assertTrue(VerifiedSignatureCache.verify(pubKey, message, signature, () -> numCalls.incrementAndGet() > 0));
+        assertTrue(VerifiedSignatureCache.verify(pubKey, message, signature, () -> numCalls.incrementAndGet() > 0));
+        assertEquals(1, numCalls.get());
+
+        // Different data is verified again
+        assertTrue(VerifiedSignatureCache.verify(pubKey, new byte[]{4}, new byte[]{5, 6}, () -> numCalls.incrementAndGet() > 0));
+        assertEquals(2, numCalls.get());
+    }
+
+    @Test
+    public void testFailedVerificationIsNotCached() {
+        AtomicInteger numCalls = new AtomicInteger();
+        assertFalse(VerifiedSignatureCache.verify(pubKey, message, signature, () -> numCalls.incrementAndGet() < 0));
+        assertFalse(VerifiedSignatureCache.verify(pubKey, message, signature, () -> numCalls.incrementAndGet() < 0));
+        assertEquals(2, numCalls.get());
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.blockchain.vo.TxOutput;
+
+import org.junit.Test;
+
+import static bisq.core.dao.blockchain.BsqBlockChainTestUtils.addBlockWithTx;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class BsqBlockChainProtoTest {
+
+    @Test
+    public void testFromProtoSharesInstances() {
+        BsqBlockChain bsqBlockChain = new BsqBlockChain("genesisTxId", 1);
+        addBlockWithTx(bsqBlockChain, 1, "tx1");
+        addBlockWithTx(bsqBlockChain, 2, "tx2");
+
+        BsqBlockChain clone = bsqBlockChain.getClone();
+        assertEquals(bsqBlockChain.toProtoMessage(), clone.toProtoMessage());
+
+        Tx txInBlock = clone.getBsqBlocks().getLast().getTxs().get(0);
+        assertSame(txInBlock, clone.getTxMap().get("tx2"));
+        TxOutput txOutput = clone.getUnspentAndMatureTxOutput("tx2", 0).get();
+        assertSame(txInBlock.getOutputs().get(0), txOutput);
+        assertSame(txInBlock.getId(), txOutput.getTxId());
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.blockchain.vo.SpentInfo;
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.blockchain.vo.TxInput;
+import bisq.core.dao.blockchain.vo.TxOutput;
+import bisq.core.dao.blockchain.vo.TxOutputType;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Applies random blocks, reverts a random number of them and applies a competing branch. The resulting state must
+ * be the same as if we would have parsed the resulting chain from scratch.
+ * <p>
+ * We simulate the state changes of the parser (spending and creating outputs, adding txs and issuance) directly
+ * with the WritableBsqBlockChain methods.
+ */
+public class BsqBlockChainReOrgTest {
+    private static final String GENESIS_TX_ID = "genesisTxId";
+
+    @Test
+    public void testRandomReOrgs() {
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            BsqBlockChain bsqBlockChain = new BsqBlockChain(GENESIS_TX_ID, 1);
+
+            List<BsqBlock> commonBlocks = new ArrayList<>();
+            int numCommonBlocks = 1 + random.nextInt(20);
+            String previousHash = "";
+            for (int height = 1; height <= numCommonBlocks; height++) {
+                BsqBlock bsqBlock = createBlock(bsqBlockChain, random, height, previousHash, "a");
+                commonBlocks.add(BsqBlock.clone(bsqBlock, true));
+                parseBlock(bsqBlockChain, bsqBlock);
+                previousHash = bsqBlock.getHash();
+            }
+            final String forkHash = previousHash;
+
+            int numRevertedBlocks = 1 + random.nextInt(10);
+            for (int height = numCommonBlocks + 1; height <= numCommonBlocks + numRevertedBlocks; height++) {
+                BsqBlock bsqBlock = createBlock(bsqBlockChain, random, height, previousHash, "b");
+                parseBlock(bsqBlockChain, bsqBlock);
+                previousHash = bsqBlock.getHash();
+            }
+
+            // Changes of a not connecting block which have been applied before addBlock failed
+            applyTxs(bsqBlockChain, createBlock(bsqBlockChain, random, numCommonBlocks + numRevertedBlocks + 1,
+                    "notConnecting", "c"));
+
+            assertTrue(bsqBlockChain.revertToHeight(numCommonBlocks));
+            assertEquals(numCommonBlocks, bsqBlockChain.getChainHeadHeight());
+            assertEquals(toProto(parseFromScratch(commonBlocks)), toProto(bsqBlockChain));
+
+            List<BsqBlock> newBranchBlocks = new ArrayList<>();
+            previousHash = forkHash;
+            int numNewBlocks = 1 + random.nextInt(10);
+            for (int height = numCommonBlocks + 1; height <= numCommonBlocks + numNewBlocks; height++) {
+                BsqBlock bsqBlock = createBlock(bsqBlockChain, random, height, previousHash, "d");
+                newBranchBlocks.add(BsqBlock.clone(bsqBlock, true));
+                parseBlock(bsqBlockChain, bsqBlock);
+                previousHash = bsqBlock.getHash();
+            }
+
+            List<BsqBlock> allBlocks = new ArrayList<>(commonBlocks);
+            allBlocks.addAll(newBranchBlocks);
+            assertEquals("seed=" + seed, toProto(parseFromScratch(allBlocks)), toProto(bsqBlockChain));
+        }
+    }
+
+    @Test
+    public void testRevertBeyondUndoRecords() {
+        BsqBlockChain bsqBlockChain = new BsqBlockChain(GENESIS_TX_ID, 1);
+        Random random = new Random(1);
+        String previousHash = "";
+        int chainHeadHeight = BsqBlockChain.MAX_UNDO_BLOCKS + 10;
+        for (int height = 1; height <= chainHeadHeight; height++) {
+            BsqBlock bsqBlock = createBlock(bsqBlockChain, random, height, previousHash, "a");
+            parseBlock(bsqBlockChain, bsqBlock);
+            previousHash = bsqBlock.getHash();
+        }
+        Object proto = toProto(bsqBlockChain);
+
+        assertFalse(bsqBlockChain.revertToHeight(5));
+        assertEquals(chainHeadHeight, bsqBlockChain.getChainHeadHeight());
+        assertEquals(proto, toProto(bsqBlockChain));
+
+        assertTrue(bsqBlockChain.revertToHeight(chainHeadHeight - BsqBlockChain.MAX_UNDO_BLOCKS));
+        assertEquals(chainHeadHeight - BsqBlockChain.MAX_UNDO_BLOCKS, bsqBlockChain.getChainHeadHeight());
+    }
+
+    private static Object toProto(BsqBlockChain bsqBlockChain) {
+        return bsqBlockChain.toProtoMessage();
+    }
+
+    private static BsqBlockChain parseFromScratch(List<BsqBlock> bsqBlocks) {
+        BsqBlockChain bsqBlockChain = new BsqBlockChain(GENESIS_TX_ID, 1);
+        bsqBlocks.forEach(bsqBlock -> parseBlock(bsqBlockChain, BsqBlock.clone(bsqBlock, true)));
+        return bsqBlockChain;
+    }
+
+    private static void parseBlock(BsqBlockChain bsqBlockChain, BsqBlock bsqBlock) {
+        applyTxs(bsqBlockChain, bsqBlock);
+        bsqBlockChain.addBlock(bsqBlock);
+
+        // We issue the candidates from 2 blocks back with an even value
+        bsqBlockChain.getCompReqIssuanceTxOutputs().stream()
+                .filter(txOutput -> txOutput.getBlockHeight() == bsqBlock.getHeight() - 2)
+                .filter(txOutput -> txOutput.getValue() % 2 == 0)
+                .sorted(Comparator.comparing(TxOutput::getId))
+                .forEach(txOutput -> bsqBlockChain.issueBsq(txOutput, bsqBlock.getHeight()));
+    }
+
+    private static void applyTxs(BsqBlockChain bsqBlockChain, BsqBlock bsqBlock) {
+        for (Tx tx : bsqBlock.getTxs()) {
+            if (tx.getId().equals(GENESIS_TX_ID))
+                bsqBlockChain.setGenesisTx(tx);
+
+            for (int i = 0; i < tx.getInputs().size(); i++) {
+                TxInput txInput = tx.getInputs().get(i);
+                Optional<TxOutput> connectedTxOutput = bsqBlockChain.getUnspentAndMatureTxOutputInclStaged(txInput.getTxIdIndexTuple());
+                if (connectedTxOutput.isPresent()) {
+                    TxOutput txOutput = connectedTxOutput.get();
+                    txInput.setConnectedTxOutput(txOutput);
+                    bsqBlockChain.spendTxOutput(txOutput, new SpentInfo(bsqBlock.getHeight(), tx.getId(), i));
+                }
+            }
+
+            for (int i = 0; i < tx.getOutputs().size(); i++) {
+                TxOutput txOutput = tx.getOutputs().get(i);
+                // Last output of a tx with more than 2 outputs is an issuance candidate
+                if (i == 2) {
+                    txOutput.setTxOutputType(TxOutputType.ISSUANCE_CANDIDATE_OUTPUT);
+                } else {
+                    txOutput.setTxOutputType(TxOutputType.BSQ_OUTPUT);
+                    txOutput.setUnspent(true);
+                    txOutput.setVerified(true);
+                    bsqBlockChain.addUnspentTxOutput(txOutput);
+                }
+            }
+            bsqBlockChain.addTxToMap(tx);
+        }
+    }
+
+    private static BsqBlock createBlock(BsqBlockChain bsqBlockChain, Random random, int height, String previousHash,
+                                        String branch) {
+        List<TxOutput> unspentTxOutputs = bsqBlockChain.getUnspentTxOutputs().stream()
+                .sorted(Comparator.comparing(TxOutput::getId))
+                .collect(Collectors.toList());
+        List<Tx> txs = new ArrayList<>();
+        String hash = "hash_" + branch + "_" + height;
+        if (height == 1) {
+            txs.add(createTx(GENESIS_TX_ID, height, hash, new ArrayList<>(), 2, random));
+        } else {
+            int numTxs = random.nextInt(4);
+            for (int i = 0; i < numTxs && !unspentTxOutputs.isEmpty(); i++) {
+                List<TxInput> inputs = new ArrayList<>();
+                int numInputs = 1 + random.nextInt(2);
+                for (int j = 0; j < numInputs && !unspentTxOutputs.isEmpty(); j++) {
+                    TxOutput txOutput = unspentTxOutputs.remove(random.nextInt(unspentTxOutputs.size()));
+                    inputs.add(new TxInput(txOutput.getTxId(), txOutput.getIndex()));
+                }
+                String txId = "tx_" + branch + "_" + height + "_" + i;
+                txs.add(createTx(txId, height, hash, inputs, 1 + random.nextInt(3), random));
+            }
+        }
+        return new BsqBlock(height, height * 600, hash, previousHash, ImmutableList.copyOf(txs));
+    }
+
+    private static Tx createTx(String txId, int height, String blockHash, List<TxInput> inputs, int numOutputs,
+                               Random random) {
+        List<TxOutput> outputs = new ArrayList<>();
+        for (int i = 0; i < numOutputs; i++) {
+            outputs.add(new TxOutput(i, 1 + random.nextInt(1000), txId, null, null, null, height));
+        }
+        return new Tx(txId, height, blockHash, height * 600, ImmutableList.copyOf(inputs), ImmutableList.copyOf(outputs));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import org.junit.Test;
+
+import static bisq.core.dao.blockchain.BsqBlockChainTestUtils.addBlockWithTx;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BsqBlockChainStateTest {
+
+    @Test
+    public void testStateIsPublishedPerVersion() {
+        BsqBlockChain bsqBlockChain = new BsqBlockChain("genesisTxId", 1);
+        addBlockWithTx(bsqBlockChain, 1, "tx1");
+
+        BsqBlockChainState state = bsqBlockChain.getState();
+        assertSame(state, bsqBlockChain.getState());
+        assertEquals(1, state.getChainHeadHeight());
+        assertTrue(state.getTxMap().containsKey("tx1"));
+
+        addBlockWithTx(bsqBlockChain, 2, "tx2");
+
+        // The old state is not affected by the new block
+        assertFalse(state.getTxMap().containsKey("tx2"));
+        assertEquals(1, state.getUnspentTxOutputsMap().size());
+        assertEquals(1, state.getChainHeadHeight());
+
+        BsqBlockChainState newState = bsqBlockChain.getState();
+        assertNotSame(state, newState);
+        assertTrue(newState.getVersion() > state.getVersion());
+        assertTrue(newState.getTxMap().containsKey("tx2"));
+        assertEquals(2, newState.getUnspentTxOutputsMap().size());
+        assertTrue(bsqBlockChain.containsTx("tx2"));
+        assertTrue(bsqBlockChain.isTxOutputSpendable("tx2", 0));
+
+        assertEquals(0, newState.getReOrgCount());
+        assertTrue(bsqBlockChain.revertToHeight(1));
+        assertFalse(bsqBlockChain.containsTx("tx2"));
+        assertEquals(1, bsqBlockChain.getState().getChainHeadHeight());
+        assertEquals(1, bsqBlockChain.getState().getReOrgCount());
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.blockchain.vo.TxInput;
+import bisq.core.dao.blockchain.vo.TxOutput;
+
+import com.google.common.collect.ImmutableList;
+
+class BsqBlockChainTestUtils {
+
+    // Adds a block with one tx which has one verified and unspent output
+    static void addBlockWithTx(BsqBlockChain bsqBlockChain, int height, String txId) {
+        TxOutput txOutput = new TxOutput(0, 100, txId, null, null, null, height);
+        Tx tx = new Tx(txId, height, "hash" + height, height * 600,
+                ImmutableList.<TxInput>of(),
+                ImmutableList.of(txOutput));
+        txOutput.setVerified(true);
+        txOutput.setUnspent(true);
+        bsqBlockChain.addUnspentTxOutput(txOutput);
+        bsqBlockChain.addTxToMap(tx);
+        bsqBlockChain.addBlock(new BsqBlock(height, height * 600, "hash" + height, "hash" + (height - 1),
+                ImmutableList.of(tx)));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.blockchain.vo.SpentInfo;
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.blockchain.vo.TxInput;
+import bisq.core.dao.blockchain.vo.TxOutput;
+import bisq.core.dao.blockchain.vo.util.TxIdIndexTuple;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BsqBlockChainWriteBatchTest {
+    private BsqBlockChain bsqBlockChain;
+    private Tx genesisTx;
+
+    @Before
+    public void setup() {
+        bsqBlockChain = new BsqBlockChain("genesisTxId", 1);
+        genesisTx = new Tx("genesisTxId", 1, "hash1", 600,
+                ImmutableList.copyOf(new ArrayList<TxInput>()),
+                ImmutableList.copyOf(asList(new TxOutput(0, 100, "genesisTxId", null, null, null, 1))));
+        addOutput(genesisTx.getOutputs().get(0));
+        bsqBlockChain.setGenesisTx(genesisTx);
+        bsqBlockChain.addTxToMap(genesisTx);
+        bsqBlockChain.addBlock(new BsqBlock(1, 600, "hash1", "", ImmutableList.of(genesisTx)));
+    }
+
+    @Test
+    public void testStagedChangesOnlyVisibleToParser() {
+        TxOutput genesisTxOutput = genesisTx.getOutputs().get(0);
+        TxIdIndexTuple genesisKey = genesisTxOutput.getTxIdIndexTuple();
+        Tx tx1 = createTx("tx1", 2, "genesisTxId");
+        Tx tx2 = createTx("tx2", 2, "tx1");
+
+        // tx1 spends the genesis output, tx2 spends the output of tx1 in the same block
+        bsqBlockChain.spendTxOutput(genesisTxOutput, new SpentInfo(2, "tx1", 0));
+        addOutput(tx1.getOutputs().get(0));
+        bsqBlockChain.addTxToMap(tx1);
+        TxOutput tx1Output = bsqBlockChain.getUnspentAndMatureTxOutputInclStaged(new TxIdIndexTuple("tx1", 0)).get();
+        bsqBlockChain.spendTxOutput(tx1Output, new SpentInfo(2, "tx2", 0));
+        addOutput(tx2.getOutputs().get(0));
+        bsqBlockChain.addTxToMap(tx2);
+
+        // Parser sees the staged state
+        assertFalse(bsqBlockChain.getUnspentAndMatureTxOutputInclStaged(genesisKey).isPresent());
+        assertFalse(bsqBlockChain.getUnspentAndMatureTxOutputInclStaged(new TxIdIndexTuple("tx1", 0)).isPresent());
+        assertTrue(bsqBlockChain.getUnspentAndMatureTxOutputInclStaged(new TxIdIndexTuple("tx2", 0)).isPresent());
+
+        // Other readers only see the committed state
+        assertTrue(bsqBlockChain.getUnspentAndMatureTxOutput(genesisKey).isPresent());
+        assertTrue(genesisTxOutput.isUnspent());
+        assertNull(genesisTxOutput.getSpentInfo());
+        assertFalse(bsqBlockChain.containsTx("tx1"));
+        assertEquals(1, bsqBlockChain.getUnspentTxOutputs().size());
+
+        bsqBlockChain.addBlock(new BsqBlock(2, 1200, "hash2", "hash1", ImmutableList.of(tx1, tx2)));
+
+        assertFalse(bsqBlockChain.getUnspentAndMatureTxOutput(genesisKey).isPresent());
+        assertFalse(genesisTxOutput.isUnspent());
+        assertEquals("tx1", genesisTxOutput.getSpentInfo().getTxId());
+        assertFalse(bsqBlockChain.getUnspentAndMatureTxOutput("tx1", 0).isPresent());
+        assertEquals("tx2", tx1Output.getSpentInfo().getTxId());
+        assertTrue(bsqBlockChain.getUnspentAndMatureTxOutput("tx2", 0).isPresent());
+        assertTrue(bsqBlockChain.containsTx("tx1"));
+        assertTrue(bsqBlockChain.containsTx("tx2"));
+    }
+
+    @Test
+    public void testDiscardWriteBatch() {
+        TxOutput genesisTxOutput = genesisTx.getOutputs().get(0);
+        Tx tx1 = createTx("tx1", 2, "genesisTxId");
+        bsqBlockChain.spendTxOutput(genesisTxOutput, new SpentInfo(2, "tx1", 0));
+        addOutput(tx1.getOutputs().get(0));
+        bsqBlockChain.addTxToMap(tx1);
+
+        bsqBlockChain.discardWriteBatch();
+        bsqBlockChain.addBlock(new BsqBlock(2, 1200, "hash2", "hash1", ImmutableList.of()));
+
+        assertTrue(bsqBlockChain.getUnspentAndMatureTxOutput(genesisTxOutput.getTxIdIndexTuple()).isPresent());
+        assertTrue(genesisTxOutput.isUnspent());
+        assertFalse(bsqBlockChain.containsTx("tx1"));
+    }
+
+    private void addOutput(TxOutput txOutput) {
+        txOutput.setVerified(true);
+        txOutput.setUnspent(true);
+        bsqBlockChain.addUnspentTxOutput(txOutput);
+    }
+
+    private static Tx createTx(String txId, int height, String connectedTxId) {
+        return new Tx(txId, height, "hash" + height, height * 600,
+                ImmutableList.of(new TxInput(connectedTxId, 0)),
+                ImmutableList.of(new TxOutput(0, 100, txId, null, null, null, height)));
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.blockchain;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentHashMapTest {
+
+    @Test
+    public void testPlusAndMinus() {
+        PersistentHashMap<String, Integer> empty = PersistentHashMap.empty();
+        PersistentHashMap<String, Integer> map1 = empty.plus("a", 1);
+        PersistentHashMap<String, Integer> map2 = map1.plus("b", 2);
+        PersistentHashMap<String, Integer> map3 = map2.plus("a", 3);
+        PersistentHashMap<String, Integer> map4 = map3.minus("b");
+
+        assertTrue(empty.isEmpty());
+        assertEquals(1, map1.size());
+        assertEquals(Integer.valueOf(1), map1.get("a"));
+        assertEquals(2, map2.size());
+        assertEquals(2, map3.size());
+        assertEquals(Integer.valueOf(3), map3.get("a"));
+        assertEquals(1, map4.size());
+        assertFalse(map4.containsKey("b"));
+
+        // Older versions are not affected
+        assertEquals(Integer.valueOf(1), map2.get("a"));
+        assertTrue(map3.containsKey("b"));
+        assertNull(map1.get("b"));
+
+        // No change returns the same instance
+        assertSame(map4, map4.minus("x"));
+        assertSame(map4, map4.plus("a", map4.get("a")));
+        assertSame(empty, map1.minus("a"));
+    }
+
+    @Test
+    public void testEqualsHashMap() {
+        Map<String, Integer> hashMap = new HashMap<>();
+        hashMap.put("a", 1);
+        hashMap.put("b", 2);
+        PersistentHashMap<String, Integer> map = PersistentHashMap.copyOf(hashMap);
+        assertEquals(hashMap, map);
+        assertEquals(map, hashMap);
+        assertEquals(hashMap.hashCode(), map.hashCode());
+        assertEquals(hashMap.entrySet(), map.entrySet());
+        assertSame(map, PersistentHashMap.copyOf(map));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIsImmutable() {
+        PersistentHashMap.<String, Integer>empty().plus("a", 1).put("b", 2);
+    }
+
+    @Test
+    public void testHashCollisions() {
+        PersistentHashMap<CollidingKey, Integer> map = PersistentHashMap.empty();
+        // All keys with the same hash and some with hashes differing only in the highest bits
+        for (int i = 0; i < 10; i++) {
+            map = map.plus(new CollidingKey(i, 7), i);
+            map = map.plus(new CollidingKey(i, 7 | (1 << 31)), 100 + i);
+        }
+        assertEquals(20, map.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), map.get(new CollidingKey(i, 7)));
+            assertEquals(Integer.valueOf(100 + i), map.get(new CollidingKey(i, 7 | (1 << 31))));
+        }
+        assertNull(map.get(new CollidingKey(10, 7)));
+
+        map = map.plus(new CollidingKey(3, 7), 33);
+        assertEquals(20, map.size());
+        assertEquals(Integer.valueOf(33), map.get(new CollidingKey(3, 7)));
+
+        for (int i = 0; i < 10; i++) {
+            map = map.minus(new CollidingKey(i, 7));
+        }
+        assertEquals(10, map.size());
+        assertEquals(Integer.valueOf(105), map.get(new CollidingKey(5, 7 | (1 << 31))));
+        assertEquals(10, countEntries(map));
+    }
+
+    // Random operations compared with a HashMap, including all old versions
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(42);
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        Map<Integer, Integer> expected = new HashMap<>();
+        List<PersistentHashMap<Integer, Integer>> versions = new ArrayList<>();
+        List<Map<Integer, Integer>> expectedVersions = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Keys with few distinct values in the low bits to get deep tries
+            int key = random.nextInt(5000) << random.nextInt(8);
+            if (random.nextInt(3) == 0) {
+                map = map.minus(key);
+                expected.remove(key);
+            } else {
+                map = map.plus(key, i);
+                expected.put(key, i);
+            }
+
+            if (i % 1000 == 0) {
+                versions.add(map);
+                expectedVersions.add(new HashMap<>(expected));
+            }
+        }
+
+        assertEquals(expected, map);
+        assertEquals(expected.size(), countEntries(map));
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(expectedVersions.get(i), versions.get(i));
+        }
+
+        for (Integer key : new ArrayList<>(expected.keySet())) {
+            map = map.minus(key);
+        }
+        assertTrue(map.isEmpty());
+        assertEquals(0, countEntries(map));
+    }
+
+    private static int countEntries(Map<?, ?> map) {
+        int count = 0;
+        for (Map.Entry<?, ?> ignored : map.entrySet()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static final class CollidingKey {
+        private final int id;
+        private final int hash;
+
+        private CollidingKey(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id && ((CollidingKey) o).hash == hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
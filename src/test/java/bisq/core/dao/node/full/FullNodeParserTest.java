@@ -128,18 +128,18 @@ public class FullNodeParserTest {
         // 1) - null, 0     -> not BSQ transaction
         // 2) - 100, null   -> BSQ transaction
         // 3) - 0, 100      -> BSQ transaction
-        new Expectations(readModel) {{
+        new Expectations(writeModel) {{
             // Expectations can be recorded on mocked instances, either with specific matching arguments or catch all
             // http://jmockit.github.io/tutorial/Mocking.html#results
             // Results are returned in the order they're recorded, so in this case for the first call to
             // getSpendableTxOutput("tx1", 0) the return value will be Optional.empty()
             // for the second call the return is Optional.of(new TxOutput(0,... and so on
-            readModel.getUnspentAndMatureTxOutput(new TxIdIndexTuple("tx1", 0));
+            writeModel.getUnspentAndMatureTxOutputInclStaged(new TxIdIndexTuple("tx1", 0));
             result = Optional.empty();
             result = Optional.of(new TxOutput(0, 100, "txout1", null, null, null, height));
             result = Optional.of(new TxOutput(0, 0, "txout1", null, null, null, height));
 
-            readModel.getUnspentAndMatureTxOutput(new TxIdIndexTuple("tx1", 1));
+            writeModel.getUnspentAndMatureTxOutputInclStaged(new TxIdIndexTuple("tx1", 1));
             result = Optional.of(new TxOutput(0, 0, "txout2", null, null, null, height));
             result = Optional.empty();
             result = Optional.of(new TxOutput(0, 100, "txout2", null, null, null, height));
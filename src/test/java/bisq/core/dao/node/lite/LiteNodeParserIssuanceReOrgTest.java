@@ -0,0 +1,140 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite;
+
+import bisq.core.dao.blockchain.BsqBlockChain;
+import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.blockchain.vo.TxInput;
+import bisq.core.dao.blockchain.vo.TxOutput;
+import bisq.core.dao.node.consensus.BsqBlockController;
+import bisq.core.dao.node.consensus.BsqTxController;
+import bisq.core.dao.node.consensus.GenesisTxController;
+import bisq.core.dao.node.consensus.GenesisTxOutputController;
+import bisq.core.dao.node.consensus.OpReturnController;
+import bisq.core.dao.node.consensus.TxInputController;
+import bisq.core.dao.node.consensus.TxInputsController;
+import bisq.core.dao.node.consensus.TxOutputController;
+import bisq.core.dao.node.consensus.TxOutputsController;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Parses blocks with the LiteNodeParser, issues BSQ like the IssuanceService does after the block got added and
+ * reverts blocks.
+ */
+public class LiteNodeParserIssuanceReOrgTest {
+    private static final String GENESIS_TX_ID = "genesisTxId";
+
+    private BsqBlockChain bsqBlockChain;
+    private LiteNodeParser liteNodeParser;
+
+    @Before
+    public void setup() throws Exception {
+        bsqBlockChain = new BsqBlockChain(GENESIS_TX_ID, 1);
+        liteNodeParser = createParser(bsqBlockChain);
+
+        // Genesis with 2 outputs
+        parseBlock(1, new Tx(GENESIS_TX_ID, 1, "hash1", 600,
+                ImmutableList.<TxInput>of(),
+                ImmutableList.of(new TxOutput(0, 100, GENESIS_TX_ID, null, null, null, 1),
+                        new TxOutput(1, 100, GENESIS_TX_ID, null, null, null, 1))));
+        // tx2 spends 100 BSQ. Output 0 is BSQ, output 1 exceeds the remaining BSQ and is our issuance candidate.
+        parseBlock(2, new Tx("tx2", 2, "hash2", 1200,
+                ImmutableList.of(new TxInput(GENESIS_TX_ID, 0)),
+                ImmutableList.of(new TxOutput(0, 60, "tx2", null, null, null, 2),
+                        new TxOutput(1, 50, "tx2", null, null, null, 2))));
+    }
+
+    @Test
+    public void testRevertOfIssuanceAtChainHead() throws Exception {
+        bsqBlockChain.issueBsq(getCandidate(), 2);
+        assertIssued(true);
+
+        // Reverting to the chain head only discards staged changes, the issuance of the chain head block stays
+        assertTrue(bsqBlockChain.revertToHeight(2));
+        assertIssued(true);
+
+        assertTrue(bsqBlockChain.revertToHeight(1));
+        assertFalse(bsqBlockChain.containsTx("tx2"));
+        assertIssued(false);
+    }
+
+    @Test
+    public void testRevertOfIssuanceAfterParserAddedNextBlock() throws Exception {
+        // The parser thread added block 3 before the issuance of block 2 got applied
+        parseBlock(3);
+        bsqBlockChain.issueBsq(getCandidate(), 2);
+        assertEquals(2, bsqBlockChain.getTx("tx2").get().getIssuanceBlockHeight());
+
+        // Reverting block 3 must not revert the issuance of block 2
+        assertTrue(bsqBlockChain.revertToHeight(2));
+        assertIssued(true);
+
+        assertTrue(bsqBlockChain.revertToHeight(1));
+        assertIssued(false);
+    }
+
+    @Test
+    public void testIssuanceWithoutUndoRecordRequiresSnapshot() throws Exception {
+        // After applying a snapshot we don't have the undo record of block 2
+        bsqBlockChain.applySnapshot(bsqBlockChain.getClone());
+        parseBlock(3);
+        parseBlock(4);
+        bsqBlockChain.issueBsq(getCandidate(), 2);
+        assertIssued(true);
+
+        assertTrue(bsqBlockChain.revertToHeight(3));
+        assertIssued(true);
+        assertFalse(bsqBlockChain.revertToHeight(1));
+        assertEquals(3, bsqBlockChain.getChainHeadHeight());
+        assertIssued(true);
+    }
+
+    private void parseBlock(int height, Tx... txs) throws Exception {
+        liteNodeParser.parseBsqBlock(new BsqBlock(height, height * 600, "hash" + height, "hash" + (height - 1),
+                ImmutableList.copyOf(txs)));
+    }
+
+    private TxOutput getCandidate() {
+        return bsqBlockChain.getTx("tx2").get().getOutputs().get(1);
+    }
+
+    private void assertIssued(boolean issued) {
+        assertEquals(issued, bsqBlockChain.isTxOutputSpendable("tx2", 1));
+        bsqBlockChain.getTx("tx2").ifPresent(tx -> assertEquals(issued, tx.isIssuanceTx()));
+    }
+
+    private static LiteNodeParser createParser(BsqBlockChain bsqBlockChain) {
+        final OpReturnController opReturnController = mock(OpReturnController.class);
+        return new LiteNodeParser(new BsqBlockController(bsqBlockChain, bsqBlockChain),
+                new GenesisTxController(bsqBlockChain, bsqBlockChain,
+                        new GenesisTxOutputController(bsqBlockChain, opReturnController), GENESIS_TX_ID, 1),
+                new BsqTxController(bsqBlockChain,
+                        new TxInputsController(bsqBlockChain, new TxInputController()),
+                        new TxOutputsController(new TxOutputController(bsqBlockChain, opReturnController))));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite;
+
+import bisq.core.dao.blockchain.ReadableBsqBlockChain;
+import bisq.core.dao.blockchain.SnapshotManager;
+import bisq.core.dao.blockchain.WritableBsqBlockChain;
+import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.node.lite.network.LiteNodeNetworkService;
+
+import bisq.network.p2p.P2PService;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class LiteNodeTest {
+    private LiteNodeParser liteNodeParser;
+    private LiteNodeNetworkService liteNodeNetworkService;
+    private LiteNode liteNode;
+
+    @Before
+    public void setup() {
+        liteNodeParser = mock(LiteNodeParser.class);
+        liteNodeNetworkService = mock(LiteNodeNetworkService.class);
+        liteNode = new LiteNode(mock(ReadableBsqBlockChain.class),
+                mock(SnapshotManager.class),
+                mock(P2PService.class),
+                new LiteNodeExecutor(liteNodeParser, mock(WritableBsqBlockChain.class)),
+                liteNodeNetworkService);
+    }
+
+    @Test
+    public void testBlocksGetParsedAfterFailedPage() throws Exception {
+        liteNode.startParseBlocks();
+        verify(liteNodeNetworkService).requestBlocks(anyInt());
+
+        doThrow(new IllegalStateException("Test failure")).when(liteNodeParser).parseBsqBlocks(anyList(), any());
+        liteNode.onRequestedBlocksReceived(Collections.singletonList(getBlock(1)), false);
+
+        // The failure causes a new request with a new generation
+        verify(liteNodeNetworkService, timeout(5000).times(2)).requestBlocks(anyInt());
+
+        // So a later block is not dropped as outdated
+        BsqBlock bsqBlock = getBlock(2);
+        liteNode.onNewBlockReceived(bsqBlock);
+        verify(liteNodeParser, timeout(5000)).parseBsqBlock(any(BsqBlock.class));
+    }
+
+    private BsqBlock getBlock(int height) {
+        return new BsqBlock(height, height * 600, "hash" + height, "hash" + (height - 1), ImmutableList.<Tx>of());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite.network;
+
+import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.node.messages.GetBsqBlocksResponse;
+
+import bisq.network.p2p.NodeAddress;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BlockPageQueueTest {
+    private static final int PAGE_SIZE = GetBsqBlocksResponse.MAX_BLOCKS;
+    private static final NodeAddress PEER_1 = new NodeAddress("192.168.0.1:1111");
+    private static final NodeAddress PEER_2 = new NodeAddress("192.168.0.2:1111");
+
+    private BlockPageQueue pageQueue;
+    private List<List<BsqBlock>> releasedPages;
+    private List<Boolean> releasedLastPageFlags;
+    private List<Integer> notConnectingPages;
+    private BlockPageQueue.Handler handler;
+
+    @Before
+    public void setup() {
+        pageQueue = new BlockPageQueue();
+        pageQueue.reset(0);
+        releasedPages = new ArrayList<>();
+        releasedLastPageFlags = new ArrayList<>();
+        notConnectingPages = new ArrayList<>();
+        handler = new BlockPageQueue.Handler() {
+            @Override
+            public void onPageReleased(List<BsqBlock> bsqBlocks, boolean isLastPage) {
+                releasedPages.add(bsqBlocks);
+                releasedLastPageFlags.add(isLastPage);
+            }
+
+            @Override
+            public void onPageNotConnecting(NodeAddress peersNodeAddress, int startBlockHeight) {
+                notConnectingPages.add(startBlockHeight);
+            }
+        };
+    }
+
+    @Test
+    public void testReleaseInOrder() {
+        pageQueue.add(PEER_2, PAGE_SIZE, createResponse(PAGE_SIZE, PAGE_SIZE, ""));
+        pageQueue.release(handler);
+        // We wait for the first page
+        assertTrue(releasedPages.isEmpty());
+        assertEquals(1, pageQueue.getNumPending());
+
+        pageQueue.add(PEER_1, 0, createResponse(0, PAGE_SIZE, ""));
+        pageQueue.release(handler);
+        assertEquals(2, releasedPages.size());
+        assertEquals(0, releasedPages.get(0).get(0).getHeight());
+        assertEquals(PAGE_SIZE, releasedPages.get(1).get(0).getHeight());
+        assertEquals(Boolean.FALSE, releasedLastPageFlags.get(1));
+        assertEquals(2 * PAGE_SIZE, pageQueue.getNextBlockHeight());
+        assertEquals(0, pageQueue.getNumPending());
+    }
+
+    @Test
+    public void testReleaseStopsAtLastPage() {
+        pageQueue.add(PEER_1, 0, createResponse(0, 10, ""));
+        pageQueue.add(PEER_2, 10, createResponse(10, 10, ""));
+        pageQueue.release(handler);
+
+        assertEquals(1, releasedPages.size());
+        assertEquals(Boolean.TRUE, releasedLastPageFlags.get(0));
+        assertEquals(10, pageQueue.getNextBlockHeight());
+    }
+
+    @Test
+    public void testFirstBlockNotConnectingToLastReleasedBlock() {
+        pageQueue.add(PEER_1, 0, createResponse(0, PAGE_SIZE, ""));
+        pageQueue.release(handler);
+        assertEquals(1, releasedPages.size());
+
+        // Blocks of another chain
+        pageQueue.add(PEER_2, PAGE_SIZE, createResponse(PAGE_SIZE, PAGE_SIZE, "fork"));
+        pageQueue.release(handler);
+        assertEquals(1, releasedPages.size());
+        assertEquals(1, notConnectingPages.size());
+        assertEquals(PAGE_SIZE, (int) notConnectingPages.get(0));
+        assertEquals(PAGE_SIZE, pageQueue.getNextBlockHeight());
+        assertFalse(pageQueue.isPageObsolete(PAGE_SIZE));
+    }
+
+    @Test
+    public void testBlocksBelowNextBlockHeightAreFilteredOut() {
+        pageQueue.add(PEER_1, 0, createResponse(0, PAGE_SIZE, ""));
+        pageQueue.release(handler);
+
+        // A full node without paging support delivers all blocks from the requested height on but might start lower
+        pageQueue.add(PEER_2, PAGE_SIZE, createResponse(PAGE_SIZE - 5, 15, ""));
+        pageQueue.release(handler);
+        assertEquals(2, releasedPages.size());
+        assertEquals(10, releasedPages.get(1).size());
+        assertEquals(PAGE_SIZE, releasedPages.get(1).get(0).getHeight());
+        assertEquals(PAGE_SIZE + 10, pageQueue.getNextBlockHeight());
+    }
+
+    @Test
+    public void testIsPageObsolete() {
+        pageQueue.add(PEER_2, PAGE_SIZE, createResponse(PAGE_SIZE, PAGE_SIZE, ""));
+        assertFalse(pageQueue.isPageObsolete(0));
+        assertTrue(pageQueue.isPageObsolete(PAGE_SIZE));
+
+        pageQueue.add(PEER_1, 0, createResponse(0, PAGE_SIZE, ""));
+        pageQueue.release(handler);
+        assertTrue(pageQueue.isPageObsolete(0));
+        assertFalse(pageQueue.isPageObsolete(2 * PAGE_SIZE));
+
+        pageQueue.reset(0);
+        assertFalse(pageQueue.isPageObsolete(0));
+        assertEquals(0, pageQueue.getNumPending());
+    }
+
+    @Test
+    public void testIsConnecting() {
+        assertTrue(BlockPageQueue.isConnecting(createBlocks(10, 5, ""), 10));
+        assertTrue(BlockPageQueue.isConnecting(createBlocks(5, 10, ""), 10));
+        assertTrue(BlockPageQueue.isConnecting(new ArrayList<>(), 10));
+        // First block above the requested height
+        assertFalse(BlockPageQueue.isConnecting(createBlocks(11, 5, ""), 10));
+
+        List<BsqBlock> gap = createBlocks(10, 5, "");
+        gap.remove(2);
+        assertFalse(BlockPageQueue.isConnecting(gap, 10));
+
+        List<BsqBlock> wrongHash = createBlocks(10, 5, "");
+        wrongHash.set(3, createBlock(13, "fork"));
+        assertFalse(BlockPageQueue.isConnecting(wrongHash, 10));
+    }
+
+    private static GetBsqBlocksResponse createResponse(int startBlockHeight, int numBlocks, String chain) {
+        return new GetBsqBlocksResponse(createBlocks(startBlockHeight, numBlocks, chain), 0);
+    }
+
+    private static List<BsqBlock> createBlocks(int startBlockHeight, int numBlocks, String chain) {
+        List<BsqBlock> bsqBlocks = new ArrayList<>();
+        for (int height = startBlockHeight; height < startBlockHeight + numBlocks; height++) {
+            bsqBlocks.add(createBlock(height, chain));
+        }
+        return bsqBlocks;
+    }
+
+    // Blocks of the same chain connect by their hashes
+    private static BsqBlock createBlock(int height, String chain) {
+        return new BsqBlock(height, 0, chain + "hash" + height, chain + "hash" + (height - 1), ImmutableList.of());
+    }
+}
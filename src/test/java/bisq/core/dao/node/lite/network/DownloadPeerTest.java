@@ -0,0 +1,84 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite.network;
+
+import bisq.network.p2p.NodeAddress;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DownloadPeerTest {
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testPagesInFlight() {
+        DownloadPeer downloadPeer = new DownloadPeer(new NodeAddress("192.168.0.1:1111"));
+        assertEquals(0, downloadPeer.getNumPagesInFlight());
+
+        downloadPeer.onPageRequested();
+        downloadPeer.onPageRequested();
+        assertEquals(2, downloadPeer.getNumPagesInFlight());
+
+        downloadPeer.onPageReceived(100);
+        assertEquals(1, downloadPeer.getNumPagesInFlight());
+
+        downloadPeer.onPageCanceled();
+        assertEquals(0, downloadPeer.getNumPagesInFlight());
+
+        // Never below 0, e.g. if a late response arrives after a cancel
+        downloadPeer.onPageCanceled();
+        downloadPeer.onPageReceived(100);
+        assertEquals(0, downloadPeer.getNumPagesInFlight());
+    }
+
+    @Test
+    public void testAvgPageDuration() {
+        DownloadPeer downloadPeer = new DownloadPeer(new NodeAddress("192.168.0.1:1111"));
+        assertEquals(-1, downloadPeer.getAvgPageDuration(), DELTA);
+
+        downloadPeer.onPageRequested();
+        downloadPeer.onPageReceived(1000);
+        assertEquals(1000, downloadPeer.getAvgPageDuration(), DELTA);
+
+        downloadPeer.onPageRequested();
+        downloadPeer.onPageReceived(2000);
+        assertEquals(0.3 * 2000 + 0.7 * 1000, downloadPeer.getAvgPageDuration(), DELTA);
+
+        // Canceled pages are not measured
+        downloadPeer.onPageRequested();
+        downloadPeer.onPageCanceled();
+        assertEquals(1300, downloadPeer.getAvgPageDuration(), DELTA);
+    }
+
+    @Test
+    public void testEstimatedDuration() {
+        DownloadPeer unmeasuredPeer = new DownloadPeer(new NodeAddress("192.168.0.1:1111"));
+        unmeasuredPeer.onPageRequested();
+        // Peers without measurement are preferred
+        assertEquals(0, unmeasuredPeer.getEstimatedDuration(), DELTA);
+
+        DownloadPeer downloadPeer = new DownloadPeer(new NodeAddress("192.168.0.2:1111"));
+        downloadPeer.onPageRequested();
+        downloadPeer.onPageReceived(1000);
+        assertEquals(1000, downloadPeer.getEstimatedDuration(), DELTA);
+
+        downloadPeer.onPageRequested();
+        assertEquals(2000, downloadPeer.getEstimatedDuration(), DELTA);
+    }
+}
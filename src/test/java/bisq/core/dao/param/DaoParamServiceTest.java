@@ -0,0 +1,64 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.param;
+
+import bisq.common.storage.Storage;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class DaoParamServiceTest {
+    private DaoParamService service;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        service = new DaoParamService(mock(Storage.class));
+    }
+
+    @Test
+    public void testDefaultValue() {
+        assertEquals(DaoParam.PROPOSAL_FEE.getDefaultValue(), service.getDaoParamValue(DaoParam.PROPOSAL_FEE, 100));
+    }
+
+    @Test
+    public void testValueAtHeight() {
+        // Added out of order on purpose
+        service.addChangeEvent(new ParamChangeEvent(DaoParam.PROPOSAL_FEE, 300, 30));
+        service.addChangeEvent(new ParamChangeEvent(DaoParam.PROPOSAL_FEE, 100, 10));
+        service.addChangeEvent(new ParamChangeEvent(DaoParam.PROPOSAL_FEE, 200, 20));
+        service.addChangeEvent(new ParamChangeEvent(DaoParam.BLIND_VOTE_FEE, 999, 15));
+
+        final long defaultValue = DaoParam.PROPOSAL_FEE.getDefaultValue();
+        assertEquals(defaultValue, service.getDaoParamValue(DaoParam.PROPOSAL_FEE, 0));
+        assertEquals(defaultValue, service.getDaoParamValue(DaoParam.PROPOSAL_FEE, 9));
+        assertEquals(100, service.getDaoParamValue(DaoParam.PROPOSAL_FEE, 10));
+        assertEquals(100, service.getDaoParamValue(DaoParam.PROPOSAL_FEE, 19));
+        assertEquals(200, service.getDaoParamValue(DaoParam.PROPOSAL_FEE, 20));
+        assertEquals(200, service.getDaoParamValue(DaoParam.PROPOSAL_FEE, 29));
+        assertEquals(300, service.getDaoParamValue(DaoParam.PROPOSAL_FEE, 30));
+        assertEquals(300, service.getDaoParamValue(DaoParam.PROPOSAL_FEE, Integer.MAX_VALUE));
+
+        assertEquals(DaoParam.BLIND_VOTE_FEE.getDefaultValue(), service.getDaoParamValue(DaoParam.BLIND_VOTE_FEE, 14));
+        assertEquals(999, service.getDaoParamValue(DaoParam.BLIND_VOTE_FEE, 15));
+        assertEquals(DaoParam.QUORUM_PROPOSAL.getDefaultValue(), service.getDaoParamValue(DaoParam.QUORUM_PROPOSAL, 30));
+    }
+}
@@ -17,12 +17,27 @@
 
 package bisq.core.dao.vote;
 
+import bisq.core.dao.blockchain.BsqBlockChainState;
+import bisq.core.dao.blockchain.ReadableBsqBlockChain;
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.blockchain.vo.TxInput;
+import bisq.core.dao.blockchain.vo.TxOutput;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.Optional;
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class PeriodServiceTest {
 
@@ -164,4 +179,113 @@ public class PeriodServiceTest {
         assertTrue(service.isTxInCurrentCycle(gen + numBlocksOfCycle - 1, gen + numBlocksOfCycle - 1, gen, numBlocksOfCycle));
         assertFalse(service.isTxInCurrentCycle(gen + numBlocksOfCycle, gen + numBlocksOfCycle - 1, gen, numBlocksOfCycle));
     }
+
+    @Test
+    public void phaseTableMatchesArithmeticTest() {
+        Random random = new Random(0);
+        int numBlocksOfCycle = getNumBlocksOfCycleByArithmetic();
+        assertEquals(numBlocksOfCycle, service.getNumBlocksOfCycle());
+
+        for (PeriodService.Phase phase : PeriodService.Phase.values()) {
+            assertEquals(getBlockUntilPhaseStartByArithmetic(phase), service.getNumBlocksOfPhaseStart(phase));
+            assertEquals(getBlockUntilPhaseStartByArithmetic(phase), service.getBlockUntilPhaseStart(phase));
+            assertEquals(getBlockUntilPhaseStartByArithmetic(phase) + phase.getDurationInBlocks(),
+                    service.getBlockUntilPhaseEnd(phase));
+        }
+
+        for (int offset = -numBlocksOfCycle; offset < numBlocksOfCycle; offset++) {
+            assertEquals(calculatePhaseByArithmetic(offset), service.calculatePhase(offset));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            int genesisHeight = random.nextInt(1000);
+            PeriodService periodService = new PeriodService(null, genesisHeight);
+            int blockHeight = genesisHeight + random.nextInt(10 * numBlocksOfCycle);
+            for (PeriodService.Phase phase : PeriodService.Phase.values()) {
+                assertEquals(isInPhaseByArithmetic(blockHeight, genesisHeight, phase),
+                        periodService.isInPhase(blockHeight, phase));
+            }
+            int offset = blockHeight - periodService.getAbsoluteStartBlockOfCycle(blockHeight, genesisHeight, numBlocksOfCycle);
+            assertEquals(calculatePhaseByArithmetic(offset), periodService.getPhaseForHeight(blockHeight));
+        }
+    }
+
+    // The arithmetic used before the phase boundaries got precomputed
+    private int getNumBlocksOfCycleByArithmetic() {
+        int blocks = 0;
+        for (PeriodService.Phase phase : PeriodService.Phase.values()) {
+            blocks += phase.getDurationInBlocks();
+        }
+        return blocks;
+    }
+
+    @Test
+    public void getTxHeightCachesFoundTxsTest() {
+        ReadableBsqBlockChain readableBsqBlockChain = mock(ReadableBsqBlockChain.class);
+        BsqBlockChainState state = mock(BsqBlockChainState.class);
+        when(readableBsqBlockChain.getState()).thenReturn(state);
+        when(readableBsqBlockChain.getTx("tx1")).thenReturn(Optional.of(getTx("tx1", 10)));
+        when(readableBsqBlockChain.getTx("unknown")).thenReturn(Optional.empty());
+        PeriodService periodService = new PeriodService(readableBsqBlockChain, 0);
+
+        assertEquals(Optional.of(10), periodService.getTxHeight("tx1"));
+        assertEquals(Optional.of(10), periodService.getTxHeight("tx1"));
+        verify(readableBsqBlockChain, times(1)).getTx("tx1");
+
+        // Unknown txs are not cached as they might get added with a later block
+        assertFalse(periodService.getTxHeight("unknown").isPresent());
+        assertFalse(periodService.getTxHeight("unknown").isPresent());
+        verify(readableBsqBlockChain, times(2)).getTx("unknown");
+    }
+
+    @Test
+    public void getTxHeightClearsCacheAtReOrgTest() {
+        ReadableBsqBlockChain readableBsqBlockChain = mock(ReadableBsqBlockChain.class);
+        BsqBlockChainState state = mock(BsqBlockChainState.class);
+        when(readableBsqBlockChain.getState()).thenReturn(state);
+        when(state.getReOrgCount()).thenReturn(0);
+        when(readableBsqBlockChain.getTx("tx1")).thenReturn(Optional.of(getTx("tx1", 10)));
+        PeriodService periodService = new PeriodService(readableBsqBlockChain, 0);
+
+        assertEquals(Optional.of(10), periodService.getTxHeight("tx1"));
+
+        // tx1 got reverted and added again in a block at another height
+        when(state.getReOrgCount()).thenReturn(1);
+        when(readableBsqBlockChain.getTx("tx1")).thenReturn(Optional.of(getTx("tx1", 11)));
+        assertEquals(Optional.of(11), periodService.getTxHeight("tx1"));
+        assertEquals(Optional.of(11), periodService.getTxHeight("tx1"));
+        verify(readableBsqBlockChain, times(2)).getTx("tx1");
+    }
+
+    private Tx getTx(String txId, int blockHeight) {
+        return new Tx(txId, blockHeight, "blockHash" + blockHeight, 0, ImmutableList.<TxInput>of(), ImmutableList.<TxOutput>of());
+    }
+
+    private int getBlockUntilPhaseStartByArithmetic(PeriodService.Phase target) {
+        int totalDuration = 0;
+        for (PeriodService.Phase phase : PeriodService.Phase.values()) {
+            if (phase == target)
+                break;
+            else
+                totalDuration += phase.getDurationInBlocks();
+        }
+        return totalDuration;
+    }
+
+    private PeriodService.Phase calculatePhaseByArithmetic(int blocksInNewPhase) {
+        int end = 0;
+        for (PeriodService.Phase phase : PeriodService.Phase.values()) {
+            end += phase.getDurationInBlocks();
+            if (phase != PeriodService.Phase.UNDEFINED && blocksInNewPhase < end)
+                return phase;
+        }
+        return PeriodService.Phase.UNDEFINED;
+    }
+
+    private boolean isInPhaseByArithmetic(int blockHeight, int genesisHeight, PeriodService.Phase phase) {
+        int start = getBlockUntilPhaseStartByArithmetic(phase);
+        int end = start + phase.getDurationInBlocks();
+        int heightInCycle = (blockHeight - genesisHeight) % getNumBlocksOfCycleByArithmetic();
+        return heightInCycle >= start && heightInCycle < end;
+    }
 }
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.vote.proposal;
+
+import bisq.core.btc.wallet.WalletsManager;
+import bisq.core.dao.blockchain.ReadableBsqBlockChain;
+import bisq.core.dao.blockchain.vo.BsqBlock;
+import bisq.core.dao.blockchain.vo.Tx;
+import bisq.core.dao.blockchain.vo.TxInput;
+import bisq.core.dao.blockchain.vo.TxOutput;
+import bisq.core.dao.vote.PeriodService;
+import bisq.core.dao.vote.proposal.generic.GenericProposalPayload;
+
+import bisq.network.p2p.P2PService;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import bisq.common.crypto.KeyRing;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
+import bisq.common.storage.Storage;
+
+import com.google.common.collect.ImmutableList;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+
+import java.util.Date;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({KeyRing.class, PubKeyRing.class, ProtectedStorageEntry.class})
+@SuppressWarnings("unchecked")
+public class ProposalServiceTest {
+    private PeriodService periodService;
+    private ProposalService service;
+    private PublicKey ownerPubKey;
+
+    @Before
+    public void setup() {
+        final KeyPair keyPair = Sig.generateKeyPair();
+        ownerPubKey = keyPair.getPublic();
+        final PubKeyRing pubKeyRing = mock(PubKeyRing.class);
+        when(pubKeyRing.getSignaturePubKey()).thenReturn(Sig.generateKeyPair().getPublic());
+        final KeyRing keyRing = mock(KeyRing.class);
+        when(keyRing.getPubKeyRing()).thenReturn(pubKeyRing);
+
+        periodService = mock(PeriodService.class);
+        service = new ProposalService(mock(P2PService.class),
+                mock(WalletsManager.class),
+                periodService,
+                mock(ReadableBsqBlockChain.class),
+                keyRing,
+                mock(Storage.class));
+
+        service.onAdded(getEntry(getPayload("uid1", "title", "tx1")));
+        when(periodService.getNumOfStartedCycles(anyInt())).thenReturn(1);
+        service.onBlockAdded(getBlock(10));
+
+        // We only want to count the evaluations of the predicates caused by the following blocks
+        reset(periodService);
+        when(periodService.getNumOfStartedCycles(anyInt())).thenReturn(1);
+    }
+
+    @Test
+    public void testNoReEvaluationAtUnrelatedBlock() {
+        service.onBlockAdded(getBlock(11, "otherTx"));
+        verify(periodService, never()).isTxInCurrentCycle(anyString());
+        verify(periodService, never()).isTxInPastCycle(anyString());
+    }
+
+    @Test
+    public void testReEvaluationAtNewCycle() {
+        when(periodService.getNumOfStartedCycles(anyInt())).thenReturn(2);
+        service.onBlockAdded(getBlock(11));
+        verify(periodService, times(1)).isTxInCurrentCycle("tx1");
+        verify(periodService, times(1)).isTxInPastCycle("tx1");
+    }
+
+    @Test
+    public void testReEvaluationAtProposalTxConfirmation() {
+        when(periodService.isTxInCurrentCycle("tx1")).thenReturn(true);
+        service.onBlockAdded(getBlock(11, "tx1"));
+        verify(periodService, times(1)).isTxInCurrentCycle("tx1");
+        assertEquals(1, service.getActiveProposals().size());
+    }
+
+    @Test
+    public void testReEvaluationAtReOrg() {
+        service.onBlockAdded(getBlock(10));
+        verify(periodService, times(1)).isTxInCurrentCycle("tx1");
+        verify(periodService, times(1)).isTxInPastCycle("tx1");
+    }
+
+    @Test
+    public void testUidConflictIsRejected() {
+        final Proposal proposal = service.getObservableList().get(0);
+        service.onAdded(getEntry(getPayload("uid1", "other title", "tx2")));
+
+        assertEquals(1, service.getObservableList().size());
+        assertSame(proposal, service.getObservableList().get(0));
+
+        // The rejected payload must not have been indexed by its txId
+        service.onBlockAdded(getBlock(11, "tx2"));
+        verify(periodService, never()).isTxInCurrentCycle(anyString());
+    }
+
+    private ProposalPayload getPayload(String uid, String title, String txId) {
+        final ProposalPayload payload = new GenericProposalPayload(uid, "name", title, "description", "link",
+                ownerPubKey, new Date(0));
+        payload.setTxId(txId);
+        return payload;
+    }
+
+    private ProtectedStorageEntry getEntry(ProposalPayload payload) {
+        final ProtectedStorageEntry entry = mock(ProtectedStorageEntry.class);
+        when(entry.getProtectedStoragePayload()).thenReturn(payload);
+        return entry;
+    }
+
+    private BsqBlock getBlock(int height, String... txIds) {
+        final ImmutableList.Builder<Tx> txs = ImmutableList.builder();
+        for (String txId : txIds)
+            txs.add(new Tx(txId, height, "hash" + height, 0, ImmutableList.<TxInput>of(), ImmutableList.<TxOutput>of()));
+        return new BsqBlock(height, 0, "hash" + height, "hash" + (height - 1), txs.build());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.vote.proposal.compensation.issuance;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class IssuanceConsensusTest {
+
+    @Test
+    public void testMajorityHash() {
+        List<IssuanceService.HashWithTxIdList> list = new ArrayList<>(Arrays.asList(
+                new IssuanceService.HashWithTxIdList(createHash(1), Arrays.asList("tx1")),
+                new IssuanceService.HashWithTxIdList(createHash(2), Arrays.asList("tx2", "tx3", "tx4")),
+                new IssuanceService.HashWithTxIdList(createHash(3), Arrays.asList("tx5", "tx6"))));
+
+        assertArrayEquals(createHash(2), IssuanceConsensus.getMajorityHash(list));
+        assertNull(IssuanceConsensus.getMajorityHash(new ArrayList<>()));
+    }
+
+    @Test
+    public void testMajorityHashTieBreak() {
+        byte[] lowHash = createHash(0x10);
+        // 0x90 is negative as a signed byte, we compare unsigned
+        byte[] highHash = createHash(0x90);
+        List<IssuanceService.HashWithTxIdList> list = new ArrayList<>(Arrays.asList(
+                new IssuanceService.HashWithTxIdList(highHash, Arrays.asList("tx1", "tx2")),
+                new IssuanceService.HashWithTxIdList(createHash(0x05), Arrays.asList("tx3")),
+                new IssuanceService.HashWithTxIdList(lowHash, Arrays.asList("tx4", "tx5"))));
+
+        // Independent of the order of the list the lowest hash wins at a tie
+        for (int i = 0; i < 3; i++) {
+            Collections.rotate(list, 1);
+            assertArrayEquals(lowHash, IssuanceConsensus.getMajorityHash(new ArrayList<>(list)));
+        }
+    }
+
+    @Test
+    public void testGroupingOfEqualHashes() {
+        Map<String, byte[]> opReturnMap = new HashMap<>();
+        // Equal hashes in different array instances
+        opReturnMap.put("tx1", createOpReturnData(1));
+        opReturnMap.put("tx2", createOpReturnData(1));
+        opReturnMap.put("tx3", createOpReturnData(2));
+
+        Map<P2PDataStorage.ByteArray, List<String>> map = IssuanceConsensus.getTxIdListByVoteListHashMap(opReturnMap);
+        assertEquals(2, map.size());
+        List<String> txIds = new ArrayList<>(map.get(new P2PDataStorage.ByteArray(createHash(1))));
+        Collections.sort(txIds);
+        assertEquals(Arrays.asList("tx1", "tx2"), txIds);
+        assertEquals(Collections.singletonList("tx3"), map.get(new P2PDataStorage.ByteArray(createHash(2))));
+    }
+
+    // Hash of the list of blind votes has 20 bytes
+    private static byte[] createHash(int firstByte) {
+        byte[] hash = new byte[20];
+        hash[0] = (byte) firstByte;
+        return hash;
+    }
+
+    // Version and type bytes, 20 bytes hash and 16 bytes secret key
+    private static byte[] createOpReturnData(int firstHashByte) {
+        byte[] data = new byte[38];
+        System.arraycopy(createHash(firstHashByte), 0, data, 2, 20);
+        return data;
+    }
+}
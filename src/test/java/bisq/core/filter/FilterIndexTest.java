@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.filter;
+
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FilterIndexTest {
+
+    @Test
+    public void testIndex() {
+        PaymentAccountFilter sepaFilter1 = new PaymentAccountFilter("SEPA", "getIban", "iban1");
+        PaymentAccountFilter sepaFilter2 = new PaymentAccountFilter("SEPA", "getIban", "iban2");
+        PaymentAccountFilter okPayFilter = new PaymentAccountFilter("OK_PAY", "getAccountNr", "nr");
+        Filter filter = new Filter(Lists.newArrayList("offer1", "offer2"),
+                Lists.newArrayList("node1:8000"),
+                Lists.newArrayList(sepaFilter1, okPayFilter, sepaFilter2),
+                Lists.newArrayList("XMR"),
+                null,
+                null,
+                null,
+                null,
+                false,
+                null);
+
+        FilterIndex filterIndex = new FilterIndex(filter);
+        assertTrue(filterIndex.getBannedOfferIds().contains("offer2"));
+        assertFalse(filterIndex.getBannedOfferIds().contains("offer3"));
+        assertTrue(filterIndex.getBannedNodeAddresses().contains("node1:8000"));
+        assertTrue(filterIndex.getBannedCurrencies().contains("XMR"));
+        assertTrue(filterIndex.getBannedPaymentMethods().isEmpty());
+        assertEquals(Lists.newArrayList(sepaFilter1, sepaFilter2), filterIndex.getBannedPaymentAccounts("SEPA"));
+        assertEquals(Collections.singletonList(okPayFilter), filterIndex.getBannedPaymentAccounts("OK_PAY"));
+        assertTrue(filterIndex.getBannedPaymentAccounts("SWISH").isEmpty());
+    }
+
+    @Test
+    public void testEmptyFilter() {
+        Filter filter = new Filter(new ArrayList<>(), new ArrayList<>(), new ArrayList<>(),
+                null, null, null, null, null, false, null);
+        FilterIndex filterIndex = new FilterIndex(filter);
+        assertTrue(filterIndex.getBannedOfferIds().isEmpty());
+        assertTrue(filterIndex.getBannedCurrencies().isEmpty());
+        assertTrue(filterIndex.getBannedPaymentAccounts("SEPA").isEmpty());
+    }
+}
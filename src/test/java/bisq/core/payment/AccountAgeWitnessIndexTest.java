@@ -0,0 +1,80 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.payment;
+
+import java.nio.ByteBuffer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AccountAgeWitnessIndexTest {
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(0);
+        AccountAgeWitnessIndex index = new AccountAgeWitnessIndex();
+        Map<ByteBuffer, AccountAgeWitness> map = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            byte[] hash = new byte[AccountAgeWitnessIndex.HASH_LENGTH];
+            random.nextBytes(hash);
+            // Add some colliding start slots
+            if (i % 10 == 0)
+                hash[0] = hash[1] = hash[2] = hash[3] = 0;
+            AccountAgeWitness witness = new AccountAgeWitness(hash, random.nextLong());
+            boolean isNew = !map.containsKey(ByteBuffer.wrap(hash));
+            assertEquals(isNew, index.putIfAbsent(witness));
+            map.putIfAbsent(ByteBuffer.wrap(hash), witness);
+        }
+        assertEquals(map.size(), index.size());
+
+        map.values().forEach(witness -> {
+            assertTrue(index.contains(witness.getHash()));
+            assertEquals(Optional.of(witness), index.get(witness.getHash()));
+        });
+
+        byte[] unknownHash = new byte[AccountAgeWitnessIndex.HASH_LENGTH];
+        random.nextBytes(unknownHash);
+        assertFalse(index.contains(unknownHash));
+        assertFalse(index.get(unknownHash).isPresent());
+    }
+
+    @Test
+    public void testFirstWitnessIsKept() {
+        AccountAgeWitnessIndex index = new AccountAgeWitnessIndex();
+        byte[] hash = new byte[AccountAgeWitnessIndex.HASH_LENGTH];
+        assertTrue(index.putIfAbsent(new AccountAgeWitness(hash, 1)));
+        assertFalse(index.putIfAbsent(new AccountAgeWitness(hash, 2)));
+        assertEquals(1, index.get(hash).get().getDate());
+    }
+
+    @Test
+    public void testInvalidHashLength() {
+        AccountAgeWitnessIndex index = new AccountAgeWitnessIndex();
+        assertFalse(index.putIfAbsent(new AccountAgeWitness(new byte[0], 1)));
+        assertFalse(index.contains(new byte[0]));
+        assertFalse(index.get(new byte[5]).isPresent());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.payment;
+
+import bisq.common.util.Utilities;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class AccountAgeWitnessTradeLimitTest {
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private AccountAgeWitnessService service;
+
+    @Before
+    public void setup() {
+        service = new AccountAgeWitnessService(null, null, null);
+    }
+
+    @Test
+    public void testValidUntilAtAccountAgeBoundaries() {
+        final long witnessDate = Utilities.getUTCDate(2018, GregorianCalendar.JUNE, 1).getTime();
+        final AccountAgeWitness witness = new AccountAgeWitness(new byte[20], witnessDate);
+
+        assertValidUntil(witness, witnessDate, witnessDate + 30 * DAY, AccountAgeWitnessService.AccountAge.LESS_ONE_MONTH);
+        assertValidUntil(witness, witnessDate + 30 * DAY - 1, witnessDate + 30 * DAY, AccountAgeWitnessService.AccountAge.LESS_ONE_MONTH);
+        assertValidUntil(witness, witnessDate + 30 * DAY, witnessDate + 60 * DAY, AccountAgeWitnessService.AccountAge.ONE_TO_TWO_MONTHS);
+        assertValidUntil(witness, witnessDate + 60 * DAY - 1, witnessDate + 60 * DAY, AccountAgeWitnessService.AccountAge.ONE_TO_TWO_MONTHS);
+        assertValidUntil(witness, witnessDate + 60 * DAY, Long.MAX_VALUE, AccountAgeWitnessService.AccountAge.TWO_MONTHS_OR_MORE);
+    }
+
+    @Test
+    public void testValidUntilAtFadeInPhases() {
+        final long witnessDate = Utilities.getUTCDate(2017, GregorianCalendar.DECEMBER, 1).getTime();
+        final AccountAgeWitness witness = new AccountAgeWitness(new byte[20], witnessDate);
+        final long firstPhase = Utilities.getUTCDate(2017, GregorianCalendar.DECEMBER, 15).getTime();
+        final long secondPhase = Utilities.getUTCDate(2018, GregorianCalendar.JANUARY, 15).getTime();
+
+        assertEquals(firstPhase, service.getTradeLimitValidUntil(witness, new Date(witnessDate)));
+        assertEquals(witnessDate + 30 * DAY, service.getTradeLimitValidUntil(witness, new Date(firstPhase)));
+        assertEquals(secondPhase, service.getTradeLimitValidUntil(witness, new Date(witnessDate + 30 * DAY)));
+    }
+
+    // The limit must not change before validUntil, so the account age category at now and right before validUntil
+    // has to be the same.
+    private void assertValidUntil(AccountAgeWitness witness, long now, long expectedValidUntil,
+                                  AccountAgeWitnessService.AccountAge expectedAccountAge) {
+        final long validUntil = service.getTradeLimitValidUntil(witness, new Date(now));
+        assertEquals(expectedValidUntil, validUntil);
+        assertEquals(expectedAccountAge, service.getAccountAgeCategory(service.getAccountAge(witness, new Date(now))));
+        if (validUntil != Long.MAX_VALUE)
+            assertEquals(expectedAccountAge, service.getAccountAgeCategory(service.getAccountAge(witness, new Date(validUntil - 1))));
+    }
+}
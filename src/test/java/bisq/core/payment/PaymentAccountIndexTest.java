@@ -0,0 +1,120 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.payment;
+
+import bisq.core.locale.CryptoCurrency;
+import bisq.core.locale.TradeCurrency;
+import bisq.core.offer.Offer;
+import bisq.core.payment.payload.PaymentMethod;
+
+import org.bitcoinj.core.Coin;
+
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({SepaAccount.class, NationalBankAccount.class})
+public class PaymentAccountIndexTest {
+    private final BiFunction<Offer, PaymentAccount, Boolean> dummyValidator = (offer, account) -> true;
+
+    @Test
+    public void testCandidatesMatchCurrencyAndPaymentMethod() {
+        PaymentAccount aliPayAccount = createAccount(mock(PaymentAccount.class), PaymentMethod.ALI_PAY_ID, "CNY");
+        PaymentAccount swishAccount = createAccount(mock(PaymentAccount.class), PaymentMethod.SWISH_ID, "SEK");
+        PaymentAccountIndex index = new PaymentAccountIndex(Lists.newArrayList(aliPayAccount, swishAccount),
+                dummyValidator);
+
+        assertEquals(Collections.singletonList(aliPayAccount),
+                index.getValidPaymentAccounts(createOffer(PaymentMethod.ALI_PAY_ID, "CNY")));
+        assertTrue(index.isAnyPaymentAccountValidForOffer(createOffer(PaymentMethod.SWISH_ID, "SEK")));
+        assertFalse(index.isAnyPaymentAccountValidForOffer(createOffer(PaymentMethod.SWISH_ID, "CNY")));
+        assertFalse(index.isAnyPaymentAccountValidForOffer(createOffer(PaymentMethod.VENMO_ID, "SEK")));
+    }
+
+    @Test
+    public void testCandidatesAreCheckedWithValidator() {
+        PaymentAccount account = createAccount(mock(PaymentAccount.class), PaymentMethod.ALI_PAY_ID, "CNY");
+        PaymentAccountIndex index = new PaymentAccountIndex(Collections.singletonList(account),
+                (offer, paymentAccount) -> false);
+
+        assertFalse(index.isAnyPaymentAccountValidForOffer(createOffer(PaymentMethod.ALI_PAY_ID, "CNY")));
+        assertTrue(index.getValidPaymentAccounts(createOffer(PaymentMethod.ALI_PAY_ID, "CNY")).isEmpty());
+    }
+
+    @Test
+    public void testSepaAndBankAccountsAreCandidatesForRelatedPaymentMethods() {
+        PaymentAccount sepaAccount = createAccount(mock(SepaAccount.class), PaymentMethod.SEPA_ID, "EUR");
+        PaymentAccount nationalBankAccount = createAccount(mock(NationalBankAccount.class),
+                PaymentMethod.NATIONAL_BANK_ID, "EUR");
+        PaymentAccountIndex index = new PaymentAccountIndex(Lists.newArrayList(sepaAccount, nationalBankAccount),
+                dummyValidator);
+
+        assertEquals(Collections.singletonList(sepaAccount),
+                index.getValidPaymentAccounts(createOffer(PaymentMethod.SEPA_INSTANT_ID, "EUR")));
+        assertEquals(Lists.newArrayList(sepaAccount, nationalBankAccount),
+                index.getValidPaymentAccounts(createOffer(PaymentMethod.SPECIFIC_BANKS_ID, "EUR")));
+        assertEquals(Collections.singletonList(nationalBankAccount),
+                index.getValidPaymentAccounts(createOffer(PaymentMethod.NATIONAL_BANK_ID, "EUR")));
+    }
+
+    @Test
+    public void testIsBuiltFrom() {
+        PaymentAccount account = createAccount(mock(PaymentAccount.class), PaymentMethod.ALI_PAY_ID, "CNY");
+        List<PaymentAccount> accounts = Lists.newArrayList(account);
+        PaymentAccountIndex index = new PaymentAccountIndex(accounts, dummyValidator);
+        assertTrue(index.isBuiltFrom(accounts));
+
+        account.getTradeCurrencies().add(new CryptoCurrency("XMR", "Monero"));
+        assertFalse(index.isBuiltFrom(accounts));
+
+        index = new PaymentAccountIndex(accounts, dummyValidator);
+        accounts.add(createAccount(mock(PaymentAccount.class), PaymentMethod.SWISH_ID, "SEK"));
+        assertFalse(index.isBuiltFrom(accounts));
+    }
+
+    private static PaymentAccount createAccount(PaymentAccount account, String paymentMethodId, String currencyCode) {
+        List<TradeCurrency> tradeCurrencies = new ArrayList<>();
+        tradeCurrencies.add(new CryptoCurrency(currencyCode, currencyCode));
+        when(account.getTradeCurrencies()).thenReturn(tradeCurrencies);
+        when(account.getPaymentMethod()).thenReturn(new PaymentMethod(paymentMethodId, 0, Coin.ZERO));
+        return account;
+    }
+
+    private static Offer createOffer(String paymentMethodId, String currencyCode) {
+        Offer offer = mock(Offer.class);
+        when(offer.getCurrencyCode()).thenReturn(currencyCode);
+        when(offer.getPaymentMethod()).thenReturn(new PaymentMethod(paymentMethodId, 0, Coin.ZERO));
+        return offer;
+    }
+}
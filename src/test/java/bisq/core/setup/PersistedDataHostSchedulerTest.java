@@ -0,0 +1,69 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.setup;
+
+import bisq.common.proto.persistable.PersistedDataHost;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PersistedDataHostSchedulerTest {
+
+    @Test
+    public void testDependenciesAreReadFirst() {
+        List<String> readOrder = new CopyOnWriteArrayList<>();
+        PersistedDataHost preferences = () -> readOrder.add("preferences");
+        PersistedDataHost user = () -> readOrder.add("user");
+        PersistedDataHost trades = () -> readOrder.add("trades");
+        PersistedDataHost failing = () -> {
+            throw new RuntimeException("Simulated read error");
+        };
+        PersistedDataHost dependsOnFailing = () -> readOrder.add("dependsOnFailing");
+        PersistedDataHost independent = () -> readOrder.add("independent");
+
+        new PersistedDataHostScheduler()
+                .add(preferences)
+                .add(user, preferences)
+                .add(trades, preferences, user)
+                .add(failing)
+                .add(dependsOnFailing, failing)
+                .add(independent)
+                .readPersisted();
+
+        // A failing host does not prevent reading of the hosts depending on it
+        assertEquals(5, readOrder.size());
+        assertTrue(readOrder.indexOf("preferences") < readOrder.indexOf("user"));
+        assertTrue(readOrder.indexOf("user") < readOrder.indexOf("trades"));
+        assertTrue(readOrder.contains("dependsOnFailing"));
+        assertTrue(readOrder.contains("independent"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDependencyMustBeAddedFirst() {
+        PersistedDataHost preferences = () -> {
+        };
+        PersistedDataHost user = () -> {
+        };
+        new PersistedDataHostScheduler().add(user, preferences);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static bisq.core.trade.statistics.TradeStatisticsTestUtils.createTradeStatistics;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsCandleAggregatorTest {
+    private TradeStatisticsCandleAggregator aggregator;
+
+    @Before
+    public void setup() {
+        aggregator = new TradeStatisticsCandleAggregator();
+    }
+
+    @Test
+    public void testCandleValues() {
+        // Not added in order of trade date
+        aggregator.add(createTradeStatistics("offerId", "EUR", 30, 200, time(2018, 3, 5, 10, 30)));
+        aggregator.add(createTradeStatistics("offerId", "EUR", 10, 100, time(2018, 3, 5, 10, 10)));
+        aggregator.add(createTradeStatistics("offerId", "EUR", 40, 300, time(2018, 3, 5, 10, 50)));
+        aggregator.add(createTradeStatistics("offerId", "EUR", 5, 400, time(2018, 3, 5, 10, 20)));
+
+        List<TradeStatisticsCandle> candles = aggregator.getCandles("EUR", CandleResolution.HOUR, 0, Long.MAX_VALUE);
+        assertEquals(1, candles.size());
+        TradeStatisticsCandle candle = candles.get(0);
+        assertEquals(10, candle.getOpen());
+        assertEquals(40, candle.getHigh());
+        assertEquals(5, candle.getLow());
+        assertEquals(40, candle.getClose());
+        assertEquals(1000, candle.getAmount());
+        assertEquals(4, candle.getNumTrades());
+        assertEquals(time(2018, 3, 5, 10, 0), candle.getIntervalStart());
+    }
+
+    @Test
+    public void testResolutions() {
+        // Monday 5th and Sunday 11th of March are in the same week, Monday 12th is in the next
+        aggregator.add(createTradeStatistics("offerId", "EUR", 10, 100, time(2018, 3, 5, 10, 0)));
+        aggregator.add(createTradeStatistics("offerId", "EUR", 10, 100, time(2018, 3, 11, 23, 0)));
+        aggregator.add(createTradeStatistics("offerId", "EUR", 10, 100, time(2018, 3, 12, 0, 0)));
+        aggregator.add(createTradeStatistics("offerId", "EUR", 10, 100, time(2018, 4, 1, 0, 0)));
+
+        assertEquals(4, aggregator.getCandlesAsStream("EUR", CandleResolution.HOUR).count());
+        assertEquals(4, aggregator.getCandlesAsStream("EUR", CandleResolution.DAY).count());
+        assertEquals(3, aggregator.getCandlesAsStream("EUR", CandleResolution.WEEK).count());
+        assertEquals(2, aggregator.getCandlesAsStream("EUR", CandleResolution.MONTH).count());
+        assertEquals(time(2018, 3, 12, 0, 0), aggregator.getCandlesAsStream("EUR", CandleResolution.WEEK)
+                .skip(1).findFirst().get().getIntervalStart());
+    }
+
+    @Test
+    public void testGetCandlesInRange() {
+        aggregator.add(createTradeStatistics("offerId", "EUR", 10, 100, time(2018, 3, 5, 10, 0)));
+        aggregator.add(createTradeStatistics("offerId", "EUR", 10, 100, time(2018, 3, 6, 10, 0)));
+        aggregator.add(createTradeStatistics("offerId", "EUR", 10, 100, time(2018, 3, 7, 10, 0)));
+
+        assertEquals(2, aggregator.getCandles("EUR", CandleResolution.DAY, time(2018, 3, 5, 12, 0), time(2018, 3, 7, 0, 0)).size());
+        assertTrue(aggregator.getCandles("USD", CandleResolution.DAY, 0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testGetLatestPriceByCurrencyCode() {
+        aggregator.add(createTradeStatistics("offerId", "EUR", 20, 100, time(2018, 3, 6, 10, 0)));
+        aggregator.add(createTradeStatistics("offerId", "EUR", 10, 100, time(2018, 3, 5, 10, 0)));
+
+        assertEquals(20, aggregator.getLatestPriceByCurrencyCode().get("EUR").getValue());
+    }
+
+    private static long time(int year, int month, int day, int hour, int minute) {
+        return LocalDateTime.of(year, month, day, hour, minute).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
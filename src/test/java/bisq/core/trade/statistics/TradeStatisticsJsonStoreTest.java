@@ -0,0 +1,125 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static bisq.core.trade.statistics.TradeStatisticsTestUtils.createTradeStatistics;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsJsonStoreTest {
+    private static final long MARCH = LocalDateTime.of(2018, 3, 10, 12, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+    private static final long APRIL = LocalDateTime.of(2018, 4, 10, 12, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File storageDir;
+    private TradeStatisticsJsonStore store;
+
+    @Before
+    public void setup() throws Exception {
+        storageDir = tempFolder.newFolder();
+        store = new TradeStatisticsJsonStore(storageDir);
+    }
+
+    @Test
+    public void testBucketRouting() {
+        store.addAll(Arrays.asList(createTradeStatistics("offer1", "EUR", 50000000, 100000, MARCH),
+                createTradeStatistics("offer2", "USD", 50000000, 100000, MARCH)));
+        store.add(createTradeStatistics("offer3", "EUR", 50000000, 100000, APRIL));
+        store.add(createTradeStatistics("offer4", "EUR", 50000000, 100000, MARCH + 1));
+
+        assertEquals(Arrays.asList("2018-03_EUR", "2018-03_USD", "2018-04_EUR"), store.getBucketNames());
+        assertTrue(new File(storageDir, "trade_statistics_buckets/2018-03_EUR.json").exists());
+        assertTrue(new File(storageDir, "trade_statistics_buckets/2018-04_EUR.json").exists());
+        assertTrue(new File(storageDir, "trade_statistics_buckets/index.json").exists());
+    }
+
+    @Test
+    public void testGetAllAsStreamMostRecentFirst() {
+        store.addAll(Arrays.asList(createTradeStatistics("offer1", "EUR", 50000000, 100000, MARCH),
+                createTradeStatistics("offer2", "USD", 50000000, 100000, MARCH + 2),
+                createTradeStatistics("offer3", "EUR", 50000000, 100000, APRIL)));
+        store.add(createTradeStatistics("offer4", "EUR", 50000000, 100000, MARCH + 1));
+
+        List<String> offerIds = store.getAllAsStream().map(e -> e.offerId).collect(Collectors.toList());
+        assertEquals(Arrays.asList("offer3", "offer2", "offer4", "offer1"), offerIds);
+    }
+
+    @Test
+    public void testMergedFile() throws Exception {
+        store.addAll(Arrays.asList(createTradeStatistics("offer1", "EUR", 50000000, 100000, MARCH),
+                createTradeStatistics("offer2", "USD", 50000000, 100000, APRIL)));
+
+        store.writeMergedFile("merged").get();
+
+        File mergedFile = new File(storageDir, "merged.json");
+        assertTrue(mergedFile.exists());
+        assertTrue(!new File(storageDir, "merged.json.tmp").exists());
+
+        StringWriter writer = new StringWriter();
+        TradeStatisticsJsonStore.writeMergedJson(store.getAllAsStream(), writer);
+        String json = new String(Files.readAllBytes(mergedFile.toPath()), StandardCharsets.UTF_8);
+        assertEquals(writer.toString(), json);
+        assertTrue(json.startsWith("["));
+        assertTrue(json.endsWith("]"));
+        assertTrue(json.indexOf("offer2") < json.indexOf("offer1"));
+    }
+
+    @Test
+    public void testWriteMergedJsonEmpty() throws Exception {
+        StringWriter writer = new StringWriter();
+        TradeStatisticsJsonStore.writeMergedJson(store.getAllAsStream(), writer);
+        assertEquals("[]", writer.toString());
+    }
+
+    @Test
+    public void testMaybeWriteMergedFileOnlyIfOutdated() throws Exception {
+        store.addAll(Arrays.asList(createTradeStatistics("offer1", "EUR", 50000000, 100000, MARCH)));
+
+        assertNotNull(store.maybeWriteMergedFile("merged"));
+        assertNull(store.maybeWriteMergedFile("merged"));
+
+        store.add(createTradeStatistics("offer2", "EUR", 50000000, 100000, APRIL));
+        assertNotNull(store.maybeWriteMergedFile("merged"));
+        assertNull(store.maybeWriteMergedFile("merged"));
+
+        store.writeMergedFile("merged").get();
+        assertNull(store.maybeWriteMergedFile("merged"));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.core.provider.price.PriceFeedService;
+
+import bisq.network.p2p.P2PService;
+
+import java.io.File;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static bisq.core.trade.statistics.TradeStatisticsTestUtils.createTradeStatistics;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+@Slf4j
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({P2PService.class, PriceFeedService.class})
+public class TradeStatisticsManagerTest {
+    private TradeStatisticsManager manager;
+
+    @Before
+    public void setup() {
+        manager = new TradeStatisticsManager(mock(P2PService.class), mock(PriceFeedService.class), new File("."), false);
+    }
+
+    @Test
+    public void testAddToMapIgnoresSameOfferId() {
+        manager.addToMap(createTradeStatistics("offer1", "EUR", 50000000, 100000, 1), false);
+        manager.addToMap(createTradeStatistics("offer1", "EUR", 50000000, 100000, 2), false);
+        manager.addToMap(createTradeStatistics("offer2", "EUR", 50000000, 100000, 3), false);
+
+        assertEquals(2, manager.getObservableTradeStatisticsSet().size());
+    }
+
+    @Test
+    public void testAddAllToMapIgnoresDuplicates() {
+        TradeStatistics2 tradeStatistics = createTradeStatistics("offer1", "EUR", 50000000, 100000, 1);
+        manager.addToMap(tradeStatistics, false);
+        manager.addAllToMap(Arrays.asList(tradeStatistics,
+                createTradeStatistics("offer1", "EUR", 50000000, 100000, 2),
+                createTradeStatistics("offer2", "EUR", 50000000, 100000, 3),
+                createTradeStatistics("offer2", "EUR", 50000000, 100000, 4)));
+
+        assertEquals(2, manager.getObservableTradeStatisticsSet().size());
+    }
+
+    @Test
+    public void testAddAllToMapStartupLoad() {
+        int numItems = 100_000;
+        List<TradeStatistics2> list = new ArrayList<>(numItems);
+        for (int i = 0; i < numItems; i++) {
+            list.add(createTradeStatistics("offer" + i, "EUR", 50000000, 100000, i));
+        }
+
+        long ts = System.currentTimeMillis();
+        manager.addAllToMap(list);
+        log.info("Loading {} trade statistics took {} ms", numItems, System.currentTimeMillis() - ts);
+
+        assertEquals(numItems, manager.getObservableTradeStatisticsSet().size());
+    }
+}
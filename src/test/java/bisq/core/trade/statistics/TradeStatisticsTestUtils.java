@@ -0,0 +1,50 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.statistics;
+
+import bisq.core.offer.OfferPayload;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Arrays;
+
+class TradeStatisticsTestUtils {
+
+    // We pass a hash derived from offerId and tradeDate to avoid the costly json based hash calculation. It is padded
+    // to the 20 bytes of a real hash.
+    static TradeStatistics2 createTradeStatistics(String offerId, String currencyCode, long tradePrice,
+                                                  long tradeAmount, long tradeDate) {
+        final byte[] bytes = (offerId + "_" + tradeDate).getBytes(StandardCharsets.UTF_8);
+        return new TradeStatistics2(OfferPayload.Direction.BUY,
+                "BTC",
+                currencyCode,
+                "SEPA",
+                0,
+                false,
+                0,
+                tradeAmount,
+                tradeAmount,
+                offerId,
+                tradePrice,
+                tradeAmount,
+                tradeDate,
+                "depositTxId",
+                Arrays.copyOf(bytes, Math.max(20, bytes.length)),
+                null);
+    }
+}
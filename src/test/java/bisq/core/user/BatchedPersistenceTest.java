@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.user;
+
+import bisq.common.proto.persistable.PersistableEnvelope;
+import bisq.common.storage.Storage;
+
+import com.google.protobuf.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchedPersistenceTest {
+    private Storage<PersistableEnvelope> storage;
+    private PersistableEnvelope payload;
+    private Message message;
+    private List<Runnable> scheduledSaves;
+    private BatchedPersistence<PersistableEnvelope> batchedPersistence;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        storage = mock(Storage.class);
+        payload = mock(PersistableEnvelope.class);
+        message = mock(Message.class);
+        when(payload.toProtoMessage()).thenReturn(message);
+        when(message.toByteArray()).thenReturn(new byte[]{1});
+        scheduledSaves = new ArrayList<>();
+        batchedPersistence = new BatchedPersistence<>(scheduledSaves::add);
+    }
+
+    @Test
+    public void testPersistOutsideOfBatch() {
+        batchedPersistence.persist(storage, payload);
+        verify(storage, never()).queueUpForSave(payload);
+
+        runScheduledSaves();
+        verify(storage).queueUpForSave(payload);
+    }
+
+    @Test
+    public void testPersistsBeforeScheduledSaveAreSavedOnce() {
+        batchedPersistence.persist(storage, payload);
+        batchedPersistence.persist(storage, payload);
+        batchedPersistence.persist(storage, payload);
+        runScheduledSaves();
+
+        verify(storage, times(1)).queueUpForSave(payload);
+        verify(message, times(1)).toByteArray();
+    }
+
+    @Test
+    public void testUnchangedPayloadIsNotSavedAgain() {
+        batchedPersistence.persist(storage, payload);
+        runScheduledSaves();
+        batchedPersistence.persist(storage, payload);
+        runScheduledSaves();
+        verify(storage, times(1)).queueUpForSave(payload);
+
+        when(message.toByteArray()).thenReturn(new byte[]{2});
+        batchedPersistence.persist(storage, payload);
+        runScheduledSaves();
+        verify(storage, times(2)).queueUpForSave(payload);
+    }
+
+    @Test
+    public void testScheduledSaveInsideOfBatchIsDeferredToBatchEnd() {
+        batchedPersistence.persist(storage, payload);
+        batchedPersistence.beginBatch();
+        runScheduledSaves();
+        verify(storage, never()).queueUpForSave(payload);
+
+        batchedPersistence.endBatch(storage, payload);
+        verify(storage, times(1)).queueUpForSave(payload);
+    }
+
+    @Test
+    public void testBatchCausesOneSave() {
+        batchedPersistence.beginBatch();
+        batchedPersistence.persist(storage, payload);
+        batchedPersistence.beginBatch();
+        batchedPersistence.persist(storage, payload);
+        batchedPersistence.endBatch(storage, payload);
+        verify(storage, never()).queueUpForSave(payload);
+
+        batchedPersistence.endBatch(storage, payload);
+        verify(storage, times(1)).queueUpForSave(payload);
+        assertTrue(scheduledSaves.isEmpty());
+    }
+
+    @Test
+    public void testBatchWithoutChangeDoesNotSave() {
+        batchedPersistence.beginBatch();
+        batchedPersistence.endBatch(storage, payload);
+        verify(storage, never()).queueUpForSave(payload);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEndBatchWithoutBegin() {
+        batchedPersistence.endBatch(storage, payload);
+    }
+
+    private void runScheduledSaves() {
+        List<Runnable> saves = new ArrayList<>(scheduledSaves);
+        scheduledSaves.clear();
+        saves.forEach(Runnable::run);
+    }
+}